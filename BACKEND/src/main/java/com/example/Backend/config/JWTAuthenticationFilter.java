@@ -1,5 +1,6 @@
 package com.example.Backend.config;
 
+import com.example.Backend.service.StreamTicketService;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import jakarta.servlet.FilterChain;
@@ -18,9 +19,11 @@ import java.util.Date;
 
 public class JWTAuthenticationFilter extends OncePerRequestFilter {
     private final Key jwtSecret;
+    private final StreamTicketService streamTicketService;
 
-    public JWTAuthenticationFilter(Key jwtSecret) {
+    public JWTAuthenticationFilter(Key jwtSecret, StreamTicketService streamTicketService) {
         this.jwtSecret = jwtSecret;
+        this.streamTicketService = streamTicketService;
     }
 
     @Override
@@ -28,6 +31,11 @@ public class JWTAuthenticationFilter extends OncePerRequestFilter {
             throws ServletException, IOException {
 
         String header = request.getHeader("Authorization");
+        //EventSource cannot send headers, so the event stream is opened with a single-use ticket rather than the token
+        if (header == null && isStreamRequest(request)) {
+            authenticateStream(request, response, filterChain);
+            return;
+        }
 
         //skip token validation for certain paths
         if (header == null || !header.startsWith("Bearer ") || isOpenEndpoint(request.getRequestURI())) {
@@ -71,6 +79,24 @@ public class JWTAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    private void authenticateStream(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String userId = streamTicketService.redeem(request.getParameter("ticket"));
+        if (userId == null) {
+            response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+            response.getWriter().write("Invalid stream ticket");
+            return;
+        }
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                userId, null, Collections.singletonList(new SimpleGrantedAuthority("USER"))));
+        filterChain.doFilter(request, response);
+    }
+
+    private boolean isStreamRequest(HttpServletRequest request) {
+        return "GET".equals(request.getMethod()) && "/api/stream".equals(request.getRequestURI())
+                && request.getParameter("ticket") != null;
+    }
+
     private boolean isOpenEndpoint(String uri) {
         return uri.startsWith("/api/users/login") ||
                 uri.startsWith("/api/users/register") ||
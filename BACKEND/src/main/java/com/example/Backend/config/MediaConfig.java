@@ -0,0 +1,26 @@
+package com.example.Backend.config;
+
+import com.example.Backend.service.AvatarMigrationService;
+import com.example.Backend.service.MediaMigrationService;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MediaConfig {
+
+    //one-off migration of base64 post media into the blob store, enabled with media.migration.run-on-startup=true
+    @Bean
+    @ConditionalOnProperty(name = "media.migration.run-on-startup", havingValue = "true")
+    public ApplicationRunner mediaMigrationRunner(MediaMigrationService mediaMigrationService) {
+        return args -> mediaMigrationService.migratePostMedia();
+    }
+
+    //one-off migration of base64 profile images into avatar variants, enabled with avatar.migration.run-on-startup=true
+    @Bean
+    @ConditionalOnProperty(name = "avatar.migration.run-on-startup", havingValue = "true")
+    public ApplicationRunner avatarMigrationRunner(AvatarMigrationService avatarMigrationService) {
+        return args -> avatarMigrationService.migrateProfileImages();
+    }
+}
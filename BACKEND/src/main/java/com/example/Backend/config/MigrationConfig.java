@@ -0,0 +1,45 @@
+package com.example.Backend.config;
+
+import com.example.Backend.service.CommentMigrationService;
+import com.example.Backend.service.EngagementMigrationService;
+import com.example.Backend.service.FollowMigrationService;
+import com.example.Backend.service.NotificationMigrationService;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MigrationConfig {
+
+    //one-off backfill of denormalized like counters and like edges, enabled with engagement.migration.run-on-startup=true
+    @Bean
+    @ConditionalOnProperty(name = "engagement.migration.run-on-startup", havingValue = "true")
+    public ApplicationRunner engagementMigrationRunner(EngagementMigrationService engagementMigrationService) {
+        return args -> {
+            engagementMigrationService.backfillLikeCounts();
+            engagementMigrationService.backfillLikeEdges();
+        };
+    }
+
+    //one-off move of embedded comments into the comments collection, enabled with comments.migration.run-on-startup=true
+    @Bean
+    @ConditionalOnProperty(name = "comments.migration.run-on-startup", havingValue = "true")
+    public ApplicationRunner commentMigrationRunner(CommentMigrationService commentMigrationService) {
+        return args -> commentMigrationService.migrateEmbeddedComments();
+    }
+
+    //one-off initialisation of unread notification counters, enabled with notifications.migration.run-on-startup=true
+    @Bean
+    @ConditionalOnProperty(name = "notifications.migration.run-on-startup", havingValue = "true")
+    public ApplicationRunner notificationMigrationRunner(NotificationMigrationService notificationMigrationService) {
+        return args -> notificationMigrationService.backfillUnreadCounters();
+    }
+
+    //one-off move of embedded follower arrays into follow edges, enabled with follows.migration.run-on-startup=true
+    @Bean
+    @ConditionalOnProperty(name = "follows.migration.run-on-startup", havingValue = "true")
+    public ApplicationRunner followMigrationRunner(FollowMigrationService followMigrationService) {
+        return args -> followMigrationService.migrateEmbeddedFollows();
+    }
+}
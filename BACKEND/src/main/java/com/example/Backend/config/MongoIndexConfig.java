@@ -0,0 +1,60 @@
+package com.example.Backend.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+
+// Creates the indexes declared with @Indexed/@CompoundIndex on the document classes. Runs once the app is up, on its
+// own thread, so an unreachable database delays nothing and a failure is only logged.
+@Configuration
+public class MongoIndexConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(MongoIndexConfig.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final MongoMappingContext mappingContext;
+    private final boolean enabled;
+
+    public MongoIndexConfig(MongoTemplate mongoTemplate, MongoMappingContext mappingContext,
+                            @Value("${mongodb.ensure-indexes:true}") boolean enabled) {
+        this.mongoTemplate = mongoTemplate;
+        this.mappingContext = mappingContext;
+        this.enabled = enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureIndexes() {
+        if (!enabled) {
+            return;
+        }
+        Thread thread = new Thread(this::createIndexes, "mongo-indexes");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void createIndexes() {
+        MongoPersistentEntityIndexResolver resolver = new MongoPersistentEntityIndexResolver(mappingContext);
+        for (MongoPersistentEntity<?> entity : mappingContext.getPersistentEntities()) {
+            if (!entity.isAnnotationPresent(Document.class)) {
+                continue;
+            }
+            try {
+                for (IndexDefinition index : resolver.resolveIndexFor(entity.getType())) {
+                    //creating an index that already exists with the same spec is a no-op on the server
+                    mongoTemplate.indexOps(entity.getType()).ensureIndex(index);
+                }
+            } catch (RuntimeException e) {
+                log.warn("Could not create indexes for {}: {}", entity.getCollection(), e.getMessage());
+            }
+        }
+    }
+}
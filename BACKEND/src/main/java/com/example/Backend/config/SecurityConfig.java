@@ -2,6 +2,7 @@ package com.example.Backend.config;
 
 import com.example.Backend.enums.RegistrationSource;
 import com.example.Backend.model.User;
+import com.example.Backend.service.StreamTicketService;
 import com.example.Backend.service.UserService;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -10,6 +11,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Lazy;
+import jakarta.servlet.DispatcherType;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.oauth2.core.user.OAuth2User;
@@ -35,8 +38,8 @@ public class SecurityConfig {
     private final JWTAuthenticationFilter jwtAuthenticationFilter;
     private final UserService userService;
     @Autowired
-    public SecurityConfig(Key jwtSecretKey,@Lazy UserService userService) {
-        this.jwtAuthenticationFilter = new JWTAuthenticationFilter(jwtSecretKey);
+    public SecurityConfig(Key jwtSecretKey,@Lazy UserService userService, @Lazy StreamTicketService streamTicketService) {
+        this.jwtAuthenticationFilter = new JWTAuthenticationFilter(jwtSecretKey, streamTicketService);
         this.userService = userService;
     }
 
@@ -52,6 +55,10 @@ public class SecurityConfig {
                         t.requestMatchers("/api/users/login", "/api/users/register").permitAll()
                                 .requestMatchers("/oauth2/**").permitAll()
                                 .requestMatchers("/api/auth/**").permitAll()
+                                .requestMatchers(HttpMethod.GET, "/api/media/**").permitAll()
+                                .requestMatchers(HttpMethod.GET, "/api/avatars/**").permitAll()
+                                //the async dispatch that closes an event stream was already authorized when it opened
+                                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                                 .anyRequest().authenticated()
                 )
                 .oauth2Login(t ->
@@ -106,8 +113,8 @@ public class SecurityConfig {
         configuration.setAllowedOrigins(List.of("http://localhost:5173"));
         configuration.setAllowedMethods(List.of("HEAD", "GET", "POST", "PUT", "DELETE", "PATCH", "OPTIONS"));
         configuration.setAllowCredentials(true);
-        configuration.setAllowedHeaders(List.of("Authorization", "Cache-Control", "Content-Type"));
-        configuration.setExposedHeaders(List.of("Authorization", "Cache-Control", "Content-Type"));
+        configuration.setAllowedHeaders(List.of("Authorization", "Cache-Control", "Content-Type", "Range", "If-None-Match"));
+        configuration.setExposedHeaders(List.of("Authorization", "Cache-Control", "Content-Type", "ETag", "Content-Range", "Accept-Ranges"));
         configuration.setMaxAge(3600L);
         final UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", configuration);
@@ -116,8 +123,8 @@ public class SecurityConfig {
     }
 
     @Bean
-    public JWTAuthenticationFilter jwtAuthenticationFilter(Key jwtSecretKey) {
-        return new JWTAuthenticationFilter(jwtSecretKey);
+    public JWTAuthenticationFilter jwtAuthenticationFilter(Key jwtSecretKey, @Lazy StreamTicketService streamTicketService) {
+        return new JWTAuthenticationFilter(jwtSecretKey, streamTicketService);
     }
 
     @Bean
@@ -0,0 +1,62 @@
+package com.example.Backend.controller;
+
+import com.example.Backend.model.Avatar;
+import com.example.Backend.model.MediaAsset;
+import com.example.Backend.service.AvatarService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+@RestController
+@RequestMapping("/api/avatars")
+public class AvatarController {
+
+    private final AvatarService avatarService;
+    private final MediaResponseWriter mediaResponseWriter;
+
+    public AvatarController(AvatarService avatarService, MediaResponseWriter mediaResponseWriter) {
+        this.avatarService = avatarService;
+        this.mediaResponseWriter = mediaResponseWriter;
+    }
+
+    //upload a profile picture; the returned URL can be saved as the user's profileImage
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<?> uploadAvatar(@RequestParam("file") MultipartFile file) {
+        try (InputStream in = file.getInputStream()) {
+            Avatar avatar = avatarService.storeAvatar(in, file.getContentType());
+            Map<String, Object> response = new HashMap<>();
+            response.put("id", avatar.getId());
+            response.put("url", avatarService.avatarUrl(avatar.getId(), AvatarService.DEFAULT_VARIANT));
+            response.put("variants", avatarService.variantUrls(avatar));
+            return new ResponseEntity<>(response, HttpStatus.CREATED);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Failed to store avatar: " + e.getMessage());
+        }
+    }
+
+    //serve one avatar variant; variants never change, so they are cached as immutable
+    @RequestMapping(value = "/{avatarId}/{variant}", method = {RequestMethod.GET, RequestMethod.HEAD})
+    public void getAvatar(@PathVariable String avatarId, @PathVariable String variant,
+                          HttpServletRequest request, HttpServletResponse response) throws IOException {
+        MediaAsset asset;
+        try {
+            asset = avatarService.getVariant(avatarId, variant);
+        } catch (NoSuchElementException e) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        mediaResponseWriter.write(asset, request, response);
+    }
+}
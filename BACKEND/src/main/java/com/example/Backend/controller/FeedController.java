@@ -0,0 +1,65 @@
+package com.example.Backend.controller;
+
+import com.example.Backend.service.FeedService;
+import com.example.Backend.service.TimelineService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/feed")
+public class FeedController {
+
+    private final TimelineService timelineService;
+    private final FeedService feedService;
+
+    public FeedController(TimelineService timelineService, FeedService feedService) {
+        this.timelineService = timelineService;
+        this.feedService = feedService;
+    }
+
+    //posts, learning progress and learning plans from everyone in one newest-first feed
+    @GetMapping
+    public ResponseEntity<?> getGlobalFeed(
+            Authentication authentication,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            return new ResponseEntity<>(feedService.getGlobalFeed(authentication.getName(), cursor, limit), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    //the same merged feed restricted to one user's content
+    @GetMapping("/user/{userId}")
+    public ResponseEntity<?> getUserFeed(
+            @PathVariable String userId,
+            Authentication authentication,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            return new ResponseEntity<>(feedService.getUserFeed(userId, authentication.getName(), cursor, limit), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    //home timeline of the signed-in user: their own content and that of the people they follow, newest first
+    @GetMapping("/home")
+    public ResponseEntity<?> getHomeTimeline(
+            Authentication authentication,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            return new ResponseEntity<>(timelineService.getHomeTimeline(authentication.getName(), cursor, limit), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+}
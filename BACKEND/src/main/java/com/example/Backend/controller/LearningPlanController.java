@@ -1,7 +1,11 @@
 package com.example.Backend.controller;
+import com.example.Backend.dto.CommentsResponse;
+import com.example.Backend.dto.LikeResponse;
+import com.example.Backend.enums.FeedItemType;
 import com.example.Backend.model.Comment;
 import com.example.Backend.model.Like;
 import com.example.Backend.model.LearningPlan;
+import com.example.Backend.service.ContentSummaryService;
 import com.example.Backend.service.LearningPlanService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -18,6 +22,9 @@ public class LearningPlanController {
     @Autowired
     private LearningPlanService learningPlanService;
 
+    @Autowired
+    private ContentSummaryService contentSummaryService;
+
     // Create a learning plan for a specific user
     @PostMapping("/user/{userId}")
     public ResponseEntity<LearningPlan> createLearningPlanForUser(
@@ -28,11 +35,28 @@ public class LearningPlanController {
         return new ResponseEntity<>(created, HttpStatus.CREATED);
     }
 
-    // Get all learning plans
+    // Get all learning plans; with limit or cursor, one page of {items, nextCursor}; view=summary for lean summaries
     @GetMapping
-    public ResponseEntity<List<LearningPlan>> getAllLearningPlans() {
-        List<LearningPlan> plans = learningPlanService.getAllLearningPlans();
-        return new ResponseEntity<>(plans, HttpStatus.OK);
+    public ResponseEntity<?> getAllLearningPlans(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String view) {
+        if (ContentSummaryService.VIEW.equals(view)) {
+            try {
+                return new ResponseEntity<>(contentSummaryService.getSummaries(FeedItemType.LEARNING_PLAN, null, cursor, limit), HttpStatus.OK);
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().body(e.getMessage());
+            }
+        }
+        if (cursor == null && limit == null) {
+            List<LearningPlan> plans = learningPlanService.getAllLearningPlans();
+            return new ResponseEntity<>(plans, HttpStatus.OK);
+        }
+        try {
+            return new ResponseEntity<>(learningPlanService.getLearningPlansPage(cursor, limit), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
     // Get a learning plan by ID
@@ -42,11 +66,29 @@ public class LearningPlanController {
         return new ResponseEntity<>(plan, HttpStatus.OK);
     }
 
-    // Get learning plans by user ID
+    // Get learning plans by user ID; paged when limit or cursor is given, summarized with view=summary
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<LearningPlan>> getLearningPlansByUserId(@PathVariable String userId) {
-        List<LearningPlan> plans = learningPlanService.getLearningPlansByUserId(userId);
-        return new ResponseEntity<>(plans, HttpStatus.OK);
+    public ResponseEntity<?> getLearningPlansByUserId(
+            @PathVariable String userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String view) {
+        if (ContentSummaryService.VIEW.equals(view)) {
+            try {
+                return new ResponseEntity<>(contentSummaryService.getSummaries(FeedItemType.LEARNING_PLAN, userId, cursor, limit), HttpStatus.OK);
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().body(e.getMessage());
+            }
+        }
+        if (cursor == null && limit == null) {
+            List<LearningPlan> plans = learningPlanService.getLearningPlansByUserId(userId);
+            return new ResponseEntity<>(plans, HttpStatus.OK);
+        }
+        try {
+            return new ResponseEntity<>(learningPlanService.getLearningPlansPageByUserId(userId, cursor, limit), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
     // Update a learning plan
@@ -65,50 +107,63 @@ public class LearningPlanController {
         return new ResponseEntity<>(HttpStatus.NO_CONTENT);
     }
 
+    // Get a learning plan's comments one page at a time, newest first
+    @GetMapping("/{planId}/comments")
+    public ResponseEntity<?> getComments(
+            @PathVariable String planId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            return new ResponseEntity<>(learningPlanService.getComments(planId, cursor, limit), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
     // Add a comment to a learning plan
     @PostMapping("/{planId}/comments")
-    public ResponseEntity<LearningPlan> addComment(
+    public ResponseEntity<CommentsResponse> addComment(
             @PathVariable String planId,
             @RequestBody Comment comment) {
-        LearningPlan updated = learningPlanService.addComment(planId, comment);
+        CommentsResponse updated = learningPlanService.addComment(planId, comment);
         return new ResponseEntity<>(updated, HttpStatus.CREATED);
     }
 
     // Update a comment
     @PutMapping("/{planId}/comments/{commentId}")
-    public ResponseEntity<LearningPlan> updateComment(
+    public ResponseEntity<CommentsResponse> updateComment(
             @PathVariable String planId,
             @PathVariable String commentId,
             @RequestBody Comment comment) {
-        LearningPlan updated = learningPlanService.updateComment(planId, commentId, comment);
+        CommentsResponse updated = learningPlanService.updateComment(planId, commentId, comment);
         return new ResponseEntity<>(updated, HttpStatus.OK);
     }
 
     // Delete a comment
     @DeleteMapping("/{planId}/comments/{commentId}")
-    public ResponseEntity<LearningPlan> deleteComment(
+    public ResponseEntity<CommentsResponse> deleteComment(
             @PathVariable String planId,
             @PathVariable String commentId,
             @RequestParam String userId) {
-        LearningPlan updated = learningPlanService.deleteComment(planId, commentId, userId);
+        CommentsResponse updated = learningPlanService.deleteComment(planId, commentId, userId);
         return new ResponseEntity<>(updated, HttpStatus.OK);
     }
 
     // Add a like to a learning plan
     @PostMapping("/{planId}/likes")
-    public ResponseEntity<LearningPlan> addLike(
+    public ResponseEntity<LikeResponse> addLike(
             @PathVariable String planId,
             @RequestBody Like like) {
-        LearningPlan updated = learningPlanService.addLike(planId, like);
-        return new ResponseEntity<>(updated, HttpStatus.CREATED);
+        LikeResponse result = learningPlanService.addLike(planId, like);
+        return new ResponseEntity<>(result, HttpStatus.CREATED);
     }
 
     // Remove a like from a learning plan
     @DeleteMapping("/{planId}/likes/{userId}")
-    public ResponseEntity<LearningPlan> removeLike(
+    public ResponseEntity<LikeResponse> removeLike(
             @PathVariable String planId,
             @PathVariable String userId) {
-        LearningPlan updated = learningPlanService.removeLike(planId, userId);
-        return new ResponseEntity<>(updated, HttpStatus.OK);
+        LikeResponse result = learningPlanService.removeLike(planId, userId);
+        return new ResponseEntity<>(result, HttpStatus.OK);
     }
 }
@@ -1,8 +1,12 @@
 package com.example.Backend.controller;
 
+import com.example.Backend.dto.CommentsResponse;
+import com.example.Backend.dto.LikeResponse;
+import com.example.Backend.enums.FeedItemType;
 import com.example.Backend.model.Comment;
 import com.example.Backend.model.Like;
 import com.example.Backend.model.LearningProgress;
+import com.example.Backend.service.ContentSummaryService;
 import com.example.Backend.service.LearningProgressService;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -19,6 +23,9 @@ public class LearningProgressController {
     @Autowired
     private LearningProgressService learningProgressService;
 
+    @Autowired
+    private ContentSummaryService contentSummaryService;
+
     //create a learning progress record for a specific user
     @PostMapping("/user/{userId}")
     public ResponseEntity<LearningProgress> createLearningProgressForUser(
@@ -29,11 +36,28 @@ public class LearningProgressController {
         return new ResponseEntity<>(created, HttpStatus.CREATED);
     }
 
-    //get all learning progress entries
+    //get all learning progress entries; with limit or cursor, one page of {items, nextCursor}; view=summary for lean summaries
     @GetMapping
-    public ResponseEntity<List<LearningProgress>> getAllLearningProgress() {
-        List<LearningProgress> entries = learningProgressService.getAllLearningProgress();
-        return new ResponseEntity<>(entries, HttpStatus.OK);
+    public ResponseEntity<?> getAllLearningProgress(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String view) {
+        if (ContentSummaryService.VIEW.equals(view)) {
+            try {
+                return new ResponseEntity<>(contentSummaryService.getSummaries(FeedItemType.LEARNING_PROGRESS, null, cursor, limit), HttpStatus.OK);
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().body(e.getMessage());
+            }
+        }
+        if (cursor == null && limit == null) {
+            List<LearningProgress> entries = learningProgressService.getAllLearningProgress();
+            return new ResponseEntity<>(entries, HttpStatus.OK);
+        }
+        try {
+            return new ResponseEntity<>(learningProgressService.getLearningProgressPage(cursor, limit), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
     //get a learning progress entry by ID
@@ -43,11 +67,29 @@ public class LearningProgressController {
         return new ResponseEntity<>(entry, HttpStatus.OK);
     }
 
-    //get learning progress entries by user ID
+    //get learning progress entries by user ID; paged when limit or cursor is given, summarized with view=summary
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<LearningProgress>> getLearningProgressByUserId(@PathVariable String userId) {
-        List<LearningProgress> entries = learningProgressService.getLearningProgressByUserId(userId);
-        return new ResponseEntity<>(entries, HttpStatus.OK);
+    public ResponseEntity<?> getLearningProgressByUserId(
+            @PathVariable String userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String view) {
+        if (ContentSummaryService.VIEW.equals(view)) {
+            try {
+                return new ResponseEntity<>(contentSummaryService.getSummaries(FeedItemType.LEARNING_PROGRESS, userId, cursor, limit), HttpStatus.OK);
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().body(e.getMessage());
+            }
+        }
+        if (cursor == null && limit == null) {
+            List<LearningProgress> entries = learningProgressService.getLearningProgressByUserId(userId);
+            return new ResponseEntity<>(entries, HttpStatus.OK);
+        }
+        try {
+            return new ResponseEntity<>(learningProgressService.getLearningProgressPageByUserId(userId, cursor, limit), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
     //uUapdate a learning progress entry
@@ -66,50 +108,63 @@ public class LearningProgressController {
         return new ResponseEntity<>(HttpStatus.NO_CONTENT);
     }
 
+    //get an entry's comments one page at a time, newest first
+    @GetMapping("/{entryId}/comments")
+    public ResponseEntity<?> getComments(
+            @PathVariable String entryId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            return new ResponseEntity<>(learningProgressService.getComments(entryId, cursor, limit), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
     //ad a comment to a learning progress entry
     @PostMapping("/{entryId}/comments")
-    public ResponseEntity<LearningProgress> addComment(
+    public ResponseEntity<CommentsResponse> addComment(
             @PathVariable String entryId,
             @RequestBody Comment comment) {
-        LearningProgress updated = learningProgressService.addComment(entryId, comment);
+        CommentsResponse updated = learningProgressService.addComment(entryId, comment);
         return new ResponseEntity<>(updated, HttpStatus.CREATED);
     }
 
     //update a comment
     @PutMapping("/{entryId}/comments/{commentId}")
-    public ResponseEntity<LearningProgress> updateComment(
+    public ResponseEntity<CommentsResponse> updateComment(
             @PathVariable String entryId,
             @PathVariable String commentId,
             @RequestBody Comment comment) {
-        LearningProgress updated = learningProgressService.updateComment(entryId, commentId, comment);
+        CommentsResponse updated = learningProgressService.updateComment(entryId, commentId, comment);
         return new ResponseEntity<>(updated, HttpStatus.OK);
     }
 
     //delete a comment
     @DeleteMapping("/{entryId}/comments/{commentId}")
-    public ResponseEntity<LearningProgress> deleteComment(
+    public ResponseEntity<CommentsResponse> deleteComment(
             @PathVariable String entryId,
             @PathVariable String commentId,
             @RequestParam String userId) {
-        LearningProgress updated = learningProgressService.deleteComment(entryId, commentId, userId);
+        CommentsResponse updated = learningProgressService.deleteComment(entryId, commentId, userId);
         return new ResponseEntity<>(updated, HttpStatus.OK);
     }
 
     //ad a like to a learning progress entry
     @PostMapping("/{entryId}/likes")
-    public ResponseEntity<LearningProgress> addLike(
+    public ResponseEntity<LikeResponse> addLike(
             @PathVariable String entryId,
             @RequestBody Like like) {
-        LearningProgress updated = learningProgressService.addLike(entryId, like);
-        return new ResponseEntity<>(updated, HttpStatus.CREATED);
+        LikeResponse result = learningProgressService.addLike(entryId, like);
+        return new ResponseEntity<>(result, HttpStatus.CREATED);
     }
 
     //rremove a like from a learning progress entry
     @DeleteMapping("/{entryId}/likes/{userId}")
-    public ResponseEntity<LearningProgress> removeLike(
+    public ResponseEntity<LikeResponse> removeLike(
             @PathVariable String entryId,
             @PathVariable String userId) {
-        LearningProgress updated = learningProgressService.removeLike(entryId, userId);
-        return new ResponseEntity<>(updated, HttpStatus.OK);
+        LikeResponse result = learningProgressService.removeLike(entryId, userId);
+        return new ResponseEntity<>(result, HttpStatus.OK);
     }
 }
@@ -0,0 +1,78 @@
+package com.example.Backend.controller;
+
+import com.example.Backend.dto.MediaUploadResponse;
+import com.example.Backend.model.MediaAsset;
+import com.example.Backend.service.MediaService;
+import com.example.Backend.service.RenditionService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+@RestController
+@RequestMapping("/api/media")
+public class MediaController {
+
+    private final MediaService mediaService;
+    private final RenditionService renditionService;
+    private final MediaResponseWriter mediaResponseWriter;
+
+    public MediaController(MediaService mediaService, RenditionService renditionService,
+                           MediaResponseWriter mediaResponseWriter) {
+        this.mediaService = mediaService;
+        this.renditionService = renditionService;
+        this.mediaResponseWriter = mediaResponseWriter;
+    }
+
+    //upload media files as multipart parts; each part is streamed from disk into the blob store
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<?> uploadMedia(@RequestParam("files") List<MultipartFile> files) {
+        try {
+            List<MediaUploadResponse> uploaded = new ArrayList<>();
+            for (MultipartFile file : files) {
+                MediaAsset asset;
+                try (InputStream in = file.getInputStream()) {
+                    asset = mediaService.storeUpload(in, file.getContentType());
+                }
+                uploaded.add(new MediaUploadResponse(asset.getId(), mediaService.mediaUrl(asset.getId()),
+                        asset.getContentType(), asset.getSize()));
+            }
+            return new ResponseEntity<>(uploaded, HttpStatus.CREATED);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Failed to store media: " + e.getMessage());
+        }
+    }
+
+    //stream stored media with Range, ETag and immutable caching support; w selects the smallest image rendition that fits
+    @RequestMapping(value = "/{id}", method = {RequestMethod.GET, RequestMethod.HEAD})
+    public void getMedia(@PathVariable String id, @RequestParam(value = "w", required = false) Integer width,
+                         HttpServletRequest request, HttpServletResponse response) throws IOException {
+        MediaAsset asset;
+        RenditionService.Resolution resolution;
+        try {
+            resolution = renditionService.resolve(id, width);
+            asset = mediaService.getMedia(resolution.mediaId());
+        } catch (NoSuchElementException e) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        mediaResponseWriter.write(asset, resolution.provisional(), request, response);
+    }
+}
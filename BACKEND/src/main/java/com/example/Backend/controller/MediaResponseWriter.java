@@ -0,0 +1,142 @@
+package com.example.Backend.controller;
+
+import com.example.Backend.model.MediaAsset;
+import com.example.Backend.service.MediaService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+// Writes a stored blob to the response with Range, ETag and immutable caching support, shared by the media and avatar endpoints.
+@Component
+public class MediaResponseWriter {
+
+    //media bytes are content-addressed so they never change once stored
+    private static final String CACHE_CONTROL = "public, max-age=31536000, immutable";
+    //a stand-in served under another URL must be revalidated so caches pick up the real content once it exists
+    private static final String PROVISIONAL_CACHE_CONTROL = "no-cache";
+
+    //Tomcat request attributes for handing the file to the connector's sendfile path
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final MediaService mediaService;
+
+    public MediaResponseWriter(MediaService mediaService) {
+        this.mediaService = mediaService;
+    }
+
+    public void write(MediaAsset asset, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        write(asset, false, request, response);
+    }
+
+    //provisional responses keep the ETag but are never marked immutable
+    public void write(MediaAsset asset, boolean provisional, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String id = asset.getId();
+        String etag = "\"" + asset.getId() + "\"";
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, provisional ? PROVISIONAL_CACHE_CONTROL : CACHE_CONTROL);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        if (matchesEtag(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        long size = asset.getSize();
+        long start = 0;
+        long end = size - 1;
+
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (rangeHeader != null && (ifRange == null || ifRange.equals(etag))) {
+            List<HttpRange> ranges;
+            try {
+                ranges = HttpRange.parseRanges(rangeHeader);
+            } catch (IllegalArgumentException e) {
+                ranges = List.of();
+            }
+            //only single ranges are honoured; multipart/byteranges responses are not worth the complexity for seeking
+            if (ranges.size() == 1) {
+                HttpRange range = ranges.get(0);
+                if (size == 0 || !isSatisfiable(rangeHeader, size)) {
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                    response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                    return;
+                }
+                start = range.getRangeStart(size);
+                end = range.getRangeEnd(size);
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + size);
+            }
+        }
+
+        long length = end - start + 1;
+        response.setContentType(asset.getContentType());
+        response.setContentLengthLong(Math.max(length, 0));
+        if (length <= 0 || "HEAD".equals(request.getMethod())) {
+            return;
+        }
+
+        Path file = mediaService.locate(id);
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            //let the connector send the file from the page cache without copying it through the JVM
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = length;
+            while (remaining > 0) {
+                long sent = channel.transferTo(position, remaining, out);
+                if (sent <= 0) {
+                    break;
+                }
+                position += sent;
+                remaining -= sent;
+            }
+        }
+    }
+
+    private static boolean matchesEtag(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if (value.equals("*") || value.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    //a range is unsatisfiable when its first byte lies beyond the end of the content
+    private static boolean isSatisfiable(String rangeHeader, long size) {
+        String spec = rangeHeader.substring(rangeHeader.indexOf('=') + 1).trim();
+        if (spec.startsWith("-")) {
+            return !spec.equals("-0");
+        }
+        int dash = spec.indexOf('-');
+        long first = Long.parseLong(spec.substring(0, dash).trim());
+        return first < size;
+    }
+}
@@ -1,13 +1,17 @@
 package com.example.Backend.controller;
 
 import com.example.Backend.model.Notification;
+import com.example.Backend.service.NotificationRetentionService;
 import com.example.Backend.service.NotificationService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/notifications")
@@ -16,6 +20,9 @@ public class NotificationController {
 
     @Autowired
     private NotificationService notificationService;
+
+    @Autowired
+    private NotificationRetentionService notificationRetentionService;
     
     // Get all notifications for a specific user
     @GetMapping
@@ -46,6 +53,56 @@ public class NotificationController {
         }
     }
 
+    //older, archived notifications one page at a time, newest first
+    @GetMapping("/history")
+    public ResponseEntity<?> getHistory(@RequestParam String userId,
+                                        @RequestParam(required = false) String cursor,
+                                        @RequestParam(required = false) Integer limit) {
+        if (userId == null || userId.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("userId  required");
+        }
+        try {
+            return ResponseEntity.ok(notificationRetentionService.getHistory(userId, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Error  notification history: " + e.getMessage());
+        }
+    }
+
+    //badge count only; unchanged polls get 304 through the ETag
+    @GetMapping("/unread/count")
+    public ResponseEntity<?> getUnreadCount(@RequestParam String userId, WebRequest request) {
+        if (userId == null || userId.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("userId  required");
+        }
+        try {
+            long count = notificationService.getUnreadCount(userId);
+            String etag = "\"" + count + "\"";
+            if (request.checkNotModified(etag)) {
+                return null;
+            }
+            return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache()).body(Map.of("count", count));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Error  unread count: " + e.getMessage());
+        }
+    }
+
+    @PutMapping("/read-all")
+    public ResponseEntity<?> markAllAsRead(@RequestParam String userId) {
+        if (userId == null || userId.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("userId  required");
+        }
+        try {
+            return ResponseEntity.ok(Map.of("updated", notificationService.markAllAsRead(userId)));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Error  notifications as read: " + e.getMessage());
+        }
+    }
+
     @PutMapping("/{id}/read")
     public ResponseEntity<?> markAsRead(@PathVariable String id) {
         try {
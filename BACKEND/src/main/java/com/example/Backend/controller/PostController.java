@@ -4,6 +4,7 @@ import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -15,10 +16,15 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
 
+import com.example.Backend.dto.CommentsResponse;
+import com.example.Backend.dto.LikeResponse;
+import com.example.Backend.enums.FeedItemType;
 import com.example.Backend.model.Comment;
 import com.example.Backend.model.Like;
 import com.example.Backend.model.Post;
+import com.example.Backend.service.ContentSummaryService;
 import com.example.Backend.service.PostService;
 
 // PostController.java (updated)
@@ -29,19 +35,63 @@ public class PostController {
     @Autowired
     private PostService postService;
 
+    @Autowired
+    private ContentSummaryService contentSummaryService;
+
     // Create a post for a specific user.
-    @PostMapping("/user/{userId}")
-    public ResponseEntity<Post> createPostForUser(@PathVariable String userId, @RequestBody Post post) {
+    @PostMapping(value = "/user/{userId}", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> createPostForUser(@PathVariable String userId, @RequestBody Post post) {
+        post.setUserId(userId);
+        try {
+            Post createdPost = postService.createPost(post);
+            return new ResponseEntity<>(createdPost, HttpStatus.CREATED);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // Create a post for a specific user with media uploaded as multipart parts
+    @PostMapping(value = "/user/{userId}", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<?> createPostWithMedia(
+            @PathVariable String userId,
+            @RequestParam(required = false) String userName,
+            @RequestParam(required = false) String description,
+            @RequestParam(value = "files", required = false) List<MultipartFile> files) {
+        Post post = new Post();
         post.setUserId(userId);
-        Post createdPost = postService.createPost(post);
-        return new ResponseEntity<>(createdPost, HttpStatus.CREATED);
+        post.setUserName(userName);
+        post.setDescription(description);
+        try {
+            Post createdPost = postService.createPostWithMedia(post, files);
+            return new ResponseEntity<>(createdPost, HttpStatus.CREATED);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
-    // get all posts
+    // get all posts; with limit or cursor, one page of {items, nextCursor} instead of the whole feed;
+    // view=summary pages through lean summaries instead of full posts
     @GetMapping
-    public ResponseEntity<List<Post>> getAllPosts() {
-        List<Post> posts = postService.getAllPosts();
-        return new ResponseEntity<>(posts, HttpStatus.OK);
+    public ResponseEntity<?> getAllPosts(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String view) {
+        if (ContentSummaryService.VIEW.equals(view)) {
+            try {
+                return new ResponseEntity<>(contentSummaryService.getSummaries(FeedItemType.POST, null, cursor, limit), HttpStatus.OK);
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().body(e.getMessage());
+            }
+        }
+        if (cursor == null && limit == null) {
+            List<Post> posts = postService.getAllPosts();
+            return new ResponseEntity<>(posts, HttpStatus.OK);
+        }
+        try {
+            return new ResponseEntity<>(postService.getPostsPage(cursor, limit), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
     // Get a post by ID
@@ -51,18 +101,40 @@ public class PostController {
         return new ResponseEntity<>(post, HttpStatus.OK);
     }
 
-    // Get posts by user ID
+    // Get posts by user ID; paged the same way as the feed when limit or cursor is given, summarized with view=summary
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<Post>> getPostsByUserId(@PathVariable String userId) {
-        List<Post> posts = postService.getPostsByUserId(userId);
-        return new ResponseEntity<>(posts, HttpStatus.OK);
+    public ResponseEntity<?> getPostsByUserId(
+            @PathVariable String userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String view) {
+        if (ContentSummaryService.VIEW.equals(view)) {
+            try {
+                return new ResponseEntity<>(contentSummaryService.getSummaries(FeedItemType.POST, userId, cursor, limit), HttpStatus.OK);
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().body(e.getMessage());
+            }
+        }
+        if (cursor == null && limit == null) {
+            List<Post> posts = postService.getPostsByUserId(userId);
+            return new ResponseEntity<>(posts, HttpStatus.OK);
+        }
+        try {
+            return new ResponseEntity<>(postService.getPostsPageByUserId(userId, cursor, limit), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
     // Update a post
     @PutMapping("/{id}")
-    public ResponseEntity<Post> updatePost(@PathVariable String id, @RequestBody Post post) {
-        Post updatedPost = postService.updatePost(id, post);
-        return new ResponseEntity<>(updatedPost, HttpStatus.OK);
+    public ResponseEntity<?> updatePost(@PathVariable String id, @RequestBody Post post) {
+        try {
+            Post updatedPost = postService.updatePost(id, post);
+            return new ResponseEntity<>(updatedPost, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
     // Delete a post
@@ -72,44 +144,57 @@ public class PostController {
         return new ResponseEntity<>(HttpStatus.NO_CONTENT);
     }
 
+    // Get a post's comments one page at a time, newest first
+    @GetMapping("/{postId}/comments")
+    public ResponseEntity<?> getComments(
+            @PathVariable String postId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            return new ResponseEntity<>(postService.getComments(postId, cursor, limit), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
     // Add a comment to a post
     @PostMapping("/{postId}/comments")
-    public ResponseEntity<Post> addComment(@PathVariable String postId, @RequestBody Comment comment) {
-        Post updatedPost = postService.addComment(postId, comment);
+    public ResponseEntity<CommentsResponse> addComment(@PathVariable String postId, @RequestBody Comment comment) {
+        CommentsResponse updatedPost = postService.addComment(postId, comment);
         return new ResponseEntity<>(updatedPost, HttpStatus.CREATED);
     }
 
     // Update a comment
     @PutMapping("/{postId}/comments/{commentId}")
-    public ResponseEntity<Post> updateComment(
+    public ResponseEntity<CommentsResponse> updateComment(
             @PathVariable String postId,
             @PathVariable String commentId,
             @RequestBody Comment comment) {
-        Post updatedPost = postService.updateComment(postId, commentId, comment);
+        CommentsResponse updatedPost = postService.updateComment(postId, commentId, comment);
         return new ResponseEntity<>(updatedPost, HttpStatus.OK);
     }
 
     // Delete a comment
     @DeleteMapping("/{postId}/comments/{commentId}")
-    public ResponseEntity<Post> deleteComment(
+    public ResponseEntity<CommentsResponse> deleteComment(
             @PathVariable String postId,
             @PathVariable String commentId,
             @RequestParam String userId) {
-        Post updatedPost = postService.deleteComment(postId, commentId, userId);
+        CommentsResponse updatedPost = postService.deleteComment(postId, commentId, userId);
         return new ResponseEntity<>(updatedPost, HttpStatus.OK);
     }
 
     // Add a like to a post
     @PostMapping("/{postId}/likes")
-    public ResponseEntity<Post> addLike(@PathVariable String postId, @RequestBody Like like) {
-        Post updatedPost = postService.addLike(postId, like);
-        return new ResponseEntity<>(updatedPost, HttpStatus.CREATED);
+    public ResponseEntity<LikeResponse> addLike(@PathVariable String postId, @RequestBody Like like) {
+        LikeResponse result = postService.addLike(postId, like);
+        return new ResponseEntity<>(result, HttpStatus.CREATED);
     }
 
     // Remove a like from a post
     @DeleteMapping("/{postId}/likes/{userId}")
-    public ResponseEntity<Post> removeLike(@PathVariable String postId, @PathVariable String userId) {
-        Post updatedPost = postService.removeLike(postId, userId);
-        return new ResponseEntity<>(updatedPost, HttpStatus.OK);
+    public ResponseEntity<LikeResponse> removeLike(@PathVariable String postId, @PathVariable String userId) {
+        LikeResponse result = postService.removeLike(postId, userId);
+        return new ResponseEntity<>(result, HttpStatus.OK);
     }
 }
\ No newline at end of file
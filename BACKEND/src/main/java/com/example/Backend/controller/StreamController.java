@@ -0,0 +1,44 @@
+package com.example.Backend.controller;
+
+import com.example.Backend.service.StreamService;
+import com.example.Backend.service.StreamTicketService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/stream")
+public class StreamController {
+
+    private final StreamService streamService;
+    private final StreamTicketService streamTicketService;
+
+    public StreamController(StreamService streamService, StreamTicketService streamTicketService) {
+        this.streamService = streamService;
+        this.streamTicketService = streamTicketService;
+    }
+
+    //a single-use ticket for opening the stream, requested with the usual Authorization header
+    @PostMapping("/ticket")
+    public ResponseEntity<Map<String, String>> ticket(Authentication authentication) {
+        return ResponseEntity.ok(Map.of("ticket", streamTicketService.issue(authentication.getName())));
+    }
+
+    //server-sent events for the signed-in user: "notification", "timeline" and "feed" hints plus heartbeats;
+    //EventSource cannot set headers, so the stream is opened with ?ticket= from the endpoint above
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<?> stream(Authentication authentication) {
+        try {
+            return ResponseEntity.ok(streamService.connect(authentication.getName()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.Backend.controller;
+
+import com.example.Backend.dto.MediaUploadResponse;
+import com.example.Backend.dto.UploadSessionRequest;
+import com.example.Backend.model.MediaAsset;
+import com.example.Backend.model.UploadSession;
+import com.example.Backend.service.MediaService;
+import com.example.Backend.service.UploadSessionService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.NoSuchElementException;
+
+// Resumable chunked uploads for large videos: create a session, PUT numbered chunks, then complete it.
+@RestController
+@RequestMapping("/api/uploads")
+public class UploadSessionController {
+
+    private final UploadSessionService uploadSessionService;
+    private final MediaService mediaService;
+
+    public UploadSessionController(UploadSessionService uploadSessionService, MediaService mediaService) {
+        this.uploadSessionService = uploadSessionService;
+        this.mediaService = mediaService;
+    }
+
+    //start an upload session
+    @PostMapping
+    public ResponseEntity<?> createSession(@RequestBody UploadSessionRequest request) {
+        try {
+            return new ResponseEntity<>(uploadSessionService.createSession(request), HttpStatus.CREATED);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    //session state, including which chunks have arrived so a client can resume
+    @GetMapping("/{sessionId}")
+    public ResponseEntity<?> getSession(@PathVariable String sessionId) {
+        try {
+            return ResponseEntity.ok(uploadSessionService.getSession(sessionId));
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        }
+    }
+
+    //upload one chunk as a raw request body
+    @PutMapping("/{sessionId}/chunks/{index}")
+    public ResponseEntity<?> uploadChunk(@PathVariable String sessionId, @PathVariable int index,
+                                         HttpServletRequest request) {
+        try (InputStream in = request.getInputStream()) {
+            UploadSession session = uploadSessionService.writeChunk(sessionId, index, in);
+            return ResponseEntity.ok(session);
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Failed to write chunk: " + e.getMessage());
+        }
+    }
+
+    //verify and move the assembled file into the media store
+    @PostMapping("/{sessionId}/complete")
+    public ResponseEntity<?> complete(@PathVariable String sessionId) {
+        try {
+            MediaAsset asset = uploadSessionService.complete(sessionId);
+            return ResponseEntity.ok(new MediaUploadResponse(asset.getId(), mediaService.mediaUrl(asset.getId()),
+                    asset.getContentType(), asset.getSize()));
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Failed to complete upload: " + e.getMessage());
+        }
+    }
+
+    //abandon an upload and free its temp file
+    @DeleteMapping("/{sessionId}")
+    public ResponseEntity<?> cancel(@PathVariable String sessionId) {
+        try {
+            uploadSessionService.cancel(sessionId);
+            return ResponseEntity.noContent().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Failed to cancel upload: " + e.getMessage());
+        }
+    }
+}
@@ -2,18 +2,24 @@ package com.example.Backend.controller;
 
 import com.example.Backend.dto.ProfileUpdateDTO;
 import com.example.Backend.dto.UserProfileDTO;
+import com.example.Backend.dto.UserStatsDTO;
 import com.example.Backend.dto.UserUpdateDTO;
 import com.example.Backend.model.User;
 import com.example.Backend.repository.UserRepository;
+import com.example.Backend.service.ProfileOverviewService;
 import com.example.Backend.service.UserService;
+import com.example.Backend.service.UserSummaryService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Optional;
 
 @RestController
@@ -22,39 +28,38 @@ public class UserController {
 
     private final UserService userService;
     private final UserRepository userRepository;
+    private final UserSummaryService userSummaryService;
+    private final ProfileOverviewService profileOverviewService;
 
     @Autowired
-    public UserController(UserService userService, UserRepository userRepository) {
+    public UserController(UserService userService, UserRepository userRepository, UserSummaryService userSummaryService,
+                          ProfileOverviewService profileOverviewService) {
         this.userService = userService;
         this.userRepository = userRepository;
+        this.userSummaryService = userSummaryService;
+        this.profileOverviewService = profileOverviewService;
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<?> getUserById(@PathVariable String id) {
-        Optional<User> user = userRepository.findById(id);
-        return user.map(value -> ResponseEntity.ok(userService.convertToProfileDTO(value)))
-                .orElse(ResponseEntity.notFound().build());
+        User user = userService.findProfile(id);
+        return user == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(userService.convertToProfileDTO(user));
     }
 
     @GetMapping("/profile/{id}")
-    public ResponseEntity<?> getUserProfile(@PathVariable String id) {
-        return userService.getUserProfile(id);
+    public ResponseEntity<?> getUserProfile(@PathVariable String id, Authentication authentication) {
+        return userService.getUserProfile(id, viewerOf(authentication));
     }
 
     @GetMapping("/batch")
-    public ResponseEntity<List<UserProfileDTO>> getUsersByIds(@RequestParam List<String> ids) {
-        List<UserProfileDTO> users = userService.getUsersByIds(ids);
+    public ResponseEntity<List<UserProfileDTO>> getUsersByIds(@RequestParam List<String> ids, Authentication authentication) {
+        List<UserProfileDTO> users = userService.getUsersByIds(ids, viewerOf(authentication));
         return ResponseEntity.ok(users);
     }
 
     @PutMapping("/{id}")
     public ResponseEntity<?> updateUser(@PathVariable String id, @Valid @RequestBody UserUpdateDTO userUpdateDTO) {
-        Optional<User> existingUser = userRepository.findById(id);
-        if (!existingUser.isPresent()) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("User not found");
-        }
-
-        User user = existingUser.get();
+        Update update = new Update();
 
         // Check if email is provided and already in use by another user
         if (userUpdateDTO.getEmail() != null && !userUpdateDTO.getEmail().trim().isEmpty()) {
@@ -62,17 +67,20 @@ public class UserController {
             if (userWithEmail.isPresent() && !userWithEmail.get().getId().equals(id)) {
                 return ResponseEntity.status(HttpStatus.CONFLICT).body("Email is already in use");
             }
-            user.setEmail(userUpdateDTO.getEmail());
+            update.set("email", userUpdateDTO.getEmail());
         }
 
         // Update name if provided
         if (userUpdateDTO.getName() != null && !userUpdateDTO.getName().trim().isEmpty()) {
-            user.setName(userUpdateDTO.getName());
+            update.set("name", userUpdateDTO.getName());
         }
 
-        // Save updated user
+        // Save only the changed fields
         try {
-            User updatedUser = userRepository.save(user);
+            User updatedUser = userService.updateFields(id, update);
+            if (updatedUser == null) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body("User not found");
+            }
             return ResponseEntity.ok(userService.convertToProfileDTO(updatedUser));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Failed to update user");
@@ -94,13 +102,65 @@ public class UserController {
         return userService.unfollowUser(id, followerId);
     }
 
+    //a user's followers one page at a time, newest first, as slim rows
+    @GetMapping("/{id}/followers")
+    public ResponseEntity<?> getFollowers(@PathVariable String id,
+                                          @RequestParam(required = false) String cursor,
+                                          @RequestParam(required = false) Integer limit,
+                                          Authentication authentication) {
+        try {
+            return ResponseEntity.ok(userSummaryService.getFollowers(id, viewerOf(authentication), cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    //the users someone follows one page at a time, newest first, as slim rows
+    @GetMapping("/{id}/following")
+    public ResponseEntity<?> getFollowing(@PathVariable String id,
+                                          @RequestParam(required = false) String cursor,
+                                          @RequestParam(required = false) Integer limit,
+                                          Authentication authentication) {
+        try {
+            return ResponseEntity.ok(userSummaryService.getFollowing(id, viewerOf(authentication), cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
     @GetMapping("/{id}/content")
-    public ResponseEntity<?> getUserContent(@PathVariable String id) {
-        return userService.getUserContent(id);
+    public ResponseEntity<?> getUserContent(@PathVariable String id,
+                                            @RequestParam(required = false) String view,
+                                            @RequestParam(required = false) Integer limit) {
+        return userService.getUserContent(id, view, limit);
     }
 
     @GetMapping("/{userId}/post/count")
     public ResponseEntity<?> getUserTotalPostCount(@PathVariable String userId){
         return ResponseEntity.ok().body(userService.getUserTotalPostCount(userId));
     }
-}
\ No newline at end of file
+
+    //the profile page's opening payload: profile, counters and the first page of each list, read in parallel;
+    //sections that could not be read in time are null and listed in "incomplete"
+    @GetMapping("/{id}/overview")
+    public ResponseEntity<?> getProfileOverview(@PathVariable String id,
+                                                @RequestParam(required = false) Integer limit,
+                                                Authentication authentication) {
+        try {
+            return ResponseEntity.ok(profileOverviewService.getOverview(id, viewerOf(authentication), limit));
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        }
+    }
+
+    //post, progress, plan, follower and following counts in one response
+    @GetMapping("/{userId}/stats")
+    public ResponseEntity<?> getUserStats(@PathVariable String userId) {
+        UserStatsDTO stats = userService.getUserStats(userId);
+        return stats == null ? ResponseEntity.status(HttpStatus.NOT_FOUND).body("User not found") : ResponseEntity.ok(stats);
+    }
+
+    private static String viewerOf(Authentication authentication) {
+        return authentication == null ? null : authentication.getName();
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.Backend.dto;
+
+import com.example.Backend.model.Comment;
+
+import java.util.List;
+
+// Result of adding, editing or deleting a comment: the parent's new count and preview instead of the whole document.
+// comment is the comment that was written, or null after a delete.
+public class CommentsResponse {
+    private String id;
+    private int commentCount;
+    private List<Comment> comments;
+    private Comment comment;
+
+    public CommentsResponse() {
+    }
+
+    public CommentsResponse(String id, int commentCount, List<Comment> comments, Comment comment) {
+        this.id = id;
+        this.commentCount = commentCount;
+        this.comments = comments;
+        this.comment = comment;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public int getCommentCount() {
+        return commentCount;
+    }
+
+    public void setCommentCount(int commentCount) {
+        this.commentCount = commentCount;
+    }
+
+    public List<Comment> getComments() {
+        return comments;
+    }
+
+    public void setComments(List<Comment> comments) {
+        this.comments = comments;
+    }
+
+    public Comment getComment() {
+        return comment;
+    }
+
+    public void setComment(Comment comment) {
+        this.comment = comment;
+    }
+}
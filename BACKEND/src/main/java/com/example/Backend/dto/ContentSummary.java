@@ -0,0 +1,114 @@
+package com.example.Backend.dto;
+
+import com.example.Backend.enums.FeedItemType;
+import com.example.Backend.model.Comment;
+
+import java.util.Date;
+import java.util.List;
+
+// Lean list view of a post, learning progress entry or learning plan; the full document comes from /{id}.
+// title is null for posts and mediaIds is empty for anything without media.
+public class ContentSummary {
+    private FeedItemType type;
+    private String id;
+    private String userId;
+    private String userName;
+    private String title;
+    private String description;
+    private List<String> mediaIds;
+    private long likeCount;
+    private long commentCount;
+    private Comment latestComment;
+    private Date createdAt;
+
+    public ContentSummary() {
+    }
+
+    public FeedItemType getType() {
+        return type;
+    }
+
+    public void setType(FeedItemType type) {
+        this.type = type;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public String getUserName() {
+        return userName;
+    }
+
+    public void setUserName(String userName) {
+        this.userName = userName;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public List<String> getMediaIds() {
+        return mediaIds;
+    }
+
+    public void setMediaIds(List<String> mediaIds) {
+        this.mediaIds = mediaIds;
+    }
+
+    public long getLikeCount() {
+        return likeCount;
+    }
+
+    public void setLikeCount(long likeCount) {
+        this.likeCount = likeCount;
+    }
+
+    public long getCommentCount() {
+        return commentCount;
+    }
+
+    public void setCommentCount(long commentCount) {
+        this.commentCount = commentCount;
+    }
+
+    public Comment getLatestComment() {
+        return latestComment;
+    }
+
+    public void setLatestComment(Comment latestComment) {
+        this.latestComment = latestComment;
+    }
+
+    public Date getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Date createdAt) {
+        this.createdAt = createdAt;
+    }
+}
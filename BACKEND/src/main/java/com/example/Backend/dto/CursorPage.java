@@ -0,0 +1,33 @@
+package com.example.Backend.dto;
+
+import java.util.List;
+
+// One page of a newest-first list. nextCursor is opaque to clients and null on the last page.
+public class CursorPage<T> {
+    private List<T> items;
+    private String nextCursor;
+
+    public CursorPage() {
+    }
+
+    public CursorPage(List<T> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public void setItems(List<T> items) {
+        this.items = items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
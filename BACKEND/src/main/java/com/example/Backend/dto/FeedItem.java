@@ -0,0 +1,74 @@
+package com.example.Backend.dto;
+
+import com.example.Backend.enums.FeedItemType;
+
+import java.util.Date;
+
+// A type-tagged feed entry; item is the Post, LearningProgress or LearningPlan itself, loaded without its likes array.
+// likeCount and likedByMe are computed for the viewer instead.
+public class FeedItem {
+    private FeedItemType type;
+    private String id;
+    private Date createdAt;
+    private Object item;
+    private long likeCount;
+    private boolean likedByMe;
+
+    public FeedItem() {
+    }
+
+    public FeedItem(FeedItemType type, String id, Date createdAt, Object item) {
+        this.type = type;
+        this.id = id;
+        this.createdAt = createdAt;
+        this.item = item;
+    }
+
+    public FeedItemType getType() {
+        return type;
+    }
+
+    public void setType(FeedItemType type) {
+        this.type = type;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public Date getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Date createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Object getItem() {
+        return item;
+    }
+
+    public void setItem(Object item) {
+        this.item = item;
+    }
+
+    public long getLikeCount() {
+        return likeCount;
+    }
+
+    public void setLikeCount(long likeCount) {
+        this.likeCount = likeCount;
+    }
+
+    public boolean isLikedByMe() {
+        return likedByMe;
+    }
+
+    public void setLikedByMe(boolean likedByMe) {
+        this.likedByMe = likedByMe;
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.Backend.dto;
+
+// Result of a follow or unfollow: the new counters of both users instead of either profile
+public class FollowResponse {
+    private String userId;
+    private long followerCount; // of userId
+    private String followerId;
+    private long followingCount; // of followerId
+    private boolean following;
+
+    public FollowResponse() {
+    }
+
+    public FollowResponse(String userId, long followerCount, String followerId, long followingCount, boolean following) {
+        this.userId = userId;
+        this.followerCount = followerCount;
+        this.followerId = followerId;
+        this.followingCount = followingCount;
+        this.following = following;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public long getFollowerCount() {
+        return followerCount;
+    }
+
+    public void setFollowerCount(long followerCount) {
+        this.followerCount = followerCount;
+    }
+
+    public String getFollowerId() {
+        return followerId;
+    }
+
+    public void setFollowerId(String followerId) {
+        this.followerId = followerId;
+    }
+
+    public long getFollowingCount() {
+        return followingCount;
+    }
+
+    public void setFollowingCount(long followingCount) {
+        this.followingCount = followingCount;
+    }
+
+    public boolean isFollowing() {
+        return following;
+    }
+
+    public void setFollowing(boolean following) {
+        this.following = following;
+    }
+}
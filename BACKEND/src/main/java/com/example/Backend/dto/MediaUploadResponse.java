@@ -0,0 +1,51 @@
+package com.example.Backend.dto;
+
+public class MediaUploadResponse {
+    private String id;
+    private String url;
+    private String contentType;
+    private long size;
+
+    public MediaUploadResponse() {
+    }
+
+    public MediaUploadResponse(String id, String url, String contentType, long size) {
+        this.id = id;
+        this.url = url;
+        this.contentType = contentType;
+        this.size = size;
+    }
+
+    // Getters and Setters
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public void setUrl(String url) {
+        this.url = url;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public void setContentType(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public void setSize(long size) {
+        this.size = size;
+    }
+}
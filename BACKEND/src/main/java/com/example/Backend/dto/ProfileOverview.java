@@ -0,0 +1,78 @@
+package com.example.Backend.dto;
+
+import com.example.Backend.model.LearningPlan;
+import com.example.Backend.model.LearningProgress;
+import com.example.Backend.model.Post;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Everything the profile page opens with, in one response. The content lists are the same first pages the paged
+// /user/{userId} endpoints return, so the page renders them as they are and continues from their nextCursor. Each
+// section is loaded independently; one that failed or ran out of time is null and named in incomplete, and the client
+// can fetch it through its own endpoint.
+public class ProfileOverview {
+    private UserProfileDTO profile;
+    private UserStatsDTO stats;
+    private CursorPage<Post> posts;
+    private CursorPage<LearningProgress> progress;
+    private CursorPage<LearningPlan> plans;
+    private CursorPage<UserSummary> followers;
+    private List<String> incomplete = new ArrayList<>();
+
+    public UserProfileDTO getProfile() {
+        return profile;
+    }
+
+    public void setProfile(UserProfileDTO profile) {
+        this.profile = profile;
+    }
+
+    public UserStatsDTO getStats() {
+        return stats;
+    }
+
+    public void setStats(UserStatsDTO stats) {
+        this.stats = stats;
+    }
+
+    public CursorPage<Post> getPosts() {
+        return posts;
+    }
+
+    public void setPosts(CursorPage<Post> posts) {
+        this.posts = posts;
+    }
+
+    public CursorPage<LearningProgress> getProgress() {
+        return progress;
+    }
+
+    public void setProgress(CursorPage<LearningProgress> progress) {
+        this.progress = progress;
+    }
+
+    public CursorPage<LearningPlan> getPlans() {
+        return plans;
+    }
+
+    public void setPlans(CursorPage<LearningPlan> plans) {
+        this.plans = plans;
+    }
+
+    public CursorPage<UserSummary> getFollowers() {
+        return followers;
+    }
+
+    public void setFollowers(CursorPage<UserSummary> followers) {
+        this.followers = followers;
+    }
+
+    public List<String> getIncomplete() {
+        return incomplete;
+    }
+
+    public void setIncomplete(List<String> incomplete) {
+        this.incomplete = incomplete;
+    }
+}
@@ -12,8 +12,9 @@ public class UserProfileDTO {
     private String bio;
     private List<String> skills;
     private String location;
-    private List<String> followingUsers;
-    private List<String> followedUsers;
+    private long followerCount;
+    private long followingCount;
+    private Boolean viewerFollows; // null when there is no signed-in viewer or it is their own profile
     private RegistrationSource registrationSource;
 
     // Getters and Setters
@@ -73,20 +74,28 @@ public class UserProfileDTO {
         this.location = location;
     }
 
-    public List<String> getFollowingUsers() {
-        return followingUsers;
+    public long getFollowerCount() {
+        return followerCount;
     }
 
-    public void setFollowingUsers(List<String> followingUsers) {
-        this.followingUsers = followingUsers;
+    public void setFollowerCount(long followerCount) {
+        this.followerCount = followerCount;
     }
 
-    public List<String> getFollowedUsers() {
-        return followedUsers;
+    public long getFollowingCount() {
+        return followingCount;
     }
 
-    public void setFollowedUsers(List<String> followedUsers) {
-        this.followedUsers = followedUsers;
+    public void setFollowingCount(long followingCount) {
+        this.followingCount = followingCount;
+    }
+
+    public Boolean getViewerFollows() {
+        return viewerFollows;
+    }
+
+    public void setViewerFollows(Boolean viewerFollows) {
+        this.viewerFollows = viewerFollows;
     }
 
     public RegistrationSource getRegistrationSource() {
@@ -0,0 +1,71 @@
+package com.example.Backend.dto;
+
+// Everything a profile header counts, read from the maintained counters
+public class UserStatsDTO {
+    private String userId;
+    private long posts;
+    private long learningProgress;
+    private long learningPlans;
+    private long totalPosts; // all three kinds together, as /post/count has always reported it
+    private long followers;
+    private long following;
+
+    public UserStatsDTO() {
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public long getPosts() {
+        return posts;
+    }
+
+    public void setPosts(long posts) {
+        this.posts = posts;
+    }
+
+    public long getLearningProgress() {
+        return learningProgress;
+    }
+
+    public void setLearningProgress(long learningProgress) {
+        this.learningProgress = learningProgress;
+    }
+
+    public long getLearningPlans() {
+        return learningPlans;
+    }
+
+    public void setLearningPlans(long learningPlans) {
+        this.learningPlans = learningPlans;
+    }
+
+    public long getTotalPosts() {
+        return totalPosts;
+    }
+
+    public void setTotalPosts(long totalPosts) {
+        this.totalPosts = totalPosts;
+    }
+
+    public long getFollowers() {
+        return followers;
+    }
+
+    public void setFollowers(long followers) {
+        this.followers = followers;
+    }
+
+    public long getFollowing() {
+        return following;
+    }
+
+    public void setFollowing(long following) {
+        this.following = following;
+    }
+}
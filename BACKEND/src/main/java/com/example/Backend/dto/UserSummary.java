@@ -0,0 +1,50 @@
+package com.example.Backend.dto;
+
+// What a user list row shows: no email, bio, skills or counters
+public class UserSummary {
+    private String id;
+    private String name;
+    private String avatarUrl;
+    private Boolean viewerFollows; // null when there is no signed-in viewer or it is the viewer themselves
+
+    public UserSummary() {
+    }
+
+    public UserSummary(String id, String name, String avatarUrl) {
+        this.id = id;
+        this.name = name;
+        this.avatarUrl = avatarUrl;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getAvatarUrl() {
+        return avatarUrl;
+    }
+
+    public void setAvatarUrl(String avatarUrl) {
+        this.avatarUrl = avatarUrl;
+    }
+
+    public Boolean getViewerFollows() {
+        return viewerFollows;
+    }
+
+    public void setViewerFollows(Boolean viewerFollows) {
+        this.viewerFollows = viewerFollows;
+    }
+}
@@ -0,0 +1,5 @@
+package com.example.Backend.enums;
+
+public enum FeedItemType {
+    POST, LEARNING_PROGRESS, LEARNING_PLAN
+}
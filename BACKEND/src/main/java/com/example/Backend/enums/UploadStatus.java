@@ -0,0 +1,5 @@
+package com.example.Backend.enums;
+
+public enum UploadStatus {
+    OPEN, COMPLETING, COMPLETED
+}
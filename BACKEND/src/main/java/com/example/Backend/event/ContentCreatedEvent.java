@@ -0,0 +1,9 @@
+package com.example.Backend.event;
+
+import com.example.Backend.enums.FeedItemType;
+
+import java.util.Date;
+
+// Published after a post, learning progress entry or learning plan has been saved
+public record ContentCreatedEvent(FeedItemType type, String itemId, String authorId, Date createdAt) {
+}
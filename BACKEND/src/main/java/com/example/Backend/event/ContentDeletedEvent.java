@@ -0,0 +1,7 @@
+package com.example.Backend.event;
+
+import com.example.Backend.enums.FeedItemType;
+
+// Published after a post, learning progress entry or learning plan has been deleted
+public record ContentDeletedEvent(FeedItemType type, String itemId, String authorId) {
+}
@@ -0,0 +1,7 @@
+package com.example.Backend.event;
+
+import com.example.Backend.model.MediaAsset;
+
+// Published when new content enters the blob store (not for renditions derived from it)
+public record MediaStoredEvent(MediaAsset asset) {
+}
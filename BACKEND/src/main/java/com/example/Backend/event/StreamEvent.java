@@ -0,0 +1,5 @@
+package com.example.Backend.event;
+
+// A message for connected clients: userId is the recipient, or null to reach everyone; data is sent as JSON
+public record StreamEvent(String userId, String name, Object data) {
+}
@@ -0,0 +1,5 @@
+package com.example.Backend.event;
+
+// Published after followerId stopped following followeeId
+public record UnfollowedEvent(String followerId, String followeeId) {
+}
@@ -0,0 +1,93 @@
+package com.example.Backend.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+
+// A read notification past the retention period, moved out of the hot notifications collection. Only what the history
+// list shows is kept: the message is stored already rendered, and the coalescing fields are dropped.
+@Document(collection = "notifications_archive")
+@CompoundIndexes({
+        @CompoundIndex(name = "user_history", def = "{'userId': 1, 'createdAt': -1, '_id': -1}")
+})
+public class ArchivedNotification {
+    @Id
+    private String id; // same id as the notification it came from
+    private String userId;
+    private String type;
+    private String postId;
+    private String triggerUserId;
+    private String message;
+    private Date createdAt;
+    private Date archivedAt;
+
+    public ArchivedNotification() {
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public String getPostId() {
+        return postId;
+    }
+
+    public void setPostId(String postId) {
+        this.postId = postId;
+    }
+
+    public String getTriggerUserId() {
+        return triggerUserId;
+    }
+
+    public void setTriggerUserId(String triggerUserId) {
+        this.triggerUserId = triggerUserId;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public Date getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Date createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Date getArchivedAt() {
+        return archivedAt;
+    }
+
+    public void setArchivedAt(Date archivedAt) {
+        this.archivedAt = archivedAt;
+    }
+}
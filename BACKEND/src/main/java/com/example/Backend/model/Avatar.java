@@ -0,0 +1,50 @@
+package com.example.Backend.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+import java.util.Map;
+
+// A profile picture stored once as square variants. The id is the media id of the original upload,
+// so the same picture uploaded twice maps to the same avatar.
+@Document(collection = "avatars")
+public class Avatar {
+    @Id
+    private String id;
+    private Map<String, String> variants; // variant name (small, medium, large) -> media id
+    private Date createdAt;
+
+    public Avatar() {
+    }
+
+    public Avatar(String id, Map<String, String> variants) {
+        this.id = id;
+        this.variants = variants;
+        this.createdAt = new Date();
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public Map<String, String> getVariants() {
+        return variants;
+    }
+
+    public void setVariants(Map<String, String> variants) {
+        this.variants = variants;
+    }
+
+    public Date getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Date createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -1,16 +1,26 @@
 package com.example.Backend.model;
 
+import com.example.Backend.enums.FeedItemType;
 import lombok.AllArgsConstructor;
 import lombok.NoArgsConstructor;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.util.Date;
 /**
  * Comment model class that represents a user comment in the system.
  * Contains id, user info, content, and timestamps.
+ * Stored in its own collection, keyed by the post, progress entry or plan it belongs to;
+ * parents only embed a preview of their newest comments.
  * 
  * @author Navodya
  * @version 1.0
  */
+@Document(collection = "comments")
+@CompoundIndexes({
+        @CompoundIndex(name = "parent_createdAt_id", def = "{'parentType': 1, 'parentId': 1, 'createdAt': -1, '_id': -1}")
+})
 @AllArgsConstructor
 @NoArgsConstructor
 public class Comment {
@@ -20,6 +30,8 @@ public class Comment {
     private String content;// Content of the comment
     private Date createdAt; // Timestamp when comment was created
     private Date updatedAt;// Timestamp when comment was last updated
+    private FeedItemType parentType; // Kind of content the comment belongs to
+    private String parentId; // ID of the post, progress entry or plan
 
     public String getId() {
         return id;
@@ -68,4 +80,20 @@ public class Comment {
     public void setUpdatedAt(java.util.Date updatedAt) {
         this.updatedAt = (Date) updatedAt;
     }
+
+    public FeedItemType getParentType() {
+        return parentType;
+    }
+
+    public void setParentType(FeedItemType parentType) {
+        this.parentType = parentType;
+    }
+
+    public String getParentId() {
+        return parentId;
+    }
+
+    public void setParentId(String parentId) {
+        this.parentId = parentId;
+    }
 }
@@ -0,0 +1,27 @@
+package com.example.Backend.model;
+
+import java.util.Date;
+import java.util.List;
+
+// Content that appears in feeds: posts, learning progress entries and learning plans
+public interface FeedContent {
+    String getId();
+
+    String getUserId();
+
+    String getUserName();
+
+    String getDescription();
+
+    Date getCreatedAt();
+
+    Integer getLikeCount();
+
+    List<Like> getLikes();
+
+    void setLikes(List<Like> likes);
+
+    List<Comment> getComments();
+
+    Integer getCommentCount();
+}
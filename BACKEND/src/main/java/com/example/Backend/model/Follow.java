@@ -0,0 +1,70 @@
+package com.example.Backend.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+
+// One user following another. The id is "followerId:followeeId", so following twice can only ever produce one edge;
+// the two other indexes page a user's following and followers lists newest first.
+@Document(collection = "follows")
+@CompoundIndexes({
+        @CompoundIndex(name = "follower_followee", def = "{'followerId': 1, 'followeeId': 1}", unique = true),
+        @CompoundIndex(name = "following", def = "{'followerId': 1, 'createdAt': -1, '_id': -1}"),
+        @CompoundIndex(name = "followers", def = "{'followeeId': 1, 'createdAt': -1, '_id': -1}")
+})
+public class Follow {
+    @Id
+    private String id;
+    private String followerId;
+    private String followeeId;
+    private Date createdAt;
+
+    public Follow() {
+    }
+
+    public Follow(String followerId, String followeeId, Date createdAt) {
+        this.id = key(followerId, followeeId);
+        this.followerId = followerId;
+        this.followeeId = followeeId;
+        this.createdAt = createdAt;
+    }
+
+    public static String key(String followerId, String followeeId) {
+        return followerId + ":" + followeeId;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getFollowerId() {
+        return followerId;
+    }
+
+    public void setFollowerId(String followerId) {
+        this.followerId = followerId;
+    }
+
+    public String getFolloweeId() {
+        return followeeId;
+    }
+
+    public void setFolloweeId(String followeeId) {
+        this.followeeId = followeeId;
+    }
+
+    public Date getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Date createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -4,10 +4,16 @@ import java.util.Date;
 import java.util.List;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 @Document(collection = "learning_plan")
-public class LearningPlan {
+@CompoundIndexes({
+        @CompoundIndex(name = "createdAt_id", def = "{'createdAt': -1, '_id': -1}"),
+        @CompoundIndex(name = "userId_createdAt_id", def = "{'userId': 1, 'createdAt': -1, '_id': -1}")
+})
+public class LearningPlan implements FeedContent {
     @Id
     private String id;
     private String userId;
@@ -20,7 +26,9 @@ public class LearningPlan {
     private Date createdAt;
     private Date updatedAt;
     private List<Like> likes;
-    private List<Comment> comments;
+    private Integer likeCount; // kept in step with likes by $inc so counts never need the array
+    private List<Comment> comments; // preview of the newest comments; the full list lives in the comments collection
+    private Integer commentCount;
 
     // Getters, setters, constructors
     public LearningPlan() {
@@ -121,6 +129,14 @@ public class LearningPlan {
         this.likes = likes;
     }
 
+    public Integer getLikeCount() {
+        return likeCount;
+    }
+
+    public void setLikeCount(Integer likeCount) {
+        this.likeCount = likeCount;
+    }
+
     public List<Comment> getComments() {
         return comments;
     }
@@ -129,4 +145,12 @@ public class LearningPlan {
         this.comments = comments;
     }
 
+    public Integer getCommentCount() {
+        return commentCount;
+    }
+
+    public void setCommentCount(Integer commentCount) {
+        this.commentCount = commentCount;
+    }
+
 }
@@ -6,12 +6,18 @@ import java.util.List;
 import lombok.AllArgsConstructor;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 @Document(collection = "learning_progress")
+@CompoundIndexes({
+        @CompoundIndex(name = "createdAt_id", def = "{'createdAt': -1, '_id': -1}"),
+        @CompoundIndex(name = "userId_createdAt_id", def = "{'userId': 1, 'createdAt': -1, '_id': -1}")
+})
 @AllArgsConstructor
 @NoArgsConstructor
-public class LearningProgress {
+public class LearningProgress implements FeedContent {
     @Id
     private String id;
     private String userId;
@@ -28,7 +34,9 @@ public class LearningProgress {
     private Date createdAt;
     private Date updatedAt;
     private List<Like> likes;
-    private List<Comment> comments;
+    private Integer likeCount; // kept in step with likes by $inc so counts never need the array
+    private List<Comment> comments; // preview of the newest comments; the full list lives in the comments collection
+    private Integer commentCount;
 
     // Getters and setters
     public String getId() {
@@ -151,6 +159,14 @@ public class LearningProgress {
         this.likes = likes;
     }
 
+    public Integer getLikeCount() {
+        return likeCount;
+    }
+
+    public void setLikeCount(Integer likeCount) {
+        this.likeCount = likeCount;
+    }
+
     public List<Comment> getComments() {
         return comments;
     }
@@ -158,4 +174,12 @@ public class LearningProgress {
     public void setComments(List<Comment> comments) {
         this.comments = comments;
     }
+
+    public Integer getCommentCount() {
+        return commentCount;
+    }
+
+    public void setCommentCount(Integer commentCount) {
+        this.commentCount = commentCount;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,79 @@
+package com.example.Backend.model;
+
+import com.example.Backend.enums.FeedItemType;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+
+// One user liking one item. The id is "userId:itemId", so whether a viewer liked a page of items is a single
+// primary-key lookup and liking twice can only ever produce one edge.
+@Document(collection = "likes")
+@CompoundIndexes({
+        @CompoundIndex(name = "item", def = "{'itemType': 1, 'itemId': 1}")
+})
+public class LikeEdge {
+    @Id
+    private String id;
+    private String userId;
+    private FeedItemType itemType;
+    private String itemId;
+    private Date createdAt;
+
+    public LikeEdge() {
+    }
+
+    public LikeEdge(String userId, FeedItemType itemType, String itemId, Date createdAt) {
+        this.id = key(userId, itemId);
+        this.userId = userId;
+        this.itemType = itemType;
+        this.itemId = itemId;
+        this.createdAt = createdAt;
+    }
+
+    public static String key(String userId, String itemId) {
+        return userId + ":" + itemId;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public FeedItemType getItemType() {
+        return itemType;
+    }
+
+    public void setItemType(FeedItemType itemType) {
+        this.itemType = itemType;
+    }
+
+    public String getItemId() {
+        return itemId;
+    }
+
+    public void setItemId(String itemId) {
+        this.itemId = itemId;
+    }
+
+    public Date getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Date createdAt) {
+        this.createdAt = createdAt;
+    }
+}
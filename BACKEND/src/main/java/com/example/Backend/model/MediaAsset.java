@@ -0,0 +1,86 @@
+package com.example.Backend.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+import java.util.List;
+
+// Metadata for a stored media blob. The id is the SHA-256 of the bytes, so identical uploads share one record.
+@Document(collection = "media")
+public class MediaAsset {
+    @Id
+    private String id;
+    private String contentType;
+    private long size;
+    private Date createdAt;
+    private String sourceId; // set on renditions: the asset they were derived from
+    private List<MediaRendition> renditions; // null until renditions have been generated
+    private Date renditionsFailedAt; // last failed generation; retried only after media.renditions.retry-after
+
+    public MediaAsset() {
+    }
+
+    public MediaAsset(String id, String contentType, long size) {
+        this.id = id;
+        this.contentType = contentType;
+        this.size = size;
+        this.createdAt = new Date();
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public void setContentType(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public void setSize(long size) {
+        this.size = size;
+    }
+
+    public Date getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Date createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public String getSourceId() {
+        return sourceId;
+    }
+
+    public void setSourceId(String sourceId) {
+        this.sourceId = sourceId;
+    }
+
+    public List<MediaRendition> getRenditions() {
+        return renditions;
+    }
+
+    public void setRenditions(List<MediaRendition> renditions) {
+        this.renditions = renditions;
+    }
+
+    public Date getRenditionsFailedAt() {
+        return renditionsFailedAt;
+    }
+
+    public void setRenditionsFailedAt(Date renditionsFailedAt) {
+        this.renditionsFailedAt = renditionsFailedAt;
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.Backend.model;
+
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+
+// A resized copy of an image. The bytes are stored as their own media asset under mediaId.
+@AllArgsConstructor
+@NoArgsConstructor
+public class MediaRendition {
+    private int width;
+    private int height;
+    private String mediaId;
+    private long size;
+
+    public int getWidth() {
+        return width;
+    }
+
+    public void setWidth(int width) {
+        this.width = width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public void setHeight(int height) {
+        this.height = height;
+    }
+
+    public String getMediaId() {
+        return mediaId;
+    }
+
+    public void setMediaId(String mediaId) {
+        this.mediaId = mediaId;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public void setSize(long size) {
+        this.size = size;
+    }
+}
@@ -1,11 +1,24 @@
 package com.example.Backend.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.util.Date;
+import java.util.List;
 
+// Notifications of the same type about the same post are folded into one document while it is unread and its
+// window is open; actorCount and the newest actorIds describe everyone folded in. While it is open the document also
+// keeps the distinct actors, unmapped, so an actor folded in twice is counted once; it is dropped when the notification
+// is read. Read notifications past the retention period are moved to notifications_archive.
 @Document(collection = "notifications")
+@CompoundIndexes({
+        @CompoundIndex(name = "coalesce", def = "{'userId': 1, 'type': 1, 'postId': 1, 'read': 1, 'windowStart': -1}"),
+        @CompoundIndex(name = "user_created", def = "{'userId': 1, 'createdAt': -1}"),
+        @CompoundIndex(name = "user_read_created", def = "{'userId': 1, 'read': 1, 'createdAt': -1}"),
+        @CompoundIndex(name = "retention", def = "{'read': 1, 'createdAt': 1}")
+})
 public class Notification {
     @Id
     private String id;
@@ -15,7 +28,11 @@ public class Notification {
     private String triggerUserId;
     private String message;
     private boolean read;
-    private Date createdAt;
+    private Date createdAt; // time of the newest folded-in event
+    private int actorCount;
+    private List<String> actorIds; // newest last, capped
+    private String lastActorName;
+    private Date windowStart;
 
     public Notification() {
     }
@@ -71,8 +88,13 @@ public class Notification {
         this.triggerUserId = triggerUserId;
     }
 
+    //"Alex and 41 others liked your post." once several actors are folded together
     public String getMessage() {
-        return message;
+        if (actorCount <= 1 || lastActorName == null || message == null || !message.startsWith(lastActorName)) {
+            return message;
+        }
+        int others = actorCount - 1;
+        return lastActorName + " and " + others + (others == 1 ? " other" : " others") + message.substring(lastActorName.length());
     }
 
     public void setMessage(String message) {
@@ -94,4 +116,36 @@ public class Notification {
     public void setCreatedAt(Date createdAt) {
         this.createdAt = createdAt;
     }
-}
\ No newline at end of file
+
+    public int getActorCount() {
+        return actorCount;
+    }
+
+    public void setActorCount(int actorCount) {
+        this.actorCount = actorCount;
+    }
+
+    public List<String> getActorIds() {
+        return actorIds;
+    }
+
+    public void setActorIds(List<String> actorIds) {
+        this.actorIds = actorIds;
+    }
+
+    public String getLastActorName() {
+        return lastActorName;
+    }
+
+    public void setLastActorName(String lastActorName) {
+        this.lastActorName = lastActorName;
+    }
+
+    public Date getWindowStart() {
+        return windowStart;
+    }
+
+    public void setWindowStart(Date windowStart) {
+        this.windowStart = windowStart;
+    }
+}
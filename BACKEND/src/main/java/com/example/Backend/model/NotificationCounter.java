@@ -0,0 +1,43 @@
+package com.example.Backend.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+
+// Number of unread notifications of one user, kept in step with $inc so the badge never has to count documents.
+// The id is the user id.
+@Document(collection = "notification_counters")
+public class NotificationCounter {
+    @Id
+    private String id;
+    private long unread;
+    private Date updatedAt;
+
+    public NotificationCounter() {
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public long getUnread() {
+        return unread;
+    }
+
+    public void setUnread(long unread) {
+        this.unread = unread;
+    }
+
+    public Date getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Date updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
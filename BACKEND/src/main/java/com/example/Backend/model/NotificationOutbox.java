@@ -0,0 +1,109 @@
+package com.example.Backend.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+
+// A notification that has been requested but not yet written. It is stored before the request returns and removed
+// once the notification exists, so anything still here after a restart is delivered by the outbox sweep. A delivery
+// claims its entries first so the worker and the sweep never fold the same entry in twice.
+@Document(collection = "notification_outbox")
+public class NotificationOutbox {
+    @Id
+    private String id;
+    private String userId; // recipient
+    private String type;
+    private String postId;
+    private String triggerUserId;
+    private String commentContent; // only for COMMENT notifications
+    @Indexed
+    private Date createdAt;
+    private String claimedBy; // the delivery currently working on this entry
+    private Date claimedAt;
+
+    public NotificationOutbox() {
+    }
+
+    public NotificationOutbox(String userId, String type, String postId, String triggerUserId, String commentContent) {
+        this.userId = userId;
+        this.type = type;
+        this.postId = postId;
+        this.triggerUserId = triggerUserId;
+        this.commentContent = commentContent;
+        this.createdAt = new Date();
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public String getPostId() {
+        return postId;
+    }
+
+    public void setPostId(String postId) {
+        this.postId = postId;
+    }
+
+    public String getTriggerUserId() {
+        return triggerUserId;
+    }
+
+    public void setTriggerUserId(String triggerUserId) {
+        this.triggerUserId = triggerUserId;
+    }
+
+    public String getCommentContent() {
+        return commentContent;
+    }
+
+    public void setCommentContent(String commentContent) {
+        this.commentContent = commentContent;
+    }
+
+    public Date getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Date createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public String getClaimedBy() {
+        return claimedBy;
+    }
+
+    public void setClaimedBy(String claimedBy) {
+        this.claimedBy = claimedBy;
+    }
+
+    public Date getClaimedAt() {
+        return claimedAt;
+    }
+
+    public void setClaimedAt(Date claimedAt) {
+        this.claimedAt = claimedAt;
+    }
+}
@@ -6,13 +6,19 @@ import java.util.List;
 import lombok.AllArgsConstructor;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 //Collection(updated)
 @Document(collection = "posts")
+@CompoundIndexes({
+        @CompoundIndex(name = "createdAt_id", def = "{'createdAt': -1, '_id': -1}"),
+        @CompoundIndex(name = "userId_createdAt_id", def = "{'userId': 1, 'createdAt': -1, '_id': -1}")
+})
 @AllArgsConstructor
 @NoArgsConstructor
-public class Post {
+public class Post implements FeedContent {
     @Id
     private String id;
     private String userId;
@@ -22,7 +28,9 @@ public class Post {
     private Date createdAt;
     private Date updatedAt;
     private List<Like> likes;
-    private List<Comment> comments;
+    private Integer likeCount; // kept in step with likes by $inc so counts never need the array
+    private List<Comment> comments; // preview of the newest comments; the full list lives in the comments collection
+    private Integer commentCount;
 
     public String getId() {
         return id;
@@ -88,6 +96,14 @@ public class Post {
         this.likes = likes;
     }
 
+    public Integer getLikeCount() {
+        return likeCount;
+    }
+
+    public void setLikeCount(Integer likeCount) {
+        this.likeCount = likeCount;
+    }
+
     public List<Comment> getComments() {
         return comments;
     }
@@ -95,4 +111,12 @@ public class Post {
     public void setComments(List<Comment> comments) {
         this.comments = comments;
     }
+
+    public Integer getCommentCount() {
+        return commentCount;
+    }
+
+    public void setCommentCount(Integer commentCount) {
+        this.commentCount = commentCount;
+    }
 }
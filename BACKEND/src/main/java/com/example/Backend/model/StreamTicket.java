@@ -0,0 +1,51 @@
+package com.example.Backend.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+
+// A single-use credential for opening an event stream. EventSource cannot send headers, so the stream is opened with
+// ?ticket= instead of putting the JWT in the URL; the id is the ticket itself and is removed when it is redeemed.
+@Document(collection = "stream_tickets")
+public class StreamTicket {
+    @Id
+    private String id;
+    private String userId;
+    @Indexed(expireAfter = "0s")
+    private Date expiresAt;
+
+    public StreamTicket() {
+    }
+
+    public StreamTicket(String id, String userId, Date expiresAt) {
+        this.id = id;
+        this.userId = userId;
+        this.expiresAt = expiresAt;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public Date getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(Date expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.Backend.model;
+
+import com.example.Backend.enums.FeedItemType;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+
+// One item in a user's materialized home timeline, written when someone they follow creates content.
+// Only a reference is kept; the item itself is loaded when the timeline is read.
+@Document(collection = "timeline")
+@CompoundIndexes({
+        @CompoundIndex(name = "ownerId_createdAt_itemId", def = "{'ownerId': 1, 'createdAt': -1, 'itemId': -1}")
+})
+public class TimelineEntry {
+    @Id
+    private String id;
+    private String ownerId; // whose timeline this entry belongs to
+    private FeedItemType type;
+    @Indexed
+    private String itemId;
+    private String authorId;
+    private Date createdAt; // creation time of the item, not of this entry
+
+    public TimelineEntry() {
+    }
+
+    public TimelineEntry(String ownerId, FeedItemType type, String itemId, String authorId, Date createdAt) {
+        this.ownerId = ownerId;
+        this.type = type;
+        this.itemId = itemId;
+        this.authorId = authorId;
+        this.createdAt = createdAt;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getOwnerId() {
+        return ownerId;
+    }
+
+    public void setOwnerId(String ownerId) {
+        this.ownerId = ownerId;
+    }
+
+    public FeedItemType getType() {
+        return type;
+    }
+
+    public void setType(FeedItemType type) {
+        this.type = type;
+    }
+
+    public String getItemId() {
+        return itemId;
+    }
+
+    public void setItemId(String itemId) {
+        this.itemId = itemId;
+    }
+
+    public String getAuthorId() {
+        return authorId;
+    }
+
+    public void setAuthorId(String authorId) {
+        this.authorId = authorId;
+    }
+
+    public Date getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Date createdAt) {
+        this.createdAt = createdAt;
+    }
+}
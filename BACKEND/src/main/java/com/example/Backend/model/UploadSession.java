@@ -0,0 +1,134 @@
+package com.example.Backend.model;
+
+import com.example.Backend.enums.UploadStatus;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+// A resumable upload in progress. Chunks are written straight into a temp file; only their indexes are kept here.
+@Document(collection = "upload_sessions")
+public class UploadSession {
+    @Id
+    private String id;
+    private String userId;
+    private String fileName;
+    private String contentType;
+    private long totalSize;
+    private int chunkSize;
+    private int totalChunks;
+    private String sha256; // checksum the client declares for the assembled file, required
+    private List<Integer> receivedChunks = new ArrayList<>();
+    private UploadStatus status;
+    private String mediaId;
+    private Date createdAt;
+    @Indexed
+    private Date updatedAt;
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public void setFileName(String fileName) {
+        this.fileName = fileName;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public void setContentType(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public long getTotalSize() {
+        return totalSize;
+    }
+
+    public void setTotalSize(long totalSize) {
+        this.totalSize = totalSize;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public void setChunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    public int getTotalChunks() {
+        return totalChunks;
+    }
+
+    public void setTotalChunks(int totalChunks) {
+        this.totalChunks = totalChunks;
+    }
+
+    public String getSha256() {
+        return sha256;
+    }
+
+    public void setSha256(String sha256) {
+        this.sha256 = sha256;
+    }
+
+    public List<Integer> getReceivedChunks() {
+        return receivedChunks;
+    }
+
+    public void setReceivedChunks(List<Integer> receivedChunks) {
+        this.receivedChunks = receivedChunks;
+    }
+
+    public UploadStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(UploadStatus status) {
+        this.status = status;
+    }
+
+    public String getMediaId() {
+        return mediaId;
+    }
+
+    public void setMediaId(String mediaId) {
+        this.mediaId = mediaId;
+    }
+
+    public Date getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Date createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Date getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Date updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
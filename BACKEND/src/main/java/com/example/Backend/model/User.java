@@ -29,13 +29,21 @@ public class User {
 
     private String profileImage;
 
+    private String avatarId;
+
     private RegistrationSource registrationSource;
 
     private String password;
 
-    private List<String> followingUsers = new ArrayList<>();
+    //follows live in the follows collection; these arrays are only read by FollowMigrationService, which removes them
+    private List<String> followingUsers;
+
+    private List<String> followedUsers;
 
-    private List<String> followedUsers = new ArrayList<>();
+    @Indexed
+    private long followerCount;
+
+    private long followingCount;
 
     private String bio;
 
@@ -110,6 +118,14 @@ public class User {
         this.profileImage = profileImage;
     }
 
+    public String getAvatarId() {
+        return avatarId;
+    }
+
+    public void setAvatarId(String avatarId) {
+        this.avatarId = avatarId;
+    }
+
     public RegistrationSource getRegistrationSource() {
         return registrationSource;
     }
@@ -142,4 +158,20 @@ public class User {
         this.followedUsers = followedUsers;
     }
 
+    public long getFollowerCount() {
+        return followerCount;
+    }
+
+    public void setFollowerCount(long followerCount) {
+        this.followerCount = followerCount;
+    }
+
+    public long getFollowingCount() {
+        return followingCount;
+    }
+
+    public void setFollowingCount(long followingCount) {
+        this.followingCount = followingCount;
+    }
+
 }
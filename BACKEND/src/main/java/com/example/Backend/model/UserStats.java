@@ -0,0 +1,75 @@
+package com.example.Backend.model;
+
+import com.example.Backend.enums.FeedItemType;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+
+// How much content one user has, kept in step with $inc as content is created and deleted so nothing has to be
+// counted on read. The id is the user id. Follower and following counts live on the user document itself.
+@Document(collection = "user_stats")
+public class UserStats {
+    @Id
+    private String id;
+    private long posts;
+    private long learningProgress;
+    private long learningPlans;
+    private Date updatedAt;
+
+    public UserStats() {
+    }
+
+    //the counter field that content of this type adds to
+    public static String counterOf(FeedItemType type) {
+        return switch (type) {
+            case POST -> "posts";
+            case LEARNING_PROGRESS -> "learningProgress";
+            case LEARNING_PLAN -> "learningPlans";
+        };
+    }
+
+    public long getTotalContent() {
+        return posts + learningProgress + learningPlans;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public long getPosts() {
+        return posts;
+    }
+
+    public void setPosts(long posts) {
+        this.posts = posts;
+    }
+
+    public long getLearningProgress() {
+        return learningProgress;
+    }
+
+    public void setLearningProgress(long learningProgress) {
+        this.learningProgress = learningProgress;
+    }
+
+    public long getLearningPlans() {
+        return learningPlans;
+    }
+
+    public void setLearningPlans(long learningPlans) {
+        this.learningPlans = learningPlans;
+    }
+
+    public Date getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Date updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
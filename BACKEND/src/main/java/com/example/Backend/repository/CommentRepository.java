@@ -0,0 +1,16 @@
+package com.example.Backend.repository;
+
+import com.example.Backend.enums.FeedItemType;
+import com.example.Backend.model.Comment;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface CommentRepository extends MongoRepository<Comment, String> {
+
+    List<Comment> findTop2ByParentTypeAndParentIdOrderByCreatedAtDesc(FeedItemType parentType, String parentId);
+
+    void deleteByParentTypeAndParentId(FeedItemType parentType, String parentId);
+}
@@ -0,0 +1,9 @@
+package com.example.Backend.repository;
+
+import com.example.Backend.model.MediaAsset;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface MediaAssetRepository extends MongoRepository<MediaAsset, String> {
+}
@@ -0,0 +1,13 @@
+package com.example.Backend.repository;
+
+import com.example.Backend.model.UploadSession;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Date;
+import java.util.List;
+
+@Repository
+public interface UploadSessionRepository extends MongoRepository<UploadSession, String> {
+    List<UploadSession> findByUpdatedAtBefore(Date cutoff);
+}
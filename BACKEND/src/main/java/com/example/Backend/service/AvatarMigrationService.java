@@ -0,0 +1,64 @@
+package com.example.Backend.service;
+
+import com.example.Backend.model.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+// Rewrites users whose profileImage is still an inline base64 data URL so they reference stored avatar variants.
+@Service
+public class AvatarMigrationService {
+
+    private static final Logger log = LoggerFactory.getLogger(AvatarMigrationService.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final AvatarService avatarService;
+    private final UserCache userCache;
+
+    public AvatarMigrationService(MongoTemplate mongoTemplate, AvatarService avatarService, UserCache userCache) {
+        this.mongoTemplate = mongoTemplate;
+        this.avatarService = avatarService;
+        this.userCache = userCache;
+    }
+
+    //returns the number of users rewritten
+    public int migrateProfileImages() {
+        Query query = new Query(Criteria.where("profileImage").regex("^data:"));
+        query.fields().include("profileImage");
+        query.cursorBatchSize(1);
+
+        int migrated = 0;
+        try (Stream<User> stream = mongoTemplate.stream(query, User.class)) {
+            Iterator<User> users = stream.iterator();
+            while (users.hasNext()) {
+                User user = users.next();
+                try {
+                    String original = user.getProfileImage();
+                    avatarService.applyProfileImage(user, original);
+                    //only the image fields are written, and only while the user still has the image that was converted,
+                    //so a picture changed during the migration is not replaced by the old one
+                    long updated = mongoTemplate.updateFirst(
+                            new Query(Criteria.where("_id").is(user.getId()).and("profileImage").is(original)),
+                            new Update().set("profileImage", user.getProfileImage()).set("avatarId", user.getAvatarId()),
+                            User.class).getModifiedCount();
+                    if (updated > 0) {
+                        userCache.invalidate(user.getId());
+                        migrated++;
+                    }
+                } catch (IOException | RuntimeException e) {
+                    log.warn("Failed to migrate profile image for user {}: {}", user.getId(), e.getMessage());
+                }
+            }
+        }
+        log.info("Migrated inline profile images for {} users", migrated);
+        return migrated;
+    }
+}
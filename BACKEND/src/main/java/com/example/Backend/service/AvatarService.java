@@ -0,0 +1,118 @@
+package com.example.Backend.service;
+
+import com.example.Backend.model.Avatar;
+import com.example.Backend.model.MediaAsset;
+import com.example.Backend.model.User;
+import com.example.Backend.repository.AvatarRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+// Profile pictures: decoded once on upload into small square variants so user documents only carry a short URL.
+@Service
+public class AvatarService {
+
+    public static final String DEFAULT_VARIANT = "medium";
+
+    private static final Map<String, Integer> VARIANT_SIZES = new LinkedHashMap<>();
+
+    static {
+        VARIANT_SIZES.put("small", 64);
+        VARIANT_SIZES.put("medium", 256);
+        VARIANT_SIZES.put("large", 512);
+    }
+
+    private final AvatarRepository avatarRepository;
+    private final MediaService mediaService;
+    private final String publicBaseUrl;
+
+    public AvatarService(AvatarRepository avatarRepository, MediaService mediaService,
+                         @Value("${avatar.public-base-url:http://localhost:8080/api/avatars}") String publicBaseUrl) {
+        this.avatarRepository = avatarRepository;
+        this.mediaService = mediaService;
+        this.publicBaseUrl = publicBaseUrl.endsWith("/") ? publicBaseUrl.substring(0, publicBaseUrl.length() - 1) : publicBaseUrl;
+    }
+
+    //store an uploaded picture and its variants; the same picture is only processed once
+    public Avatar storeAvatar(InputStream content, String declaredType) throws IOException {
+        MediaAsset original = mediaService.storeUpload(content, declaredType, false);
+        if (MediaService.isVideo(original.getContentType())) {
+            throw new IllegalArgumentException("Profile image must be an image");
+        }
+        Avatar existing = avatarRepository.findById(original.getId()).orElse(null);
+        if (existing != null) {
+            return existing;
+        }
+
+        int largest = VARIANT_SIZES.get("large");
+        BufferedImage source = ImageProcessing.decode(mediaService.locate(original.getId()), largest);
+        if (source == null) {
+            throw new IllegalArgumentException("Profile image could not be read");
+        }
+        //centre crop to a square before scaling so every variant has the same framing
+        int side = Math.min(source.getWidth(), source.getHeight());
+        BufferedImage square = source.getSubimage((source.getWidth() - side) / 2, (source.getHeight() - side) / 2, side, side);
+        boolean opaque = source.getTransparency() == Transparency.OPAQUE;
+
+        Map<String, String> variants = new LinkedHashMap<>();
+        for (Map.Entry<String, Integer> variant : VARIANT_SIZES.entrySet()) {
+            int size = Math.min(variant.getValue(), side);
+            byte[] encoded = ImageProcessing.encode(ImageProcessing.scale(square, size, size, opaque), opaque);
+            try (InputStream in = new ByteArrayInputStream(encoded)) {
+                MediaAsset stored = mediaService.storeRendition(in, ImageProcessing.contentType(opaque), original.getId());
+                variants.put(variant.getKey(), stored.getId());
+            }
+        }
+        return avatarRepository.save(new Avatar(original.getId(), variants));
+    }
+
+    public Avatar storeDataUrl(String dataUrl) throws IOException {
+        try (InputStream in = MediaService.openDataUrl(dataUrl)) {
+            return storeAvatar(in, MediaService.dataUrlContentType(dataUrl));
+        }
+    }
+
+    //apply a profile image sent by a client: data URLs become stored avatars, anything else is kept as a URL
+    public void applyProfileImage(User user, String profileImage) throws IOException {
+        if (MediaService.isDataUrl(profileImage)) {
+            Avatar avatar = storeDataUrl(profileImage);
+            user.setAvatarId(avatar.getId());
+            user.setProfileImage(avatarUrl(avatar.getId(), DEFAULT_VARIANT));
+            return;
+        }
+        if (profileImage == null || !profileImage.startsWith(publicBaseUrl + "/")) {
+            user.setAvatarId(null);
+        }
+        user.setProfileImage(profileImage);
+    }
+
+    public MediaAsset getVariant(String avatarId, String variant) {
+        Avatar avatar = avatarRepository.findById(avatarId)
+                .orElseThrow(() -> new NoSuchElementException("Avatar not found"));
+        String mediaId = avatar.getVariants().get(variant);
+        if (mediaId == null) {
+            throw new NoSuchElementException("Unknown avatar variant");
+        }
+        return mediaService.getMedia(mediaId);
+    }
+
+    public Map<String, String> variantUrls(Avatar avatar) {
+        Map<String, String> urls = new LinkedHashMap<>();
+        for (String variant : avatar.getVariants().keySet()) {
+            urls.put(variant, avatarUrl(avatar.getId(), variant));
+        }
+        return urls;
+    }
+
+    public String avatarUrl(String avatarId, String variant) {
+        return publicBaseUrl + "/" + avatarId + "/" + variant;
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.Backend.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+
+// Content-addressed storage for media bytes. Keys are lowercase hex SHA-256 digests of the content.
+public interface BlobStore {
+
+    // Streams the content into the store and returns its key and size. Storing the same bytes twice is a no-op.
+    StoredBlob store(InputStream content) throws IOException;
+
+    boolean exists(String key);
+
+    // Local path of the blob, used for zero-copy reads
+    Path locate(String key);
+
+    void delete(String key) throws IOException;
+
+    record StoredBlob(String key, long size, boolean created) {
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.Backend.service;
+
+import com.example.Backend.enums.FeedItemType;
+import com.example.Backend.model.FeedContent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.stream.Stream;
+
+// Moves comments embedded in posts, learning progress entries and plans into the comments collection, leaving each
+// parent with a commentCount and the preview of its newest comments. Parents that already have a commentCount are
+// skipped, so the migration can be re-run after an interruption. Comment writes migrate their own parent on demand,
+// so this only has to catch up on parents nobody has commented on since.
+@Service
+public class CommentMigrationService {
+
+    private static final Logger log = LoggerFactory.getLogger(CommentMigrationService.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final CommentService commentService;
+
+    public CommentMigrationService(MongoTemplate mongoTemplate, CommentService commentService) {
+        this.mongoTemplate = mongoTemplate;
+        this.commentService = commentService;
+    }
+
+    //returns the number of parents rewritten
+    public int migrateEmbeddedComments() {
+        int migrated = 0;
+        for (Map.Entry<FeedItemType, Class<? extends FeedContent>> source : TimelineService.ITEM_CLASSES.entrySet()) {
+            migrated += migrate(source.getKey(), source.getValue());
+        }
+        log.info("Migrated embedded comments for {} documents", migrated);
+        return migrated;
+    }
+
+    private int migrate(FeedItemType type, Class<? extends FeedContent> parentClass) {
+        Query query = new Query(Criteria.where("commentCount").exists(false));
+        query.fields().include("userId", "commentCount", "comments");
+        query.cursorBatchSize(1);
+
+        int migrated = 0;
+        try (Stream<? extends FeedContent> stream = mongoTemplate.stream(query, parentClass)) {
+            Iterator<? extends FeedContent> parents = stream.iterator();
+            while (parents.hasNext()) {
+                FeedContent parent = parents.next();
+                try {
+                    commentService.migrateParent(type, parent);
+                    migrated++;
+                } catch (RuntimeException e) {
+                    log.warn("Failed to migrate comments for {} {}: {}", type, parent.getId(), e.getMessage());
+                }
+            }
+        }
+        return migrated;
+    }
+}
@@ -0,0 +1,220 @@
+package com.example.Backend.service;
+
+import com.example.Backend.dto.CommentsResponse;
+import com.example.Backend.dto.CursorPage;
+import com.example.Backend.enums.FeedItemType;
+import com.example.Backend.event.ContentDeletedEvent;
+import com.example.Backend.model.Comment;
+import com.example.Backend.model.FeedContent;
+import com.example.Backend.repository.CommentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+// Comments live in their own collection. Each parent keeps only a commentCount and a preview of its newest comments,
+// so adding or editing a comment never rewrites the parent and feed pages stay small however busy a thread gets.
+@Service
+public class CommentService {
+
+    private static final Logger log = LoggerFactory.getLogger(CommentService.class);
+
+    public static final int PREVIEW_SIZE = 2;
+
+    private final CommentRepository commentRepository;
+    private final MongoTemplate mongoTemplate;
+    private final CursorPagination cursorPagination;
+
+    public CommentService(CommentRepository commentRepository, MongoTemplate mongoTemplate,
+                          CursorPagination cursorPagination) {
+        this.commentRepository = commentRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.cursorPagination = cursorPagination;
+    }
+
+    //store a comment and add it to the parent's preview, trimmed to the newest PREVIEW_SIZE; null when the parent does not exist
+    public CommentChange addComment(FeedItemType parentType, String parentId, Comment comment) {
+        FeedContent parent = loadParent(parentType, parentId);
+        if (parent == null) {
+            return null;
+        }
+        if (comment.getUserName() == null || comment.getUserName().isEmpty()) {
+            comment.setUserName("Unknown User");
+        }
+        comment.setId(UUID.randomUUID().toString());
+        comment.setParentType(parentType);
+        comment.setParentId(parentId);
+        comment.setCreatedAt(new Date());
+        comment.setUpdatedAt(new Date());
+        Comment saved = commentRepository.insert(comment);
+
+        Update update = new Update().inc("commentCount", 1);
+        update.push("comments").slice(-PREVIEW_SIZE).each(preview(saved));
+        FeedContent updated = mongoTemplate.findAndModify(parentQuery(parentId), update,
+                FindAndModifyOptions.options().returnNew(true), parentClass(parentType));
+        return change(updated == null ? parent : updated, saved);
+    }
+
+    //edit a comment's content; the preview copy is updated in place if the comment is in it
+    public CommentChange updateComment(FeedItemType parentType, String parentId, String commentId, String content) {
+        FeedContent parent = loadParent(parentType, parentId);
+        if (parent == null) {
+            return null;
+        }
+        Date now = new Date();
+        Query query = new Query(Criteria.where("_id").is(commentId).and("parentType").is(parentType).and("parentId").is(parentId));
+        Comment updated = mongoTemplate.findAndModify(query, new Update().set("content", content).set("updatedAt", now),
+                FindAndModifyOptions.options().returnNew(true), Comment.class);
+        if (updated == null) {
+            return change(parent, null);
+        }
+        Query inPreview = parentQuery(parentId).addCriteria(Criteria.where("comments.id").is(commentId));
+        FeedContent refreshed = mongoTemplate.findAndModify(inPreview,
+                new Update().set("comments.$.content", content).set("comments.$.updatedAt", now),
+                FindAndModifyOptions.options().returnNew(true), parentClass(parentType));
+        return change(refreshed == null ? parent : refreshed, updated);
+    }
+
+    //delete a comment if userId wrote it or owns the parent; nothing changes otherwise
+    public CommentChange deleteComment(FeedItemType parentType, String parentId, String commentId, String userId) {
+        FeedContent parent = loadParent(parentType, parentId);
+        if (parent == null) {
+            return null;
+        }
+        Criteria criteria = Criteria.where("_id").is(commentId).and("parentType").is(parentType).and("parentId").is(parentId);
+        if (!userId.equals(parent.getUserId())) {
+            criteria = criteria.and("userId").is(userId);
+        }
+        if (mongoTemplate.remove(new Query(criteria), Comment.class).getDeletedCount() == 0) {
+            return change(parent, null);
+        }
+        //refill the preview from the collection so an older comment takes the deleted one's place
+        FeedContent updated = mongoTemplate.findAndModify(parentQuery(parentId),
+                new Update().inc("commentCount", -1).set("comments", previewOf(parentType, parentId)),
+                FindAndModifyOptions.options().returnNew(true), parentClass(parentType));
+        return change(updated == null ? parent : updated, null);
+    }
+
+    //move one parent's embedded comments into the collection and leave it with a commentCount and a preview; the final
+    //update only applies while the parent still has no commentCount, so concurrent or repeated runs change nothing
+    void migrateParent(FeedItemType parentType, FeedContent parent) {
+        List<Comment> comments = parent.getComments() == null ? Collections.emptyList() : parent.getComments();
+        for (int i = 0; i < comments.size(); i++) {
+            Comment comment = comments.get(i);
+            if (comment.getId() == null) {
+                //a stable id keeps a second run from saving the same embedded comment twice
+                comment.setId(parent.getId() + "-" + i);
+            }
+            comment.setParentType(parentType);
+            comment.setParentId(parent.getId());
+        }
+        //save upserts by id, so a re-run does not duplicate comments
+        commentRepository.saveAll(comments);
+        long count = countByParent(parentType, List.of(parent.getId())).getOrDefault(parent.getId(), 0L);
+        mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(parent.getId()).and("commentCount").exists(false)),
+                new Update().set("commentCount", (int) count).set("comments", previewOf(parentType, parent.getId())),
+                parentClass(parentType));
+    }
+
+    //owner, count and preview of a parent; comments still embedded from before the comments collection are moved
+    //first, so a write can never trim away or miss comments the migration has not reached yet
+    private FeedContent loadParent(FeedItemType parentType, String parentId) {
+        FeedContent parent = mongoTemplate.findOne(parentQuery(parentId), parentClass(parentType));
+        if (parent != null && parent.getCommentCount() == null) {
+            migrateParent(parentType, parent);
+            parent = mongoTemplate.findOne(parentQuery(parentId), parentClass(parentType));
+        }
+        return parent;
+    }
+
+    static Query parentQuery(String parentId) {
+        Query query = new Query(Criteria.where("_id").is(parentId));
+        query.fields().include("userId", "commentCount", "comments");
+        return query;
+    }
+
+    private static CommentChange change(FeedContent parent, Comment comment) {
+        int count = parent.getCommentCount() == null ? 0 : parent.getCommentCount();
+        List<Comment> preview = parent.getComments() == null ? Collections.emptyList() : parent.getComments();
+        return new CommentChange(parent.getUserId(), new CommentsResponse(parent.getId(), count, preview, comment));
+    }
+
+    //one page of a parent's comments, newest first
+    public CursorPage<Comment> getComments(FeedItemType parentType, String parentId, String cursor, Integer limit) {
+        return cursorPagination.page(Comment.class,
+                Criteria.where("parentType").is(parentType).and("parentId").is(parentId),
+                cursor, limit, Comment::getCreatedAt, Comment::getId);
+    }
+
+    //comment counts for many parents in one aggregation; parents without comments are absent from the map
+    public Map<String, Long> countByParent(FeedItemType parentType, Collection<String> parentIds) {
+        if (parentIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("parentType").is(parentType).and("parentId").in(parentIds)),
+                Aggregation.group("parentId").count().as("count"));
+        Map<String, Long> counts = new HashMap<>();
+        for (ParentCount row : mongoTemplate.aggregate(aggregation, Comment.class, ParentCount.class)) {
+            counts.put(row.id(), row.count());
+        }
+        return counts;
+    }
+
+    //the newest PREVIEW_SIZE comments, oldest first as the parent embeds them
+    List<Comment> previewOf(FeedItemType parentType, String parentId) {
+        List<Comment> newest = commentRepository.findTop2ByParentTypeAndParentIdOrderByCreatedAtDesc(parentType, parentId);
+        List<Comment> preview = new ArrayList<>();
+        for (int i = newest.size() - 1; i >= 0; i--) {
+            preview.add(preview(newest.get(i)));
+        }
+        return preview;
+    }
+
+    @EventListener
+    public void onContentDeleted(ContentDeletedEvent event) {
+        try {
+            commentRepository.deleteByParentTypeAndParentId(event.type(), event.itemId());
+        } catch (RuntimeException e) {
+            log.warn("Failed to delete comments of {} {}: {}", event.type(), event.itemId(), e.getMessage());
+        }
+    }
+
+    //the embedded copy leaves out the parent reference the parent already implies
+    private static Comment preview(Comment comment) {
+        Comment copy = new Comment();
+        copy.setId(comment.getId());
+        copy.setUserId(comment.getUserId());
+        copy.setUserName(comment.getUserName());
+        copy.setContent(comment.getContent());
+        copy.setCreatedAt(comment.getCreatedAt());
+        copy.setUpdatedAt(comment.getUpdatedAt());
+        return copy;
+    }
+
+    private static Class<? extends FeedContent> parentClass(FeedItemType parentType) {
+        return TimelineService.ITEM_CLASSES.get(parentType);
+    }
+
+    record ParentCount(String id, long count) {
+    }
+
+    //ownerId is the author of the parent, for notifications
+    public record CommentChange(String ownerId, CommentsResponse response) {
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.Backend.service;
+
+import com.example.Backend.dto.ContentSummary;
+import com.example.Backend.dto.CursorPage;
+import com.example.Backend.enums.FeedItemType;
+import com.example.Backend.model.FeedContent;
+import com.example.Backend.model.LearningPlan;
+import com.example.Backend.model.LearningProgress;
+import com.example.Backend.model.Post;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Summary read model for list pages. Only the fields a list card shows are read from Mongo: likes and all but the
+// newest preview comment never leave the database, and descriptions are cut down before they are sent.
+@Service
+public class ContentSummaryService {
+
+    public static final String VIEW = "summary";
+
+    private static final int DESCRIPTION_LENGTH = 200;
+
+    private final MongoTemplate mongoTemplate;
+    private final MediaService mediaService;
+    private final LikeService likeService;
+
+    public ContentSummaryService(MongoTemplate mongoTemplate, MediaService mediaService, LikeService likeService) {
+        this.mongoTemplate = mongoTemplate;
+        this.mediaService = mediaService;
+        this.likeService = likeService;
+    }
+
+    //one newest-first page of summaries, of everyone's content or only userId's when it is not null
+    public CursorPage<ContentSummary> getSummaries(FeedItemType type, String userId, String cursor, Integer limit) {
+        int pageSize = CursorPagination.pageSize(limit);
+        CursorPagination.Position after = CursorPagination.decodeOrNull(cursor);
+        Criteria filter = userId == null ? null : Criteria.where("userId").is(userId);
+
+        Query query = CursorPagination.seekQuery(filter, after, "_id", pageSize + 1);
+        query.fields().include("userId", "userName", "description", "likeCount", "commentCount", "createdAt");
+        query.fields().include(type == FeedItemType.POST ? "mediaUrls" : "title");
+        //the preview is kept oldest first, so its last element is the newest comment
+        query.fields().slice("comments", -1);
+
+        List<ContentSummary> items = new ArrayList<>();
+        for (FeedContent content : mongoTemplate.find(query, TimelineService.ITEM_CLASSES.get(type))) {
+            items.add(summarize(type, content));
+        }
+        String nextCursor = null;
+        if (items.size() > pageSize) {
+            items = items.subList(0, pageSize);
+            ContentSummary last = items.get(pageSize - 1);
+            nextCursor = CursorPagination.encode(last.getCreatedAt(), last.getId());
+        }
+        return new CursorPage<>(items, nextCursor);
+    }
+
+    private ContentSummary summarize(FeedItemType type, FeedContent content) {
+        ContentSummary summary = new ContentSummary();
+        summary.setType(type);
+        summary.setId(content.getId());
+        summary.setUserId(content.getUserId());
+        summary.setUserName(content.getUserName());
+        summary.setDescription(truncate(content.getDescription()));
+        summary.setLikeCount(likeService.likeCount(type, content));
+        summary.setCommentCount(content.getCommentCount() == null ? 0 : content.getCommentCount());
+        summary.setCreatedAt(content.getCreatedAt());
+        if (content.getComments() != null && !content.getComments().isEmpty()) {
+            summary.setLatestComment(content.getComments().get(content.getComments().size() - 1));
+        }
+
+        List<String> mediaIds = new ArrayList<>();
+        if (content instanceof Post post && post.getMediaUrls() != null) {
+            for (String entry : post.getMediaUrls()) {
+                String mediaId = mediaService.mediaIdOf(entry);
+                if (mediaId != null) {
+                    mediaIds.add(mediaId);
+                }
+            }
+        }
+        summary.setMediaIds(mediaIds);
+        if (content instanceof LearningPlan plan) {
+            summary.setTitle(plan.getTitle());
+        } else if (content instanceof LearningProgress progress) {
+            summary.setTitle(progress.getTitle());
+        }
+        return summary;
+    }
+
+    private static String truncate(String description) {
+        if (description == null || description.codePointCount(0, description.length()) <= DESCRIPTION_LENGTH) {
+            return description;
+        }
+        return description.substring(0, description.offsetByCodePoints(0, DESCRIPTION_LENGTH)) + "…";
+    }
+}
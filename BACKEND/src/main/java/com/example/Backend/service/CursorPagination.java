@@ -0,0 +1,94 @@
+package com.example.Backend.service;
+
+import com.example.Backend.dto.CursorPage;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.function.Function;
+
+// Keyset pagination over (createdAt desc, _id desc). Each page seeks past the last item of the previous one using the
+// compound index, so page N costs the same as page 1 no matter how large the collection grows.
+@Component
+public class CursorPagination {
+
+    public static final int DEFAULT_LIMIT = 20;
+    public static final int MAX_LIMIT = 100;
+
+    private final MongoTemplate mongoTemplate;
+
+    public CursorPagination(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    //fetch one page of documents matching filter (may be null), newest first
+    public <T> CursorPage<T> page(Class<T> type, Criteria filter, String cursor, Integer limit,
+                                  Function<T, Date> createdAt, Function<T, String> id) {
+        int pageSize = pageSize(limit);
+        Position after = decodeOrNull(cursor);
+
+        //read one extra document to learn whether another page exists without a count query
+        List<T> items = after(type, filter, after, "_id", pageSize + 1);
+        String nextCursor = null;
+        if (items.size() > pageSize) {
+            items = items.subList(0, pageSize);
+            T last = items.get(pageSize - 1);
+            nextCursor = encode(createdAt.apply(last), id.apply(last));
+        }
+        return new CursorPage<>(items, nextCursor);
+    }
+
+    //up to count documents strictly after a position (null for the start) in (createdAt, tieField) descending order
+    <T> List<T> after(Class<T> type, Criteria filter, Position after, String tieField, int count) {
+        return mongoTemplate.find(seekQuery(filter, after, tieField, count), type);
+    }
+
+    static Query seekQuery(Criteria filter, Position after, String tieField, int count) {
+        Criteria criteria = filter == null ? new Criteria() : filter;
+        if (after != null) {
+            Criteria seek = new Criteria().orOperator(
+                    Criteria.where("createdAt").lt(after.createdAt()),
+                    Criteria.where("createdAt").is(after.createdAt()).and(tieField).lt(after.id()));
+            criteria = filter == null ? seek : new Criteria().andOperator(filter, seek);
+        }
+        return new Query(criteria)
+                .with(Sort.by(Sort.Direction.DESC, "createdAt").and(Sort.by(Sort.Direction.DESC, tieField)))
+                .limit(count);
+    }
+
+    static Position decodeOrNull(String cursor) {
+        return cursor == null || cursor.isEmpty() ? null : decode(cursor);
+    }
+
+    static int pageSize(Integer limit) {
+        return limit == null ? DEFAULT_LIMIT : Math.max(1, Math.min(limit, MAX_LIMIT));
+    }
+
+    static String encode(Date createdAt, String id) {
+        String raw = createdAt.getTime() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static Position decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            if (separator <= 0 || separator == raw.length() - 1) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new Position(new Date(Long.parseLong(raw.substring(0, separator))), raw.substring(separator + 1));
+        } catch (IllegalArgumentException e) {
+            //NumberFormatException and bad base64 both land here
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    record Position(Date createdAt, String id) {
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.Backend.service;
+
+import com.example.Backend.enums.FeedItemType;
+import com.example.Backend.model.FeedContent;
+import com.example.Backend.model.Like;
+import com.example.Backend.model.LikeEdge;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.util.Date;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.stream.Stream;
+
+// Fills in the denormalized counters and like edges for content created before they existed.
+@Service
+public class EngagementMigrationService {
+
+    private static final Logger log = LoggerFactory.getLogger(EngagementMigrationService.class);
+
+    private static final int EDGE_BATCH_SIZE = 1000;
+
+    private final MongoTemplate mongoTemplate;
+
+    public EngagementMigrationService(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    //set likeCount from the likes array wherever it is missing; computed server-side, nothing is loaded into the app
+    public void backfillLikeCounts() {
+        for (Class<? extends FeedContent> type : TimelineService.ITEM_CLASSES.values()) {
+            long updated = mongoTemplate.updateMulti(new Query(Criteria.where("likeCount").exists(false)),
+                            LikeService.backfillLikeCount(), type)
+                    .getModifiedCount();
+            log.info("Backfilled likeCount on {} {} documents", updated, type.getSimpleName());
+        }
+    }
+
+    //create a like edge for every embedded like; upserts by edge id, so running it again changes nothing
+    public void backfillLikeEdges() {
+        for (Map.Entry<FeedItemType, Class<? extends FeedContent>> source : TimelineService.ITEM_CLASSES.entrySet()) {
+            Query query = new Query(Criteria.where("likes.0").exists(true));
+            query.fields().include("likes");
+            long edges = 0;
+            int pending = 0;
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, LikeEdge.class);
+            try (Stream<? extends FeedContent> stream = mongoTemplate.stream(query, source.getValue())) {
+                Iterator<? extends FeedContent> items = stream.iterator();
+                while (items.hasNext()) {
+                    FeedContent item = items.next();
+                    for (Like like : item.getLikes()) {
+                        Date likedAt = like.getCreatedAt() == null ? new Date() : like.getCreatedAt();
+                        bulk.upsert(new Query(Criteria.where("_id").is(LikeEdge.key(like.getUserId(), item.getId()))),
+                                LikeService.edgeInsert(source.getKey(), item.getId(), like.getUserId(), likedAt));
+                        edges++;
+                        if (++pending == EDGE_BATCH_SIZE) {
+                            bulk.execute();
+                            bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, LikeEdge.class);
+                            pending = 0;
+                        }
+                    }
+                }
+            }
+            if (pending > 0) {
+                bulk.execute();
+            }
+            log.info("Backfilled {} like edges for {} documents", edges, source.getValue().getSimpleName());
+        }
+    }
+}
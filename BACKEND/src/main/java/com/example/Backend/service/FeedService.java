@@ -0,0 +1,114 @@
+package com.example.Backend.service;
+
+import com.example.Backend.dto.CursorPage;
+import com.example.Backend.dto.FeedItem;
+import com.example.Backend.enums.FeedItemType;
+import com.example.Backend.model.FeedContent;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.stream.Stream;
+
+// One newest-first feed over posts, learning progress and learning plans. Each collection is read through its own
+// createdAt-ordered cursor and the cursors are merged k-way, so a page only pulls the documents it actually returns
+// (plus whatever the driver had already batched) instead of loading three full lists and sorting them.
+@Service
+public class FeedService {
+
+    //same order as the cursor: createdAt desc, then id desc
+    private static final Comparator<Head> NEWEST_FIRST = Comparator
+            .comparing((Head head) -> head.item.getCreatedAt())
+            .thenComparing(head -> head.item.getId())
+            .reversed();
+
+    private final MongoTemplate mongoTemplate;
+    private final LikeService likeService;
+
+    public FeedService(MongoTemplate mongoTemplate, LikeService likeService) {
+        this.mongoTemplate = mongoTemplate;
+        this.likeService = likeService;
+    }
+
+    //everyone's content, newest first, with like state for the viewer
+    public CursorPage<FeedItem> getGlobalFeed(String viewerId, String cursor, Integer limit) {
+        CursorPage<FeedItem> page = merge(null, cursor, limit);
+        likeService.applyViewerState(page.getItems(), viewerId);
+        return page;
+    }
+
+    //one user's content, newest first, with like state for the viewer
+    public CursorPage<FeedItem> getUserFeed(String userId, String viewerId, String cursor, Integer limit) {
+        CursorPage<FeedItem> page = merge(Criteria.where("userId").is(userId), cursor, limit);
+        likeService.applyViewerState(page.getItems(), viewerId);
+        return page;
+    }
+
+    private CursorPage<FeedItem> merge(Criteria filter, String cursor, Integer limit) {
+        int pageSize = CursorPagination.pageSize(limit);
+        CursorPagination.Position after = CursorPagination.decodeOrNull(cursor);
+
+        List<Stream<? extends FeedContent>> streams = new ArrayList<>();
+        try {
+            PriorityQueue<Head> heads = new PriorityQueue<>(NEWEST_FIRST);
+            for (Map.Entry<FeedItemType, Class<? extends FeedContent>> source : TimelineService.ITEM_CLASSES.entrySet()) {
+                //no source can contribute more than the page; small batches so a quiet source is barely read
+                Query query = CursorPagination.seekQuery(filter, after, "_id", pageSize + 1)
+                        .cursorBatchSize(pageSize / TimelineService.ITEM_CLASSES.size() + 1);
+                query.fields().exclude("likes");
+                Stream<? extends FeedContent> stream = mongoTemplate.stream(query, source.getValue());
+                streams.add(stream);
+                Head head = new Head(source.getKey(), stream.iterator());
+                if (head.advance()) {
+                    heads.add(head);
+                }
+            }
+
+            List<FeedItem> items = new ArrayList<>();
+            String nextCursor = null;
+            while (!heads.isEmpty()) {
+                Head head = heads.poll();
+                if (items.size() == pageSize) {
+                    //an item beyond the page exists, so there is a next page starting after the last one returned
+                    FeedItem last = items.get(pageSize - 1);
+                    nextCursor = CursorPagination.encode(last.getCreatedAt(), last.getId());
+                    break;
+                }
+                items.add(new FeedItem(head.type, head.item.getId(), head.item.getCreatedAt(), head.item));
+                if (head.advance()) {
+                    heads.add(head);
+                }
+            }
+            return new CursorPage<>(items, nextCursor);
+        } finally {
+            streams.forEach(Stream::close);
+        }
+    }
+
+    //the current item of one source cursor
+    private static final class Head {
+        private final FeedItemType type;
+        private final Iterator<? extends FeedContent> cursor;
+        private FeedContent item;
+
+        private Head(FeedItemType type, Iterator<? extends FeedContent> cursor) {
+            this.type = type;
+            this.cursor = cursor;
+        }
+
+        private boolean advance() {
+            if (!cursor.hasNext()) {
+                return false;
+            }
+            item = cursor.next();
+            return true;
+        }
+    }
+}
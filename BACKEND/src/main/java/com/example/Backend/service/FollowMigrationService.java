@@ -0,0 +1,119 @@
+package com.example.Backend.service;
+
+import com.example.Backend.model.Follow;
+import com.example.Backend.model.User;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+// Moves the followingUsers/followedUsers arrays of existing users into follow edges and counters.
+@Service
+public class FollowMigrationService {
+
+    private static final Logger log = LoggerFactory.getLogger(FollowMigrationService.class);
+
+    private static final int BATCH_SIZE = 1000;
+
+    private final MongoTemplate mongoTemplate;
+
+    public FollowMigrationService(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    //edges from both sides of every array, then counters from the edges, then the arrays are dropped;
+    //edges are upserted by id, so a run that stops half way can simply be started again
+    public void migrateEmbeddedFollows() {
+        Query query = new Query(new Criteria().orOperator(
+                Criteria.where("followingUsers.0").exists(true), Criteria.where("followedUsers.0").exists(true)));
+        query.fields().include("followingUsers", "followedUsers");
+        Date now = new Date();
+        long edges = 0;
+        int pending = 0;
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Follow.class);
+        try (Stream<User> users = mongoTemplate.stream(query, User.class)) {
+            Iterator<User> iterator = users.iterator();
+            while (iterator.hasNext()) {
+                User user = iterator.next();
+                //the two arrays were written separately and can disagree, so either side is enough for an edge
+                for (String followeeId : orEmpty(user.getFollowingUsers())) {
+                    bulk.upsert(edgeQuery(user.getId(), followeeId), FollowService.edgeInsert(user.getId(), followeeId, now));
+                    edges++;
+                    pending++;
+                }
+                for (String followerId : orEmpty(user.getFollowedUsers())) {
+                    bulk.upsert(edgeQuery(followerId, user.getId()), FollowService.edgeInsert(followerId, user.getId(), now));
+                    edges++;
+                    pending++;
+                }
+                if (pending >= BATCH_SIZE) {
+                    bulk.execute();
+                    bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Follow.class);
+                    pending = 0;
+                }
+            }
+        }
+        if (pending > 0) {
+            bulk.execute();
+        }
+        log.info("Migrated {} embedded follows into edges", edges);
+
+        recountFollowCounters();
+
+        long cleared = mongoTemplate.updateMulti(new Query(new Criteria().orOperator(
+                        Criteria.where("followingUsers").exists(true), Criteria.where("followedUsers").exists(true))),
+                new Update().unset("followingUsers").unset("followedUsers"), User.class).getModifiedCount();
+        log.info("Removed embedded follow arrays from {} users", cleared);
+    }
+
+    //set followerCount and followingCount from the edges, counted server-side
+    public void recountFollowCounters() {
+        long followers = setCounts("followeeId", "followerCount");
+        long following = setCounts("followerId", "followingCount");
+        log.info("Recounted followers of {} users and following of {} users", followers, following);
+    }
+
+    private long setCounts(String groupField, String counterField) {
+        Aggregation aggregation = Aggregation.newAggregation(Aggregation.group(groupField).count().as("count"));
+        long users = 0;
+        int pending = 0;
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, User.class);
+        try (Stream<Document> counts = mongoTemplate.aggregateStream(aggregation, Follow.class, Document.class)) {
+            Iterator<Document> results = counts.iterator();
+            while (results.hasNext()) {
+                Document count = results.next();
+                bulk.updateOne(new Query(Criteria.where("_id").is(count.get("_id"))),
+                        new Update().set(counterField, ((Number) count.get("count")).longValue()));
+                users++;
+                if (++pending == BATCH_SIZE) {
+                    bulk.execute();
+                    bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, User.class);
+                    pending = 0;
+                }
+            }
+        }
+        if (pending > 0) {
+            bulk.execute();
+        }
+        return users;
+    }
+
+    private static Query edgeQuery(String followerId, String followeeId) {
+        return new Query(Criteria.where("_id").is(Follow.key(followerId, followeeId)));
+    }
+
+    private static List<String> orEmpty(List<String> ids) {
+        return ids == null ? List.of() : ids;
+    }
+}
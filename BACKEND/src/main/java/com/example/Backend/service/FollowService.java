@@ -0,0 +1,162 @@
+package com.example.Backend.service;
+
+import com.example.Backend.dto.CursorPage;
+import com.example.Backend.dto.FollowResponse;
+import com.example.Backend.event.UnfollowedEvent;
+import com.example.Backend.model.Follow;
+import com.example.Backend.model.User;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.result.UpdateResult;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+// The follow graph, stored as one edge document per follow. User documents only carry followerCount and
+// followingCount, so a popular user's document stays the same size however many followers they gain.
+@Service
+public class FollowService {
+
+    private final MongoTemplate mongoTemplate;
+    private final CursorPagination cursorPagination;
+    private final UserCache userCache;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public FollowService(MongoTemplate mongoTemplate, CursorPagination cursorPagination, UserCache userCache,
+                         ApplicationEventPublisher eventPublisher) {
+        this.mongoTemplate = mongoTemplate;
+        this.cursorPagination = cursorPagination;
+        this.userCache = userCache;
+        this.eventPublisher = eventPublisher;
+    }
+
+    //idempotent: the edge is upserted by id and the counters move only when it was actually created, all counter
+    //changes going out as one bulk write; a missing user undoes the edge
+    public FollowResponse follow(String followerId, String followeeId) {
+        if (followerId.equals(followeeId)) {
+            throw new IllegalArgumentException("Users cannot follow themselves");
+        }
+        UpdateResult edge = mongoTemplate.upsert(byId(Follow.key(followerId, followeeId)),
+                edgeInsert(followerId, followeeId, new Date()), Follow.class);
+        if (edge.getUpsertedId() != null) {
+            BulkWriteResult counters = adjustCounters(followerId, followeeId, 1);
+            userCache.invalidate(followerId);
+            userCache.invalidate(followeeId);
+            if (counters.getMatchedCount() < 2) {
+                mongoTemplate.remove(byId(Follow.key(followerId, followeeId)), Follow.class);
+                adjustCounters(followerId, followeeId, -1);
+                throw new NoSuchElementException("User not found");
+            }
+        }
+        return counts(followerId, followeeId, true);
+    }
+
+    //idempotent: removing an edge that is not there changes nothing
+    public FollowResponse unfollow(String followerId, String followeeId) {
+        if (mongoTemplate.remove(byId(Follow.key(followerId, followeeId)), Follow.class).getDeletedCount() > 0) {
+            adjustCounters(followerId, followeeId, -1);
+            userCache.invalidate(followerId);
+            userCache.invalidate(followeeId);
+            eventPublisher.publishEvent(new UnfollowedEvent(followerId, followeeId));
+        }
+        return counts(followerId, followeeId, false);
+    }
+
+    static Update edgeInsert(String followerId, String followeeId, Date createdAt) {
+        return new Update().setOnInsert("followerId", followerId).setOnInsert("followeeId", followeeId)
+                .setOnInsert("createdAt", createdAt);
+    }
+
+    //both counters in one round trip; decrements never take a counter below zero
+    private BulkWriteResult adjustCounters(String followerId, String followeeId, int delta) {
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, User.class);
+        Criteria followee = Criteria.where("_id").is(followeeId);
+        Criteria follower = Criteria.where("_id").is(followerId);
+        if (delta < 0) {
+            followee.and("followerCount").gt(0);
+            follower.and("followingCount").gt(0);
+        }
+        bulk.updateOne(new Query(followee), new Update().inc("followerCount", delta));
+        bulk.updateOne(new Query(follower), new Update().inc("followingCount", delta));
+        return bulk.execute();
+    }
+
+    private FollowResponse counts(String followerId, String followeeId, boolean following) {
+        Query query = new Query(Criteria.where("_id").in(followerId, followeeId));
+        query.fields().include("followerCount", "followingCount");
+        long followerCount = 0;
+        long followingCount = 0;
+        List<User> users = mongoTemplate.find(query, User.class);
+        if (users.stream().noneMatch(user -> user.getId().equals(followeeId))) {
+            throw new NoSuchElementException("User not found");
+        }
+        for (User user : users) {
+            if (user.getId().equals(followeeId)) {
+                followerCount = user.getFollowerCount();
+            }
+            if (user.getId().equals(followerId)) {
+                followingCount = user.getFollowingCount();
+            }
+        }
+        return new FollowResponse(followeeId, followerCount, followerId, followingCount, following);
+    }
+
+    public boolean isFollowing(String followerId, String followeeId) {
+        return mongoTemplate.exists(byId(Follow.key(followerId, followeeId)), Follow.class);
+    }
+
+    //which of candidateIds followerId follows, with one primary-key lookup
+    public Set<String> followedAmong(String followerId, Collection<String> candidateIds) {
+        if (followerId == null || candidateIds.isEmpty()) {
+            return Collections.emptySet();
+        }
+        List<String> keys = new ArrayList<>(candidateIds.size());
+        for (String candidateId : candidateIds) {
+            keys.add(Follow.key(followerId, candidateId));
+        }
+        Query query = new Query(Criteria.where("_id").in(keys));
+        query.fields().include("followeeId");
+        Set<String> followed = new HashSet<>();
+        for (Follow follow : mongoTemplate.find(query, Follow.class)) {
+            followed.add(follow.getFolloweeId());
+        }
+        return followed;
+    }
+
+    //one newest-first page of the edges pointing at userId
+    public CursorPage<Follow> getFollowers(String userId, String cursor, Integer limit) {
+        return page(Criteria.where("followeeId").is(userId), cursor, limit);
+    }
+
+    //one newest-first page of the edges starting at userId
+    public CursorPage<Follow> getFollowing(String userId, String cursor, Integer limit) {
+        return page(Criteria.where("followerId").is(userId), cursor, limit);
+    }
+
+    //every follower id of a user; only meant for users below the fan-out limit
+    public List<String> followerIds(String userId) {
+        Query query = new Query(Criteria.where("followeeId").is(userId));
+        query.fields().include("followerId");
+        return mongoTemplate.find(query, Follow.class).stream().map(Follow::getFollowerId).toList();
+    }
+
+    private CursorPage<Follow> page(Criteria filter, String cursor, Integer limit) {
+        return cursorPagination.page(Follow.class, filter, cursor, limit, Follow::getCreatedAt, Follow::getId);
+    }
+
+    private static Query byId(String id) {
+        return new Query(Criteria.where("_id").is(id));
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.Backend.service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Iterator;
+
+// Pure-JDK image helpers shared by the rendition and avatar pipelines.
+final class ImageProcessing {
+
+    //refuse to decode anything larger than this, whatever the file size says
+    private static final long MAX_SOURCE_PIXELS = 60_000_000L;
+    private static final float JPEG_QUALITY = 0.82f;
+
+    private ImageProcessing() {
+    }
+
+    //decode with source subsampling so a 4000px photo is never fully expanded in memory just to make a small copy;
+    //returns null for unreadable or oversized images
+    static BufferedImage decode(Path file, int largestTarget) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(file.toFile())) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > MAX_SOURCE_PIXELS) {
+                    return null;
+                }
+                int subsampling = Math.max(1, Math.min(width, height) / (largestTarget * 2));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    //step down by halves with bilinear filtering, which looks far better than a single large bilinear step
+    static BufferedImage scale(BufferedImage source, int targetWidth, int targetHeight, boolean opaque) {
+        int type = opaque ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB;
+        BufferedImage current = source;
+        int width = source.getWidth();
+        int height = source.getHeight();
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(targetHeight, height / 2);
+            BufferedImage next = new BufferedImage(width, height, type);
+            Graphics2D graphics = next.createGraphics();
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.drawImage(current, 0, 0, width, height, null);
+            graphics.dispose();
+            current = next;
+        } while (width != targetWidth || height != targetHeight);
+        return current;
+    }
+
+    //JPEG for opaque images, PNG when there is transparency to keep
+    static byte[] encode(BufferedImage image, boolean opaque) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        if (!opaque) {
+            ImageIO.write(image, "png", out);
+            return out.toByteArray();
+        }
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(out)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(JPEG_QUALITY);
+            writer.setOutput(output);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    static String contentType(boolean opaque) {
+        return opaque ? "image/jpeg" : "image/png";
+    }
+}
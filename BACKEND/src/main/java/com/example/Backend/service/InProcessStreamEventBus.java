@@ -0,0 +1,35 @@
+package com.example.Backend.service;
+
+import com.example.Backend.event.StreamEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+// Single-node event bus: listeners are called on the publishing thread, so they must not block.
+@Component
+public class InProcessStreamEventBus implements StreamEventBus {
+
+    private static final Logger log = LoggerFactory.getLogger(InProcessStreamEventBus.class);
+
+    private final List<Consumer<StreamEvent>> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(StreamEvent event) {
+        for (Consumer<StreamEvent> listener : listeners) {
+            try {
+                listener.accept(event);
+            } catch (RuntimeException e) {
+                log.warn("Stream listener failed for {}: {}", event.name(), e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<StreamEvent> listener) {
+        listeners.add(listener);
+    }
+}
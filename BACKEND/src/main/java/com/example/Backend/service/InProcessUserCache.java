@@ -0,0 +1,184 @@
+package com.example.Backend.service;
+
+import com.example.Backend.dto.UserSummary;
+import com.example.Backend.model.User;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+// Single-node user cache: two LRU maps bounded by the estimated size of what they hold rather than by entry count,
+// so a few users with long bios cannot crowd the heap. Entries also expire after a TTL, which bounds how stale a
+// profile changed through another node can get.
+@Component
+public class InProcessUserCache implements UserCache {
+
+    private final Region<User> profiles;
+    private final Region<UserSummary> summaries;
+
+    public InProcessUserCache(MeterRegistry meterRegistry,
+                              @Value("${users.cache.profiles.max-size:16MB}") DataSize maxProfileSize,
+                              @Value("${users.cache.summaries.max-size:8MB}") DataSize maxSummarySize,
+                              @Value("${users.cache.ttl:10m}") Duration ttl) {
+        this.profiles = new Region<>("profiles", maxProfileSize.toBytes(), ttl, InProcessUserCache::weigh, meterRegistry);
+        this.summaries = new Region<>("summaries", maxSummarySize.toBytes(), ttl, InProcessUserCache::weigh, meterRegistry);
+    }
+
+    @Override
+    public Map<String, User> getProfiles(Collection<String> userIds, Function<Collection<String>, Map<String, User>> loader) {
+        return profiles.getAll(userIds, loader);
+    }
+
+    @Override
+    public Map<String, UserSummary> getSummaries(Collection<String> userIds,
+                                                 Function<Collection<String>, Map<String, UserSummary>> loader) {
+        return summaries.getAll(userIds, loader);
+    }
+
+    @Override
+    public void invalidate(String userId) {
+        profiles.remove(userId);
+        summaries.remove(userId);
+    }
+
+    //rough heap footprint: two bytes per character plus a fixed allowance for the objects around them
+    private static long weigh(User user) {
+        long weight = 256 + chars(user.getId()) + chars(user.getName()) + chars(user.getEmail())
+                + chars(user.getProfileImage()) + chars(user.getAvatarId()) + chars(user.getBio()) + chars(user.getLocation());
+        if (user.getSkills() != null) {
+            for (String skill : user.getSkills()) {
+                weight += 40 + chars(skill);
+            }
+        }
+        return weight;
+    }
+
+    private static long weigh(UserSummary summary) {
+        return 96 + chars(summary.getId()) + chars(summary.getName()) + chars(summary.getAvatarUrl());
+    }
+
+    private static long chars(String value) {
+        return value == null ? 0 : 2L * value.length();
+    }
+
+    private static final class Region<V> {
+
+        private final long maxWeight;
+        private final long ttlMillis;
+        private final ToLongFunction<V> weigher;
+        private final LinkedHashMap<String, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+        private long weight;
+        //invalidations seen while loads are running, so a load that started before one cannot put the old value back
+        private final Map<String, Long> invalidated = new HashMap<>();
+        private long invalidations;
+        private int loadsInFlight;
+        private final Counter hits;
+        private final Counter misses;
+        private final Counter evictions;
+
+        Region(String name, long maxWeight, Duration ttl, ToLongFunction<V> weigher, MeterRegistry meterRegistry) {
+            this.maxWeight = maxWeight;
+            this.ttlMillis = ttl.toMillis();
+            this.weigher = weigher;
+            this.hits = meterRegistry.counter("users.cache.hits", "cache", name);
+            this.misses = meterRegistry.counter("users.cache.misses", "cache", name);
+            this.evictions = meterRegistry.counter("users.cache.evictions", "cache", name);
+            Gauge.builder("users.cache.size", this, Region::size).tag("cache", name).register(meterRegistry);
+            Gauge.builder("users.cache.weight", this, Region::weight).tag("cache", name).register(meterRegistry);
+        }
+
+        Map<String, V> getAll(Collection<String> keys, Function<Collection<String>, Map<String, V>> loader) {
+            Map<String, V> found = new HashMap<>();
+            Set<String> missing = new HashSet<>();
+            long now = System.currentTimeMillis();
+            long loadStart;
+            synchronized (this) {
+                for (String key : keys) {
+                    Entry<V> entry = entries.get(key);
+                    if (entry != null && entry.expiresAt() > now) {
+                        found.put(key, entry.value());
+                    } else if (key != null) {
+                        missing.add(key);
+                    }
+                }
+                if (missing.isEmpty()) {
+                    hits.increment(found.size());
+                    return found;
+                }
+                loadStart = invalidations;
+                loadsInFlight++;
+            }
+            hits.increment(found.size());
+            misses.increment(missing.size());
+
+            //loaded outside the lock, so a slow query does not hold up other lookups
+            Map<String, V> loaded = Map.of();
+            try {
+                loaded = loader.apply(missing);
+                found.putAll(loaded);
+            } finally {
+                synchronized (this) {
+                    long expiresAt = System.currentTimeMillis() + ttlMillis;
+                    for (Map.Entry<String, V> value : loaded.entrySet()) {
+                        if (invalidated.getOrDefault(value.getKey(), 0L) <= loadStart) {
+                            put(value.getKey(), new Entry<>(value.getValue(), weigher.applyAsLong(value.getValue()), expiresAt));
+                        }
+                    }
+                    if (--loadsInFlight == 0) {
+                        invalidated.clear();
+                    }
+                }
+            }
+            return found;
+        }
+
+        synchronized void remove(String key) {
+            Entry<V> removed = entries.remove(key);
+            if (removed != null) {
+                weight -= removed.weight();
+            }
+            if (loadsInFlight > 0) {
+                invalidated.put(key, ++invalidations);
+            }
+        }
+
+        private void put(String key, Entry<V> entry) {
+            if (entry.weight() > maxWeight) {
+                return;
+            }
+            Entry<V> previous = entries.put(key, entry);
+            weight += entry.weight() - (previous == null ? 0 : previous.weight());
+            //least recently used first
+            Iterator<Entry<V>> eldest = entries.values().iterator();
+            while (weight > maxWeight && eldest.hasNext()) {
+                weight -= eldest.next().weight();
+                eldest.remove();
+                evictions.increment();
+            }
+        }
+
+        synchronized int size() {
+            return entries.size();
+        }
+
+        synchronized long weight() {
+            return weight;
+        }
+    }
+
+    private record Entry<V>(V value, long weight, long expiresAt) {
+    }
+}
@@ -1,15 +1,26 @@
 package com.example.Backend.service;
 
+import com.example.Backend.dto.CommentsResponse;
+import com.example.Backend.dto.CursorPage;
+import com.example.Backend.dto.LikeResponse;
+import com.example.Backend.enums.FeedItemType;
+import com.example.Backend.event.ContentCreatedEvent;
+import com.example.Backend.event.ContentDeletedEvent;
 import com.example.Backend.model.Comment;
 import com.example.Backend.model.LearningPlan;
 import com.example.Backend.model.Like;
 import com.example.Backend.repository.LearningPlanRepository;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 
 @Service
@@ -18,6 +29,21 @@ public class LearningPlanService {
     @Autowired
     private LearningPlanRepository learningPlanRepository;
 
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private CursorPagination cursorPagination;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private LikeService likeService;
+
+    @Autowired
+    private CommentService commentService;
+
     // Create a new learning plan
     public LearningPlan createLearningPlan(LearningPlan plan) {
         if (plan.getUserId() == null || plan.getUserId().isEmpty()) {
@@ -29,8 +55,12 @@ public class LearningPlanService {
         plan.setCreatedAt(new Date());
         plan.setUpdatedAt(new Date());
         plan.setLikes(new ArrayList<>());
+        plan.setLikeCount(0);
         plan.setComments(new ArrayList<>());
-        return learningPlanRepository.save(plan);
+        plan.setCommentCount(0);
+        LearningPlan saved = learningPlanRepository.save(plan);
+        eventPublisher.publishEvent(new ContentCreatedEvent(FeedItemType.LEARNING_PLAN, saved.getId(), saved.getUserId(), saved.getCreatedAt()));
+        return saved;
     }
 
     // Get all learning plans
@@ -38,6 +68,12 @@ public class LearningPlanService {
         return learningPlanRepository.findAllByOrderByCreatedAtDesc();
     }
 
+    // Get one page of learning plans, newest first
+    public CursorPage<LearningPlan> getLearningPlansPage(String cursor, Integer limit) {
+        return cursorPagination.page(LearningPlan.class, null, cursor, limit,
+                LearningPlan::getCreatedAt, LearningPlan::getId);
+    }
+
     // Get a learning plan by ID
     public LearningPlan getLearningPlanById(String id) {
         return learningPlanRepository.findById(id)
@@ -49,88 +85,86 @@ public class LearningPlanService {
         return learningPlanRepository.findByUserId(userId);
     }
 
-    // Update learning plan
+    // Get one page of a user's plans, newest first
+    public CursorPage<LearningPlan> getLearningPlansPageByUserId(String userId, String cursor, Integer limit) {
+        return cursorPagination.page(LearningPlan.class, Criteria.where("userId").is(userId), cursor, limit,
+                LearningPlan::getCreatedAt, LearningPlan::getId);
+    }
+
+    // Update learning plan, writing only the editable fields so likes and comments are left as they are
     public LearningPlan updateLearningPlan(String id, LearningPlan planDetails) {
-        LearningPlan plan = getLearningPlanById(id);
-        plan.setTitle(planDetails.getTitle());
-        plan.setDescription(planDetails.getDescription());
-        plan.setTopics(planDetails.getTopics());
-        plan.setResources(planDetails.getResources());
-        plan.setUpdatedAt(new Date());
-        return learningPlanRepository.save(plan);
+        Update update = new Update()
+                .set("title", planDetails.getTitle())
+                .set("description", planDetails.getDescription())
+                .set("topics", planDetails.getTopics())
+                .set("resources", planDetails.getResources())
+                .set("updatedAt", new Date());
+        LearningPlan plan = mongoTemplate.findAndModify(new Query(Criteria.where("_id").is(id)), update,
+                FindAndModifyOptions.options().returnNew(true), LearningPlan.class);
+        if (plan == null) {
+            throw new NoSuchElementException("Learning plan not found");
+        }
+        return plan;
     }
 
     // Delete learning plan
     public void deleteLearningPlan(String id) {
         LearningPlan plan = getLearningPlanById(id);
         learningPlanRepository.delete(plan);
+        eventPublisher.publishEvent(new ContentDeletedEvent(FeedItemType.LEARNING_PLAN, id, plan.getUserId()));
     }
 
     // Add comment
-    public LearningPlan addComment(String planId, Comment comment) {
-        LearningPlan plan = getLearningPlanById(planId);
-        if (plan.getComments() == null) {
-            plan.setComments(new ArrayList<>());
-        }
-        if (comment.getUserName() == null || comment.getUserName().isEmpty()) {
-            comment.setUserName("Unknown User");
+    public CommentsResponse addComment(String planId, Comment comment) {
+        CommentService.CommentChange change = commentService.addComment(FeedItemType.LEARNING_PLAN, planId, comment);
+        if (change == null) {
+            throw new NoSuchElementException("Learning plan not found");
         }
-        comment.setId(UUID.randomUUID().toString());
-        comment.setCreatedAt(new Date());
-        comment.setUpdatedAt(new Date());
-        plan.getComments().add(comment);
-        return learningPlanRepository.save(plan);
-        
+        return change.response();
+    }
+
+    // Get one page of comments, newest first
+    public CursorPage<Comment> getComments(String planId, String cursor, Integer limit) {
+        return commentService.getComments(FeedItemType.LEARNING_PLAN, planId, cursor, limit);
     }
 
     // Update comment
-    public LearningPlan updateComment(String planId, String commentId, Comment commentDetails) {
-        LearningPlan plan = getLearningPlanById(planId);
-        plan.getComments().stream()
-                .filter(c -> c.getId().equals(commentId))
-                .findFirst()
-                .ifPresent(c -> {
-                    c.setContent(commentDetails.getContent());
-                    c.setUpdatedAt(new Date());
-                });
-        return learningPlanRepository.save(plan);
+    public CommentsResponse updateComment(String planId, String commentId, Comment commentDetails) {
+        CommentService.CommentChange change = commentService.updateComment(FeedItemType.LEARNING_PLAN, planId, commentId,
+                commentDetails.getContent());
+        if (change == null) {
+            throw new NoSuchElementException("Learning plan not found");
+        }
+        return change.response();
     }
 
     // Delete comment
-    public LearningPlan deleteComment(String planId, String commentId, String userId) {
-        LearningPlan plan = getLearningPlanById(planId);
-        boolean isOwner = plan.getUserId().equals(userId);
-        plan.setComments(plan.getComments().stream()
-                .filter(c -> !(c.getId().equals(commentId) && (c.getUserId().equals(userId) || isOwner)))
-                .collect(Collectors.toList()));
-        return learningPlanRepository.save(plan);
-
+    public CommentsResponse deleteComment(String planId, String commentId, String userId) {
+        CommentService.CommentChange change = commentService.deleteComment(FeedItemType.LEARNING_PLAN, planId, commentId, userId);
+        if (change == null) {
+            throw new NoSuchElementException("Learning plan not found");
+        }
+        return change.response();
     }
 
     // Add like
-    public LearningPlan addLike(String planId, Like like) {
-        LearningPlan plan = getLearningPlanById(planId);
-        if (plan.getLikes() == null) {
-            plan.setLikes(new ArrayList<>());
+    public LikeResponse addLike(String planId, Like like) {
+        if (like.getUserId() == null || like.getUserId().isEmpty()) {
+            throw new IllegalArgumentException("User ID is required");
         }
-        boolean alreadyLiked = plan.getLikes().stream()
-                .anyMatch(l -> l.getUserId().equals(like.getUserId()));
-
-        if (!alreadyLiked) {
-            like.setCreatedAt(new Date());
-            plan.getLikes().add(like);
-            return learningPlanRepository.save(plan);
+        LikeService.LikeChange change = likeService.like(FeedItemType.LEARNING_PLAN, planId, like.getUserId());
+        if (change == null) {
+            throw new NoSuchElementException("Learning plan not found");
         }
-        return plan;
-
+        return new LikeResponse(planId, change.likeCount(), true);
     }
 
     // Remove like
-    public LearningPlan removeLike(String planId, String userId) {
-        LearningPlan plan = getLearningPlanById(planId);
-        plan.setLikes(plan.getLikes().stream()
-                .filter(like -> !like.getUserId().equals(userId))
-                .collect(Collectors.toList()));
-        return learningPlanRepository.save(plan);
+    public LikeResponse removeLike(String planId, String userId) {
+        LikeService.LikeChange change = likeService.unlike(FeedItemType.LEARNING_PLAN, planId, userId);
+        if (change == null) {
+            throw new NoSuchElementException("Learning plan not found");
+        }
+        return new LikeResponse(planId, change.likeCount(), false);
     }
 }
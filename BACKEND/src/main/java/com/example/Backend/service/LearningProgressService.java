@@ -1,26 +1,50 @@
 package com.example.Backend.service;
 
+import com.example.Backend.dto.CommentsResponse;
+import com.example.Backend.dto.CursorPage;
+import com.example.Backend.dto.LikeResponse;
+import com.example.Backend.enums.FeedItemType;
+import com.example.Backend.event.ContentCreatedEvent;
+import com.example.Backend.event.ContentDeletedEvent;
 import com.example.Backend.model.Comment;
 import com.example.Backend.model.LearningProgress;
 import com.example.Backend.model.Like;
 import com.example.Backend.repository.LearningProgressRepository;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 @Service
 public class LearningProgressService {
 
 
     private final LearningProgressRepository learningProgressRepository;
+    private final MongoTemplate mongoTemplate;
     private final NotificationService notificationService;
-
-    public LearningProgressService(LearningProgressRepository learningProgressRepository, NotificationService notificationService) {
+    private final CursorPagination cursorPagination;
+    private final ApplicationEventPublisher eventPublisher;
+    private final LikeService likeService;
+    private final CommentService commentService;
+
+    public LearningProgressService(LearningProgressRepository learningProgressRepository, MongoTemplate mongoTemplate,
+                                   NotificationService notificationService,
+                                   CursorPagination cursorPagination, ApplicationEventPublisher eventPublisher,
+                                   LikeService likeService, CommentService commentService) {
         this.learningProgressRepository = learningProgressRepository;
+        this.mongoTemplate = mongoTemplate;
         this.notificationService = notificationService;
+        this.cursorPagination = cursorPagination;
+        this.eventPublisher = eventPublisher;
+        this.likeService = likeService;
+        this.commentService = commentService;
     }
 
     //create a new learning progress entry
@@ -62,8 +86,12 @@ public class LearningProgressService {
         progress.setCreatedAt(new Date());
         progress.setUpdatedAt(new Date());
         progress.setLikes(new ArrayList<>());
+        progress.setLikeCount(0);
         progress.setComments(new ArrayList<>());
-        return learningProgressRepository.save(progress);
+        progress.setCommentCount(0);
+        LearningProgress saved = learningProgressRepository.save(progress);
+        eventPublisher.publishEvent(new ContentCreatedEvent(FeedItemType.LEARNING_PROGRESS, saved.getId(), saved.getUserId(), saved.getCreatedAt()));
+        return saved;
     }
 
     //get all learning progress entries
@@ -71,6 +99,12 @@ public class LearningProgressService {
         return learningProgressRepository.findAllByOrderByCreatedAtDesc();
     }
 
+    //get one page of learning progress entries, newest first
+    public CursorPage<LearningProgress> getLearningProgressPage(String cursor, Integer limit) {
+        return cursorPagination.page(LearningProgress.class, null, cursor, limit,
+                LearningProgress::getCreatedAt, LearningProgress::getId);
+    }
+
     //get a learning progress entry by ID
     public LearningProgress getLearningProgressById(String id) {
         return learningProgressRepository.findById(id)
@@ -82,98 +116,100 @@ public class LearningProgressService {
         return learningProgressRepository.findByUserId(userId);
     }
 
-    //update learning progress entry
+    //get one page of a user's entries, newest first
+    public CursorPage<LearningProgress> getLearningProgressPageByUserId(String userId, String cursor, Integer limit) {
+        return cursorPagination.page(LearningProgress.class, Criteria.where("userId").is(userId), cursor, limit,
+                LearningProgress::getCreatedAt, LearningProgress::getId);
+    }
+
+    //update learning progress entry, writing only the editable fields so likes and comments are left as they are
     public LearningProgress updateLearningProgress(String id, LearningProgress progressDetails) {
-        LearningProgress progress = getLearningProgressById(id);
-        progress.setTitle(progressDetails.getTitle());
-        progress.setDescription(progressDetails.getDescription());
-        progress.setTemplateType(progressDetails.getTemplateType());
-        progress.setStatus(progressDetails.getStatus());
-        progress.setTutorialName(progressDetails.getTutorialName());
-        progress.setProjectName(progressDetails.getProjectName());
-        progress.setSkillsLearned(progressDetails.getSkillsLearned());
-        progress.setChallenges(progressDetails.getChallenges());
-        progress.setNextSteps(progressDetails.getNextSteps());
-        progress.setUpdatedAt(new Date());
-        return learningProgressRepository.save(progress);
+        Update update = new Update()
+                .set("title", progressDetails.getTitle())
+                .set("description", progressDetails.getDescription())
+                .set("templateType", progressDetails.getTemplateType())
+                .set("status", progressDetails.getStatus())
+                .set("tutorialName", progressDetails.getTutorialName())
+                .set("projectName", progressDetails.getProjectName())
+                .set("skillsLearned", progressDetails.getSkillsLearned())
+                .set("challenges", progressDetails.getChallenges())
+                .set("nextSteps", progressDetails.getNextSteps())
+                .set("updatedAt", new Date());
+        LearningProgress progress = mongoTemplate.findAndModify(new Query(Criteria.where("_id").is(id)), update,
+                FindAndModifyOptions.options().returnNew(true), LearningProgress.class);
+        if (progress == null) {
+            throw new NoSuchElementException("Learning progress not found");
+        }
+        return progress;
     }
 
     //delete learning progress entry
     public void deleteLearningProgress(String id) {
         LearningProgress progress = getLearningProgressById(id);
         learningProgressRepository.delete(progress);
+        eventPublisher.publishEvent(new ContentDeletedEvent(FeedItemType.LEARNING_PROGRESS, id, progress.getUserId()));
     }
 
     //add comment
-    public LearningProgress addComment(String entryId, Comment comment) {
-        LearningProgress progress = getLearningProgressById(entryId);
-        if (progress.getComments() == null) {
-            progress.setComments(new ArrayList<>());
+    public CommentsResponse addComment(String entryId, Comment comment) {
+        CommentService.CommentChange change = commentService.addComment(FeedItemType.LEARNING_PROGRESS, entryId, comment);
+        if (change == null) {
+            throw new NoSuchElementException("Learning progress not found");
         }
-        if (comment.getUserName() == null || comment.getUserName().isEmpty()) {
-            comment.setUserName("Unknown User");
-        }
-        comment.setId(UUID.randomUUID().toString());
-        comment.setCreatedAt(new Date());
-        comment.setUpdatedAt(new Date());
-        progress.getComments().add(comment);
-        if (!progress.getUserId().equals(comment.getUserId())) {
-            notificationService.createCommentNotification(entryId, progress.getUserId(), comment.getUserId(),
+        if (!change.ownerId().equals(comment.getUserId())) {
+            notificationService.createCommentNotification(entryId, change.ownerId(), comment.getUserId(),
                     comment.getContent());
         }
-        return learningProgressRepository.save(progress);
+        return change.response();
+    }
+
+    //get one page of comments, newest first
+    public CursorPage<Comment> getComments(String entryId, String cursor, Integer limit) {
+        return commentService.getComments(FeedItemType.LEARNING_PROGRESS, entryId, cursor, limit);
     }
 
     //update comment
-    public LearningProgress updateComment(String entryId, String commentId, Comment commentDetails) {
-        LearningProgress progress = getLearningProgressById(entryId);
-        progress.getComments().stream()
-                .filter(c -> c.getId().equals(commentId))
-                .findFirst()
-                .ifPresent(c -> {
-                    c.setContent(commentDetails.getContent());
-                    c.setUpdatedAt(new Date());
-                });
-        return learningProgressRepository.save(progress);
+    public CommentsResponse updateComment(String entryId, String commentId, Comment commentDetails) {
+        CommentService.CommentChange change = commentService.updateComment(FeedItemType.LEARNING_PROGRESS, entryId,
+                commentId, commentDetails.getContent());
+        if (change == null) {
+            throw new NoSuchElementException("Learning progress not found");
+        }
+        return change.response();
     }
 
     //delete comment
-    public LearningProgress deleteComment(String entryId, String commentId, String userId) {
-        LearningProgress progress = getLearningProgressById(entryId);
-        boolean isOwner = progress.getUserId().equals(userId);
-        progress.setComments(progress.getComments().stream()
-                .filter(c -> !(c.getId().equals(commentId) && (c.getUserId().equals(userId) || isOwner)))
-                .collect(Collectors.toList()));
-        return learningProgressRepository.save(progress);
+    public CommentsResponse deleteComment(String entryId, String commentId, String userId) {
+        CommentService.CommentChange change = commentService.deleteComment(FeedItemType.LEARNING_PROGRESS, entryId,
+                commentId, userId);
+        if (change == null) {
+            throw new NoSuchElementException("Learning progress not found");
+        }
+        return change.response();
     }
 
     //add like
-    public LearningProgress addLike(String entryId, Like like) {
-        LearningProgress progress = getLearningProgressById(entryId);
-        if (progress.getLikes() == null) {
-            progress.setLikes(new ArrayList<>());
+    public LikeResponse addLike(String entryId, Like like) {
+        if (like.getUserId() == null || like.getUserId().isEmpty()) {
+            throw new IllegalArgumentException("User ID is required");
         }
-        boolean alreadyLiked = progress.getLikes().stream()
-                .anyMatch(l -> l.getUserId().equals(like.getUserId()));
-
-        if (!alreadyLiked) {
-            like.setCreatedAt(new Date());
-            progress.getLikes().add(like);
-            // Trigger notification if liker is not the post owner
-            if (!progress.getUserId().equals(like.getUserId())) {
-                notificationService.createLikeNotification(entryId, progress.getUserId(), like.getUserId());
-            }
-            return learningProgressRepository.save(progress);
+        LikeService.LikeChange change = likeService.like(FeedItemType.LEARNING_PROGRESS, entryId, like.getUserId());
+        if (change == null) {
+            throw new NoSuchElementException("Learning progress not found");
         }
-        return progress;
+        // Trigger notification if liker is not the post owner
+        if (change.changed() && !change.ownerId().equals(like.getUserId())) {
+            notificationService.createLikeNotification(entryId, change.ownerId(), like.getUserId());
+        }
+        return new LikeResponse(entryId, change.likeCount(), true);
     }
 
     //remove like
-    public LearningProgress removeLike(String entryId, String userId) {
-        LearningProgress progress = getLearningProgressById(entryId);
-        progress.setLikes(progress.getLikes().stream()
-                .filter(like -> !like.getUserId().equals(userId))
-                .collect(Collectors.toList()));
-        return learningProgressRepository.save(progress);
+    public LikeResponse removeLike(String entryId, String userId) {
+        LikeService.LikeChange change = likeService.unlike(FeedItemType.LEARNING_PROGRESS, entryId, userId);
+        if (change == null) {
+            throw new NoSuchElementException("Learning progress not found");
+        }
+        return new LikeResponse(entryId, change.likeCount(), false);
     }
 }
@@ -0,0 +1,467 @@
+package com.example.Backend.service;
+
+import com.example.Backend.enums.FeedItemType;
+import com.example.Backend.model.FeedContent;
+import com.example.Backend.model.LikeEdge;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Write-behind like counters. A like or unlike is recorded in memory (a striped LongAdder per item plus the latest
+// pending state of each user/item edge) and appended to a local journal; a scheduled flush sends everything pending to
+// Mongo as one unordered bulk write per content type. Counts are read as the persisted value plus the pending delta.
+//
+// The flushed updates are the same conditional updates LikeService applies directly ($push only if the user has not
+// liked yet, $pull only if they have), so applying an edge twice is harmless. That is what makes the journal safe to
+// replay after a crash without knowing which of its entries had already reached the database.
+@Component
+public class LikeCounterEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(LikeCounterEngine.class);
+
+    //persisted counts are cached for hot items, stored edge states for the users acting on them; either cache is
+    //simply dropped when it grows past its limit
+    private static final int MAX_CACHED_ITEMS = 10_000;
+    private static final int MAX_CACHED_EDGES = 100_000;
+    private static final String JOURNAL_PREFIX = "likes-";
+    private static final String JOURNAL_SUFFIX = ".journal";
+
+    private final MongoTemplate mongoTemplate;
+    private final boolean journalEnabled;
+    private final boolean journalSync;
+    private final Path journalDir;
+    private final AtomicLong journalSequence = new AtomicLong(System.currentTimeMillis());
+
+    //record() holds the read lock so any number of requests proceed together; flush() takes the write lock only to swap
+    //generations, which guarantees every edge and its journal line end up in the same generation
+    private final ReentrantReadWriteLock generationLock = new ReentrantReadWriteLock();
+    private final Object journalLock = new Object();
+    private final Object flushLock = new Object();
+    private final Map<ItemKey, ItemState> persisted = new ConcurrentHashMap<>();
+    private final Map<Edge, Boolean> storedEdges = new ConcurrentHashMap<>();
+    private final AtomicLong flushes = new AtomicLong();
+    private volatile Generation current;
+    private volatile Generation flushing;
+    private FileChannel journal;
+
+    public LikeCounterEngine(MongoTemplate mongoTemplate,
+                             @Value("${engagement.journal.enabled:true}") boolean journalEnabled,
+                             @Value("${engagement.journal.sync:false}") boolean journalSync,
+                             @Value("${engagement.journal.dir:engagement-journal}") String journalDir) throws IOException {
+        this.mongoTemplate = mongoTemplate;
+        this.journalEnabled = journalEnabled;
+        this.journalSync = journalSync;
+        this.journalDir = Paths.get(journalDir).toAbsolutePath().normalize();
+        this.current = new Generation();
+        if (journalEnabled) {
+            Files.createDirectories(this.journalDir);
+            recover();
+            openJournal();
+        }
+    }
+
+    //record a like or unlike; returns null when the item does not exist
+    public LikeService.LikeChange record(FeedItemType type, String itemId, String userId, boolean like) throws IOException {
+        ItemKey item = new ItemKey(type, itemId);
+        ItemState state = persistedState(item);
+        if (state == null) {
+            return null;
+        }
+
+        Edge edge = new Edge(item, userId);
+        Transition transition;
+        do {
+            //the stored edge only matters when nothing is pending
+            long flushed = flushes.get();
+            Boolean stored = pendingLike(type, itemId, userId) == null ? storedLike(edge) : null;
+            transition = transition(edge, like, stored, flushed);
+        } while (transition == Transition.UNKNOWN);
+        return new LikeService.LikeChange(state.ownerId(), count(item, state), transition == Transition.CHANGED);
+    }
+
+    //compare and set the pending state of an edge: a repeated like or unlike is a no-op, and of two concurrent identical
+    //requests only one changes the count. UNKNOWN when the stored state is needed but was not looked up, or was looked
+    //up before a flush that completed in between and may have changed it
+    private Transition transition(Edge edge, boolean like, Boolean stored, long flushed) throws IOException {
+        boolean[] changed = new boolean[1];
+        boolean[] unknown = new boolean[1];
+        generationLock.readLock().lock();
+        try {
+            current.edges.compute(edge, (key, pending) -> {
+                Boolean before = pending;
+                Generation inFlight = flushing;
+                if (before == null && inFlight != null) {
+                    before = inFlight.edges.get(key);
+                }
+                if (before == null && flushes.get() == flushed) {
+                    before = stored;
+                }
+                if (before == null) {
+                    unknown[0] = true;
+                    return pending;
+                }
+                if (before == like) {
+                    return pending;
+                }
+                //journal first: an operation that could not be made durable is rejected rather than held only in memory
+                try {
+                    appendJournal(like, key.item(), key.userId());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                changed[0] = true;
+                return like;
+            });
+            if (changed[0]) {
+                current.deltas.computeIfAbsent(edge.item(), key -> new LongAdder()).add(like ? 1 : -1);
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            generationLock.readLock().unlock();
+        }
+        return unknown[0] ? Transition.UNKNOWN : changed[0] ? Transition.CHANGED : Transition.UNCHANGED;
+    }
+
+    //write every pending edge to Mongo; safe to call at any time, runs one flush at a time
+    @Scheduled(fixedDelayString = "${engagement.flush-interval-ms:500}", initialDelayString = "${engagement.flush-interval-ms:500}")
+    public void flush() {
+        synchronized (flushLock) {
+            Generation batch;
+            generationLock.writeLock().lock();
+            try {
+                if (current.edges.isEmpty()) {
+                    return;
+                }
+                batch = current;
+                flushing = batch;
+                current = new Generation();
+                rotateJournal(batch);
+            } finally {
+                generationLock.writeLock().unlock();
+            }
+
+            try {
+                write(batch);
+                remember(batch.edges);
+                refreshPersisted(batch);
+                deleteJournals(batch);
+            } catch (RuntimeException e) {
+                log.warn("Like flush failed, {} edges will be retried: {}", batch.edges.size(), e.getMessage());
+                //part of the batch may have been written, so what is stored for these edges is no longer known
+                batch.edges.keySet().forEach(storedEdges::remove);
+                requeue(batch);
+            } finally {
+                flushes.incrementAndGet();
+                flushing = null;
+            }
+        }
+    }
+
+    private void write(Generation batch) {
+        Map<FeedItemType, BulkOperations> bulks = new EnumMap<>(FeedItemType.class);
+        BulkOperations likeEdges = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, LikeEdge.class);
+        Date now = new Date();
+        for (Map.Entry<Edge, Boolean> entry : batch.edges.entrySet()) {
+            Edge edge = entry.getKey();
+            BulkOperations bulk = bulks.computeIfAbsent(edge.item().type(), type ->
+                    mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, TimelineService.ITEM_CLASSES.get(type)));
+            Query edgeQuery = new Query(Criteria.where("_id").is(LikeEdge.key(edge.userId(), edge.item().id())));
+            if (entry.getValue()) {
+                bulk.updateOne(new Query(Criteria.where("_id").is(edge.item().id()).and("likes.userId").ne(edge.userId())),
+                        LikeService.likeUpdate(edge.userId(), now));
+                likeEdges.upsert(edgeQuery, LikeService.edgeInsert(edge.item().type(), edge.item().id(), edge.userId(), now));
+            } else {
+                bulk.updateOne(new Query(Criteria.where("_id").is(edge.item().id()).and("likes.userId").is(edge.userId())),
+                        LikeService.unlikeUpdate(edge.userId()));
+                likeEdges.remove(edgeQuery);
+            }
+        }
+        bulks.values().forEach(BulkOperations::execute);
+        likeEdges.execute();
+    }
+
+    //reload the counters of flushed items that are cached, one query per type
+    private void refreshPersisted(Generation batch) {
+        Map<FeedItemType, List<String>> cachedIds = new EnumMap<>(FeedItemType.class);
+        for (ItemKey item : batch.deltas.keySet()) {
+            if (persisted.containsKey(item)) {
+                cachedIds.computeIfAbsent(item.type(), type -> new ArrayList<>()).add(item.id());
+            }
+        }
+        for (Map.Entry<FeedItemType, List<String>> ids : cachedIds.entrySet()) {
+            Query query = new Query(Criteria.where("_id").in(ids.getValue()));
+            query.fields().include("userId", "likeCount");
+            for (FeedContent content : mongoTemplate.find(query, TimelineService.ITEM_CLASSES.get(ids.getKey()))) {
+                persisted.put(new ItemKey(ids.getKey(), content.getId()), ItemState.of(content));
+            }
+        }
+    }
+
+    //put a failed batch back underneath anything recorded since, so newer operations still win
+    private void requeue(Generation batch) {
+        generationLock.writeLock().lock();
+        try {
+            for (Map.Entry<Edge, Boolean> entry : batch.edges.entrySet()) {
+                current.edges.putIfAbsent(entry.getKey(), entry.getValue());
+            }
+            for (Map.Entry<ItemKey, LongAdder> delta : batch.deltas.entrySet()) {
+                current.deltas.computeIfAbsent(delta.getKey(), key -> new LongAdder()).add(delta.getValue().sum());
+            }
+            current.journals.addAll(batch.journals);
+        } finally {
+            generationLock.writeLock().unlock();
+        }
+    }
+
+    //the not yet flushed state of a user's like on an item, or null when nothing is pending
+    public Boolean pendingLike(FeedItemType type, String itemId, String userId) {
+        Edge edge = new Edge(new ItemKey(type, itemId), userId);
+        Boolean pending = current.edges.get(edge);
+        Generation inFlight = flushing;
+        if (pending == null && inFlight != null) {
+            pending = inFlight.edges.get(edge);
+        }
+        return pending;
+    }
+
+    //how far an item's stored likeCount is behind the operations recorded so far
+    public long pendingDelta(FeedItemType type, String itemId) {
+        ItemKey item = new ItemKey(type, itemId);
+        return pendingDelta(current, item) + pendingDelta(flushing, item);
+    }
+
+    //whether the user's like is stored, from the cache when known. Likes from before the edge backfill exist only in
+    //the item's likes array, so a missing edge is checked there too; every later change goes through a flush, which
+    //keeps the cached state current
+    private boolean storedLike(Edge edge) {
+        Boolean known = storedEdges.get(edge);
+        if (known != null) {
+            return known;
+        }
+        boolean liked = mongoTemplate.exists(
+                new Query(Criteria.where("_id").is(LikeEdge.key(edge.userId(), edge.item().id()))), LikeEdge.class)
+                || mongoTemplate.exists(
+                        new Query(Criteria.where("_id").is(edge.item().id()).and("likes.userId").is(edge.userId())),
+                        TimelineService.ITEM_CLASSES.get(edge.item().type()));
+        remember(Map.of(edge, liked));
+        return liked;
+    }
+
+    private void remember(Map<Edge, Boolean> edges) {
+        if (storedEdges.size() + edges.size() > MAX_CACHED_EDGES) {
+            storedEdges.clear();
+        }
+        storedEdges.putAll(edges);
+    }
+
+    private long count(ItemKey item, ItemState state) {
+        long count = state.likeCount() + pendingDelta(current, item) + pendingDelta(flushing, item);
+        return Math.max(0, count);
+    }
+
+    private static long pendingDelta(Generation generation, ItemKey item) {
+        if (generation == null) {
+            return 0;
+        }
+        LongAdder delta = generation.deltas.get(item);
+        return delta == null ? 0 : delta.sum();
+    }
+
+    private ItemState persistedState(ItemKey item) {
+        ItemState state = persisted.get(item);
+        if (state != null) {
+            return state;
+        }
+        Query query = new Query(Criteria.where("_id").is(item.id()));
+        query.fields().include("userId", "likeCount");
+        FeedContent content = LikeService.withLikeCount(mongoTemplate, item.type(),
+                mongoTemplate.findOne(query, TimelineService.ITEM_CLASSES.get(item.type())));
+        if (content == null) {
+            return null;
+        }
+        if (persisted.size() >= MAX_CACHED_ITEMS) {
+            persisted.clear();
+        }
+        state = ItemState.of(content);
+        persisted.put(item, state);
+        return state;
+    }
+
+    private void appendJournal(boolean like, ItemKey item, String userId) throws IOException {
+        if (!journalEnabled) {
+            return;
+        }
+        ByteBuffer line = ByteBuffer.wrap(((like ? "L " : "U ") + item.type() + " " + item.id() + " " + userId + "\n")
+                .getBytes(StandardCharsets.UTF_8));
+        synchronized (journalLock) {
+            //a plain write survives a process crash; sync also survives power loss at the cost of a disk sync per like
+            while (line.hasRemaining()) {
+                journal.write(line);
+            }
+            if (journalSync) {
+                journal.force(false);
+            }
+        }
+    }
+
+    private void openJournal() throws IOException {
+        Path file = journalDir.resolve(JOURNAL_PREFIX + journalSequence.incrementAndGet() + JOURNAL_SUFFIX);
+        journal = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        current.journals.add(file);
+    }
+
+    private void rotateJournal(Generation batch) {
+        if (!journalEnabled) {
+            return;
+        }
+        synchronized (journalLock) {
+            try {
+                journal.close();
+                openJournal();
+            } catch (IOException e) {
+                //keep journaling into the old file; it stays attached to the batch and is deleted with it
+                log.warn("Could not rotate like journal: {}", e.getMessage());
+                current.journals.addAll(batch.journals);
+            }
+        }
+    }
+
+    private void deleteJournals(Generation batch) {
+        for (Path file : batch.journals) {
+            if (current.journals.contains(file)) {
+                continue;
+            }
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                log.warn("Could not delete like journal {}: {}", file, e.getMessage());
+            }
+        }
+    }
+
+    //load journals left behind by a previous run, oldest first so the last operation on an edge wins; their edges are
+    //flushed with the first batch
+    private void recover() throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> found = Files.newDirectoryStream(journalDir, JOURNAL_PREFIX + "*" + JOURNAL_SUFFIX)) {
+            found.forEach(files::add);
+        }
+        files.sort(Comparator.comparingLong(LikeCounterEngine::sequenceOf));
+
+        int recovered = 0;
+        for (Path file : files) {
+            String content = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+            if (content.isEmpty()) {
+                Files.delete(file);
+                continue;
+            }
+            //only complete lines are replayed; an unterminated tail is a write the crash cut short
+            int end = content.lastIndexOf('\n') + 1;
+            if (end < content.length()) {
+                log.warn("Dropping a torn line at the end of like journal {}", file);
+            }
+            for (String line : content.substring(0, end).split("\n")) {
+                Edge edge = parseJournalLine(line);
+                if (edge == null) {
+                    log.warn("Skipping malformed line in like journal {}", file);
+                    continue;
+                }
+                current.edges.put(edge, line.startsWith("L "));
+                recovered++;
+            }
+            current.journals.add(file);
+        }
+        if (recovered > 0) {
+            log.info("Recovered {} pending like operations from the journal", recovered);
+        }
+    }
+
+    //the edge of a journal line, or null when the line is not one this engine wrote
+    private static Edge parseJournalLine(String line) {
+        String[] parts = line.split(" ");
+        if (parts.length != 4 || !("L".equals(parts[0]) || "U".equals(parts[0]))) {
+            return null;
+        }
+        try {
+            return new Edge(new ItemKey(FeedItemType.valueOf(parts[1]), parts[2]), parts[3]);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    //journal files are numbered in the order they were opened
+    private static long sequenceOf(Path file) {
+        String name = file.getFileName().toString();
+        try {
+            return Long.parseLong(name.substring(JOURNAL_PREFIX.length(), name.length() - JOURNAL_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+        if (journalEnabled) {
+            synchronized (journalLock) {
+                try {
+                    journal.close();
+                } catch (IOException e) {
+                    log.warn("Could not close like journal: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    private enum Transition {
+        CHANGED, UNCHANGED, UNKNOWN
+    }
+
+    private record ItemKey(FeedItemType type, String id) {
+    }
+
+    private record Edge(ItemKey item, String userId) {
+    }
+
+    private record ItemState(String ownerId, long likeCount) {
+        static ItemState of(FeedContent content) {
+            return new ItemState(content.getUserId(), content.getLikeCount() == null ? 0 : content.getLikeCount());
+        }
+    }
+
+    //everything recorded between two flushes, and the journal files holding it
+    private static final class Generation {
+        private final Map<Edge, Boolean> edges = new ConcurrentHashMap<>();
+        private final Map<ItemKey, LongAdder> deltas = new ConcurrentHashMap<>();
+        private final List<Path> journals = new ArrayList<>();
+    }
+}
@@ -0,0 +1,206 @@
+package com.example.Backend.service;
+
+import com.example.Backend.dto.FeedItem;
+import com.example.Backend.enums.FeedItemType;
+import com.example.Backend.event.ContentDeletedEvent;
+import com.example.Backend.model.FeedContent;
+import com.example.Backend.model.LikeEdge;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+// Likes as single conditional in-place updates. The condition on likes.userId makes a like or unlike apply at most
+// once, so concurrent requests cannot overwrite each other, and only the owner id and counter travel back. Each like is
+// also kept as a LikeEdge, which is what answers "did the viewer like this" for feed pages.
+// With write-behind enabled the same updates are batched by LikeCounterEngine instead of applied per request.
+@Service
+public class LikeService {
+
+    private static final Logger log = LoggerFactory.getLogger(LikeService.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final LikeCounterEngine likeCounterEngine;
+    private final boolean writeBehind;
+
+    public LikeService(MongoTemplate mongoTemplate, LikeCounterEngine likeCounterEngine,
+                       @Value("${engagement.write-behind.enabled:true}") boolean writeBehind) {
+        this.mongoTemplate = mongoTemplate;
+        this.likeCounterEngine = likeCounterEngine;
+        this.writeBehind = writeBehind;
+    }
+
+    //returns null when the document does not exist
+    public LikeChange like(FeedItemType type, String id, String userId) {
+        if (writeBehind) {
+            return record(type, id, userId, true);
+        }
+        Date now = new Date();
+        Query query = new Query(Criteria.where("_id").is(id).and("likes.userId").ne(userId));
+        LikeChange change = apply(type, id, query, likeUpdate(userId, now));
+        if (change != null && change.changed()) {
+            mongoTemplate.upsert(edgeQuery(id, userId), edgeInsert(type, id, userId, now), LikeEdge.class);
+        }
+        return change;
+    }
+
+    //returns null when the document does not exist
+    public LikeChange unlike(FeedItemType type, String id, String userId) {
+        if (writeBehind) {
+            return record(type, id, userId, false);
+        }
+        Query query = new Query(Criteria.where("_id").is(id).and("likes.userId").is(userId));
+        LikeChange change = apply(type, id, query, unlikeUpdate(userId));
+        if (change != null && change.changed()) {
+            mongoTemplate.remove(edgeQuery(id, userId), LikeEdge.class);
+        }
+        return change;
+    }
+
+    //fill in likeCount and likedByMe for a page of feed items and drop their likes arrays: one lookup by edge id per
+    //page, plus whatever the write-behind engine has not flushed yet
+    public void applyViewerState(List<FeedItem> items, String viewerId) {
+        Set<String> liked = new HashSet<>();
+        if (viewerId != null && !items.isEmpty()) {
+            List<String> keys = items.stream().map(item -> LikeEdge.key(viewerId, item.getId())).toList();
+            Query query = new Query(Criteria.where("_id").in(keys));
+            query.fields().include("itemId");
+            for (LikeEdge edge : mongoTemplate.find(query, LikeEdge.class)) {
+                liked.add(edge.getItemId());
+            }
+        }
+        for (FeedItem item : items) {
+            FeedContent content = (FeedContent) item.getItem();
+            boolean likedByMe = liked.contains(item.getId());
+            if (writeBehind) {
+                Boolean pending = viewerId == null ? null : likeCounterEngine.pendingLike(item.getType(), item.getId(), viewerId);
+                if (pending != null) {
+                    likedByMe = pending;
+                }
+            }
+            item.setLikeCount(likeCount(item.getType(), content));
+            item.setLikedByMe(likedByMe);
+            content.setLikes(null);
+        }
+    }
+
+    //the stored counter plus any likes recorded but not yet flushed
+    public long likeCount(FeedItemType type, FeedContent content) {
+        long count = count(content);
+        return writeBehind ? Math.max(0, count + likeCounterEngine.pendingDelta(type, content.getId())) : count;
+    }
+
+    @EventListener
+    public void onContentDeleted(ContentDeletedEvent event) {
+        try {
+            mongoTemplate.remove(new Query(Criteria.where("itemType").is(event.type()).and("itemId").is(event.itemId())),
+                    LikeEdge.class);
+        } catch (RuntimeException e) {
+            log.warn("Failed to delete likes of {} {}: {}", event.type(), event.itemId(), e.getMessage());
+        }
+    }
+
+    //push a like and bump likeCount in one pipeline update; a document from before the counter existed gets it counted
+    //from its likes array first, so a plain $inc can never create a wrong likeCount that the backfill would then skip
+    static AggregationUpdate likeUpdate(String userId, Date likedAt) {
+        Document like = new Document("userId", userId).append("createdAt", likedAt);
+        return pipeline(new Document()
+                .append("likes", new Document("$concatArrays", List.of(likesOrEmpty(), new Document("$literal", List.of(like)))))
+                .append("likeCount", new Document("$add", List.of(storedLikeCount(), 1))));
+    }
+
+    //pull a user's like and lower likeCount, counting legacy documents the same way as likeUpdate
+    static AggregationUpdate unlikeUpdate(String userId) {
+        return pipeline(new Document()
+                .append("likes", new Document("$filter", new Document("input", likesOrEmpty())
+                        .append("cond", new Document("$ne", List.of("$$this.userId", new Document("$literal", userId))))))
+                .append("likeCount", new Document("$subtract", List.of(storedLikeCount(), 1))));
+    }
+
+    //set likeCount from the likes array; applied to documents that do not have one yet
+    static AggregationUpdate backfillLikeCount() {
+        return pipeline(new Document("likeCount", storedLikeCount()));
+    }
+
+    private static AggregationUpdate pipeline(Document set) {
+        return AggregationUpdate.from(List.of(context -> new Document("$set", set)));
+    }
+
+    private static Document likesOrEmpty() {
+        return new Document("$ifNull", List.of("$likes", List.of()));
+    }
+
+    //all expressions in one $set stage read the document as it was before the update
+    private static Document storedLikeCount() {
+        return new Document("$ifNull", List.of("$likeCount", new Document("$size", likesOrEmpty())));
+    }
+
+    //count a legacy document's likes once so readers never see a missing counter as zero
+    static FeedContent withLikeCount(MongoTemplate mongoTemplate, FeedItemType type, FeedContent content) {
+        if (content == null || content.getLikeCount() != null) {
+            return content;
+        }
+        Query query = new Query(Criteria.where("_id").is(content.getId()).and("likeCount").exists(false));
+        mongoTemplate.updateFirst(query, backfillLikeCount(), TimelineService.ITEM_CLASSES.get(type));
+        Query current = new Query(Criteria.where("_id").is(content.getId()));
+        current.fields().include("userId", "likeCount");
+        FeedContent refreshed = mongoTemplate.findOne(current, TimelineService.ITEM_CLASSES.get(type));
+        return refreshed == null ? content : refreshed;
+    }
+
+    //the edge is only written when missing, so replaying a like keeps the original time
+    static Update edgeInsert(FeedItemType type, String id, String userId, Date createdAt) {
+        return new Update().setOnInsert("userId", userId).setOnInsert("itemType", type)
+                .setOnInsert("itemId", id).setOnInsert("createdAt", createdAt);
+    }
+
+    private static Query edgeQuery(String id, String userId) {
+        return new Query(Criteria.where("_id").is(LikeEdge.key(userId, id)));
+    }
+
+    private LikeChange record(FeedItemType type, String id, String userId, boolean like) {
+        try {
+            return likeCounterEngine.record(type, id, userId, like);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to journal like", e);
+        }
+    }
+
+    private LikeChange apply(FeedItemType type, String id, Query query, UpdateDefinition update) {
+        query.fields().include("userId", "likeCount");
+        FeedContent updated = mongoTemplate.findAndModify(query, update,
+                FindAndModifyOptions.options().returnNew(true), TimelineService.ITEM_CLASSES.get(type));
+        if (updated != null) {
+            return new LikeChange(updated.getUserId(), count(updated), true);
+        }
+        //nothing matched: either already in the requested state or missing
+        Query current = new Query(Criteria.where("_id").is(id));
+        current.fields().include("userId", "likeCount");
+        FeedContent existing = withLikeCount(mongoTemplate, type, mongoTemplate.findOne(current, TimelineService.ITEM_CLASSES.get(type)));
+        return existing == null ? null : new LikeChange(existing.getUserId(), count(existing), false);
+    }
+
+    private static long count(FeedContent content) {
+        return content.getLikeCount() == null ? 0 : Math.max(0, content.getLikeCount());
+    }
+
+    //ownerId is the author of the liked content; changed is false when the like or unlike was a no-op
+    public record LikeChange(String ownerId, long likeCount, boolean changed) {
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.Backend.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.regex.Pattern;
+
+// Filesystem blob store. Blobs live under <root>/<k[0..2]>/<k[2..4]>/<key> so no directory grows too large.
+@Component
+public class LocalBlobStore implements BlobStore {
+
+    private static final Pattern KEY_PATTERN = Pattern.compile("[0-9a-f]{64}");
+
+    private final Path root;
+    private final Path tmpDir;
+
+    public LocalBlobStore(@Value("${media.storage.root:media-store}") String root) throws IOException {
+        this.root = Paths.get(root).toAbsolutePath().normalize();
+        this.tmpDir = this.root.resolve("tmp");
+        Files.createDirectories(tmpDir);
+    }
+
+    @Override
+    public StoredBlob store(InputStream content) throws IOException {
+        Path tmp = Files.createTempFile(tmpDir, "upload-", ".part");
+        try {
+            MessageDigest digest = sha256();
+            long size;
+            try (OutputStream out = new DigestOutputStream(Files.newOutputStream(tmp), digest)) {
+                size = content.transferTo(out);
+            }
+            String key = HexFormat.of().formatHex(digest.digest());
+            Path target = locate(key);
+            if (Files.exists(target)) {
+                return new StoredBlob(key, size, false);
+            }
+            Files.createDirectories(target.getParent());
+            try {
+                Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, target);
+            } catch (FileAlreadyExistsException e) {
+                //a concurrent upload of the same bytes won the race
+                return new StoredBlob(key, size, false);
+            }
+            return new StoredBlob(key, size, true);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    @Override
+    public boolean exists(String key) {
+        return isValidKey(key) && Files.exists(locate(key));
+    }
+
+    @Override
+    public Path locate(String key) {
+        if (!isValidKey(key)) {
+            throw new IllegalArgumentException("Invalid media key");
+        }
+        return root.resolve(key.substring(0, 2)).resolve(key.substring(2, 4)).resolve(key);
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        Files.deleteIfExists(locate(key));
+    }
+
+    public static boolean isValidKey(String key) {
+        return key != null && KEY_PATTERN.matcher(key).matches();
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.Backend.service;
+
+import com.example.Backend.model.Post;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+// Rewrites posts created before the blob store existed so their mediaUrls reference stored media instead of base64.
+@Service
+public class MediaMigrationService {
+
+    private static final Logger log = LoggerFactory.getLogger(MediaMigrationService.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final MediaService mediaService;
+
+    public MediaMigrationService(MongoTemplate mongoTemplate, MediaService mediaService) {
+        this.mongoTemplate = mongoTemplate;
+        this.mediaService = mediaService;
+    }
+
+    //returns the number of posts rewritten
+    public int migratePostMedia() {
+        Query query = new Query(Criteria.where("mediaUrls").regex(";base64,"));
+        query.fields().include("mediaUrls");
+        query.cursorBatchSize(1);
+
+        int migrated = 0;
+        //stream one post at a time so only a single post's media is in memory
+        try (Stream<Post> stream = mongoTemplate.stream(query, Post.class)) {
+            Iterator<Post> posts = stream.iterator();
+            while (posts.hasNext()) {
+                Post post = posts.next();
+                try {
+                    List<String> rewritten = mediaService.externalizeMediaUrls(post.getMediaUrls());
+                    mongoTemplate.updateFirst(
+                            new Query(Criteria.where("_id").is(post.getId())),
+                            new Update().set("mediaUrls", rewritten),
+                            Post.class);
+                    migrated++;
+                } catch (RuntimeException e) {
+                    log.warn("Failed to migrate media for post {}: {}", post.getId(), e.getMessage());
+                }
+            }
+        }
+        log.info("Migrated inline media for {} posts", migrated);
+        return migrated;
+    }
+}
@@ -0,0 +1,369 @@
+package com.example.Backend.service;
+
+import com.example.Backend.event.MediaStoredEvent;
+import com.example.Backend.model.MediaAsset;
+import com.example.Backend.repository.MediaAssetRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.BufferedInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+
+@Service
+public class MediaService {
+
+    private static final String DATA_URL_FIELD = "dataUrl";
+    private static final String MEDIA_ID_FIELD = "mediaId";
+    private static final int SNIFF_LENGTH = 16;
+
+    private final BlobStore blobStore;
+    private final MediaAssetRepository mediaAssetRepository;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final String publicBaseUrl;
+    private final long maxImageBytes;
+    private final long maxVideoBytes;
+
+    public MediaService(BlobStore blobStore, MediaAssetRepository mediaAssetRepository, ObjectMapper objectMapper,
+                        ApplicationEventPublisher eventPublisher,
+                        @Value("${media.public-base-url:http://localhost:8080/api/media}") String publicBaseUrl,
+                        @Value("${media.upload.max-image-size:10MB}") DataSize maxImageSize,
+                        @Value("${media.upload.max-video-size:100MB}") DataSize maxVideoSize) {
+        this.blobStore = blobStore;
+        this.mediaAssetRepository = mediaAssetRepository;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        this.publicBaseUrl = publicBaseUrl.endsWith("/") ? publicBaseUrl.substring(0, publicBaseUrl.length() - 1) : publicBaseUrl;
+        this.maxImageBytes = maxImageSize.toBytes();
+        this.maxVideoBytes = maxVideoSize.toBytes();
+    }
+
+    //stream content into the blob store and record its metadata once per distinct content
+    public MediaAsset store(InputStream content, String contentType) throws IOException {
+        return store(content, contentType, true);
+    }
+
+    private MediaAsset store(InputStream content, String contentType, boolean publish) throws IOException {
+        BlobStore.StoredBlob blob = blobStore.store(content);
+        Optional<MediaAsset> existing = mediaAssetRepository.findById(blob.key());
+        if (existing.isPresent()) {
+            return existing.get();
+        }
+        MediaAsset asset = mediaAssetRepository.save(new MediaAsset(blob.key(), contentType, blob.size()));
+        if (publish) {
+            eventPublisher.publishEvent(new MediaStoredEvent(asset));
+        }
+        return asset;
+    }
+
+    //store a derived copy of another asset; renditions do not trigger further processing
+    public MediaAsset storeRendition(InputStream content, String contentType, String sourceId) throws IOException {
+        BlobStore.StoredBlob blob = blobStore.store(content);
+        return mediaAssetRepository.findById(blob.key()).orElseGet(() -> {
+            MediaAsset asset = new MediaAsset(blob.key(), contentType, blob.size());
+            asset.setSourceId(sourceId);
+            return mediaAssetRepository.save(asset);
+        });
+    }
+
+    public MediaAsset saveAsset(MediaAsset asset) {
+        return mediaAssetRepository.save(asset);
+    }
+
+    //store an uploaded file, checking its real type from the leading bytes and its size while it streams to disk
+    public MediaAsset storeUpload(InputStream content, String declaredType) throws IOException {
+        return storeUpload(content, declaredType, true);
+    }
+
+    //process=false skips the background pipelines, for callers that derive their own variants
+    public MediaAsset storeUpload(InputStream content, String declaredType, boolean process) throws IOException {
+        BufferedInputStream buffered = new BufferedInputStream(content);
+        buffered.mark(SNIFF_LENGTH);
+        byte[] header = buffered.readNBytes(SNIFF_LENGTH);
+        buffered.reset();
+
+        String contentType = sniffContentType(header);
+        if (contentType == null) {
+            throw new IllegalArgumentException("Unsupported media type");
+        }
+        if (declaredType != null && !declaredType.isEmpty() && !sameFamily(declaredType, contentType)) {
+            throw new IllegalArgumentException("File content does not match its declared type " + declaredType);
+        }
+
+        long limit = isVideo(contentType) ? maxVideoBytes : maxImageBytes;
+        try {
+            return store(new LimitedInputStream(buffered, limit), contentType, process);
+        } catch (SizeLimitExceededException e) {
+            throw new IllegalArgumentException("File exceeds the maximum size of " + limit + " bytes");
+        }
+    }
+
+    //the JSON envelope the feed cards understand: {"dataUrl", "type", "fileType", "mediaId"}
+    public String toMediaEntry(MediaAsset asset) {
+        ObjectNode envelope = objectMapper.createObjectNode();
+        envelope.put(DATA_URL_FIELD, mediaUrl(asset.getId()));
+        envelope.put("type", isVideo(asset.getContentType()) ? "video" : "image");
+        envelope.put("fileType", asset.getContentType());
+        envelope.put(MEDIA_ID_FIELD, asset.getId());
+        try {
+            return objectMapper.writeValueAsString(envelope);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    //largest file any upload may produce
+    public long maxUploadBytes() {
+        return Math.max(maxImageBytes, maxVideoBytes);
+    }
+
+    public static boolean isVideo(String contentType) {
+        return contentType != null && contentType.startsWith("video/");
+    }
+
+    public MediaAsset getMedia(String id) {
+        if (!LocalBlobStore.isValidKey(id)) {
+            throw new NoSuchElementException("Media not found");
+        }
+        return mediaAssetRepository.findById(id)
+                .orElseThrow(() -> new NoSuchElementException("Media not found"));
+    }
+
+    public Path locate(String id) {
+        return blobStore.locate(id);
+    }
+
+    public String mediaUrl(String id) {
+        return publicBaseUrl + "/" + id;
+    }
+
+    //replace any inline base64 media with a reference to the blob store, leaving other entries untouched
+    public List<String> externalizeMediaUrls(List<String> mediaUrls) {
+        if (mediaUrls == null) {
+            return null;
+        }
+        List<String> result = new ArrayList<>(mediaUrls.size());
+        for (String entry : mediaUrls) {
+            result.add(externalize(entry));
+        }
+        return result;
+    }
+
+    //the blob store id a mediaUrls entry refers to, or null for inline or external media
+    public String mediaIdOf(String entry) {
+        if (entry == null || isInline(entry)) {
+            return null;
+        }
+        String url = entry;
+        if (entry.startsWith("{")) {
+            try {
+                JsonNode envelope = objectMapper.readTree(entry);
+                if (envelope.hasNonNull(MEDIA_ID_FIELD)) {
+                    return envelope.get(MEDIA_ID_FIELD).asText();
+                }
+                url = envelope.path(DATA_URL_FIELD).asText("");
+            } catch (JsonProcessingException e) {
+                return null;
+            }
+        }
+        if (!url.startsWith(publicBaseUrl + "/")) {
+            return null;
+        }
+        String id = url.substring(publicBaseUrl.length() + 1);
+        return LocalBlobStore.isValidKey(id) ? id : null;
+    }
+
+    public boolean isInline(String entry) {
+        return entry != null && entry.contains("data:") && entry.contains(";base64,");
+    }
+
+    //entries are either a bare data URL or the JSON envelope the client sends: {"dataUrl", "type", "fileType"}
+    //a bare URL of already uploaded media is expanded into the envelope so the feed knows its type
+    private String externalize(String entry) {
+        if (entry != null && entry.startsWith(publicBaseUrl + "/")) {
+            String id = entry.substring(publicBaseUrl.length() + 1);
+            if (!LocalBlobStore.isValidKey(id)) {
+                return entry;
+            }
+            try {
+                return toMediaEntry(getMedia(id));
+            } catch (NoSuchElementException e) {
+                //a client error like any other invalid media, not a server failure
+                throw new IllegalArgumentException("Unknown media id");
+            }
+        }
+        if (!isInline(entry)) {
+            return entry;
+        }
+        try {
+            if (entry.startsWith("data:")) {
+                return mediaUrl(storeDataUrl(entry).getId());
+            }
+            ObjectNode envelope = (ObjectNode) objectMapper.readTree(entry);
+            String dataUrl = envelope.path(DATA_URL_FIELD).asText(null);
+            if (dataUrl == null || !dataUrl.startsWith("data:")) {
+                return entry;
+            }
+            MediaAsset asset = storeDataUrl(dataUrl);
+            envelope.put(DATA_URL_FIELD, mediaUrl(asset.getId()));
+            envelope.put(MEDIA_ID_FIELD, asset.getId());
+            return objectMapper.writeValueAsString(envelope);
+        } catch (JsonProcessingException | ClassCastException e) {
+            return entry;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to store media", e);
+        }
+    }
+
+    //inline media gets the same sniffing and size limits as an upload; the declared type is only checked, never trusted
+    private MediaAsset storeDataUrl(String dataUrl) throws IOException {
+        try (InputStream in = openDataUrl(dataUrl)) {
+            return storeUpload(in, dataUrlContentType(dataUrl));
+        }
+    }
+
+    public static boolean isDataUrl(String value) {
+        return value != null && value.startsWith("data:") && value.contains(";base64,");
+    }
+
+    //decoded bytes of a base64 data URL, read lazily from the string
+    public static InputStream openDataUrl(String dataUrl) {
+        int comma = dataUrl.indexOf(',');
+        if (comma < 0) {
+            throw new IllegalArgumentException("Malformed data URL");
+        }
+        return Base64.getMimeDecoder().wrap(new AsciiInputStream(dataUrl, comma + 1));
+    }
+
+    public static String dataUrlContentType(String dataUrl) {
+        int comma = dataUrl.indexOf(',');
+        String header = dataUrl.substring("data:".length(), comma < 0 ? dataUrl.length() : comma);
+        int semicolon = header.indexOf(';');
+        String contentType = semicolon >= 0 ? header.substring(0, semicolon) : header;
+        return contentType.isEmpty() ? "application/octet-stream" : contentType;
+    }
+
+    private static boolean sameFamily(String declaredType, String sniffedType) {
+        return declaredType.substring(0, Math.max(declaredType.indexOf('/'), 0))
+                .equals(sniffedType.substring(0, sniffedType.indexOf('/')));
+    }
+
+    //identify the accepted formats by their magic numbers rather than trusting the client's content type
+    static String sniffContentType(byte[] header) {
+        if (startsWith(header, 0, 0xFF, 0xD8, 0xFF)) {
+            return "image/jpeg";
+        }
+        if (startsWith(header, 0, 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A)) {
+            return "image/png";
+        }
+        if (startsWith(header, 0, 'G', 'I', 'F', '8')) {
+            return "image/gif";
+        }
+        if (startsWith(header, 0, 'R', 'I', 'F', 'F') && startsWith(header, 8, 'W', 'E', 'B', 'P')) {
+            return "image/webp";
+        }
+        if (startsWith(header, 0, 0x1A, 0x45, 0xDF, 0xA3)) {
+            return "video/webm";
+        }
+        if (startsWith(header, 4, 'f', 't', 'y', 'p') && header.length >= 12) {
+            String brand = new String(Arrays.copyOfRange(header, 8, 12), StandardCharsets.US_ASCII);
+            return brand.equals("qt  ") ? "video/quicktime" : "video/mp4";
+        }
+        return null;
+    }
+
+    private static boolean startsWith(byte[] data, int offset, int... expected) {
+        if (data.length < offset + expected.length) {
+            return false;
+        }
+        for (int i = 0; i < expected.length; i++) {
+            if ((data[offset + i] & 0xFF) != expected[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static final class SizeLimitExceededException extends IOException {
+    }
+
+    //fails the read as soon as the stream goes past the limit, so oversized uploads are never fully written
+    private static final class LimitedInputStream extends FilterInputStream {
+        private long remaining;
+
+        LimitedInputStream(InputStream in, long limit) {
+            super(in);
+            this.remaining = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0 && --remaining < 0) {
+                throw new SizeLimitExceededException();
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int count = super.read(buffer, offset, length);
+            if (count > 0) {
+                remaining -= count;
+                if (remaining < 0) {
+                    throw new SizeLimitExceededException();
+                }
+            }
+            return count;
+        }
+    }
+
+    //reads the base64 payload straight out of the string so the decoded bytes are never copied into a second buffer
+    private static final class AsciiInputStream extends InputStream {
+        private final String source;
+        private int position;
+
+        AsciiInputStream(String source, int offset) {
+            this.source = source;
+            this.position = offset;
+        }
+
+        @Override
+        public int read() {
+            return position < source.length() ? source.charAt(position++) & 0x7f : -1;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) {
+            if (length == 0) {
+                return 0;
+            }
+            int available = source.length() - position;
+            if (available <= 0) {
+                return -1;
+            }
+            int count = Math.min(length, available);
+            for (int i = 0; i < count; i++) {
+                buffer[offset + i] = (byte) (source.charAt(position++) & 0x7f);
+            }
+            return count;
+        }
+    }
+}
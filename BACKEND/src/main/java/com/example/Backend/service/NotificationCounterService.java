@@ -0,0 +1,86 @@
+package com.example.Backend.service;
+
+import com.example.Backend.model.Notification;
+import com.example.Backend.model.NotificationCounter;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Keeps the per-user unread counters. A counter only ever starts from a count of the user's unread notifications,
+// whichever path touches it first, and is adjusted by deltas afterwards, so it never starts from part of the picture.
+@Service
+public class NotificationCounterService {
+
+    private final MongoTemplate mongoTemplate;
+
+    public NotificationCounterService(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    //unread count from the per-user counter; a user without one yet is counted once and the result kept
+    public long unread(String userId) {
+        NotificationCounter counter = mongoTemplate.findById(userId, NotificationCounter.class);
+        if (counter != null) {
+            return Math.max(0, counter.getUnread());
+        }
+        return initialise(userId, new Date());
+    }
+
+    //new unread notifications have been written: existing counters go up by that many, missing ones are counted,
+    //which already includes the new notifications
+    public void added(Map<String, Integer> created) {
+        Query query = new Query(Criteria.where("_id").in(created.keySet()));
+        query.fields().include("_id");
+        Set<String> existing = new HashSet<>();
+        for (NotificationCounter counter : mongoTemplate.find(query, NotificationCounter.class)) {
+            existing.add(counter.getId());
+        }
+
+        Date now = new Date();
+        if (!existing.isEmpty()) {
+            BulkOperations counters = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, NotificationCounter.class);
+            for (String userId : existing) {
+                counters.updateOne(new Query(Criteria.where("_id").is(userId)),
+                        new Update().inc("unread", created.get(userId)).set("updatedAt", now));
+            }
+            counters.execute();
+        }
+        for (String userId : created.keySet()) {
+            if (!existing.contains(userId)) {
+                initialise(userId, now);
+            }
+        }
+    }
+
+    //notifications have been marked read; a missing counter is left alone, it is counted when it is first needed
+    public void read(String userId, long count) {
+        if (count <= 0) {
+            return;
+        }
+        Document unread = new Document("$max", List.of(0, new Document("$subtract", List.of("$unread", count))));
+        mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(userId)),
+                AggregationUpdate.from(List.of(context -> new Document("$set",
+                        new Document("unread", unread).append("updatedAt", new Date())))),
+                NotificationCounter.class);
+    }
+
+    //only inserts: if another path created the counter in the meantime its count already covers everything
+    private long initialise(String userId, Date now) {
+        long unread = mongoTemplate.count(new Query(Criteria.where("userId").is(userId).and("read").is(false)),
+                Notification.class);
+        mongoTemplate.upsert(new Query(Criteria.where("_id").is(userId)),
+                new Update().setOnInsert("unread", unread).setOnInsert("updatedAt", now), NotificationCounter.class);
+        return unread;
+    }
+}
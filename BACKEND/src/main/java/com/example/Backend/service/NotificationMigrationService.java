@@ -0,0 +1,62 @@
+package com.example.Backend.service;
+
+import com.example.Backend.model.Notification;
+import com.example.Backend.model.NotificationCounter;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.util.Date;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+// Sets every user's unread counter from the notifications they actually have unread.
+@Service
+public class NotificationMigrationService {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationMigrationService.class);
+
+    private static final int BATCH_SIZE = 1000;
+
+    private final MongoTemplate mongoTemplate;
+
+    public NotificationMigrationService(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    //counted server-side with one $group; only a user id and a number per user come back
+    public void backfillUnreadCounters() {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("read").is(false)),
+                Aggregation.group("userId").count().as("unread"));
+        Date now = new Date();
+        long users = 0;
+        int pending = 0;
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, NotificationCounter.class);
+        try (Stream<Document> counts = mongoTemplate.aggregateStream(aggregation, Notification.class, Document.class)) {
+            Iterator<Document> results = counts.iterator();
+            while (results.hasNext()) {
+                Document count = results.next();
+                bulk.upsert(new Query(Criteria.where("_id").is(count.get("_id"))),
+                        new Update().set("unread", count.getInteger("unread")).set("updatedAt", now));
+                users++;
+                if (++pending == BATCH_SIZE) {
+                    bulk.execute();
+                    bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, NotificationCounter.class);
+                    pending = 0;
+                }
+            }
+        }
+        if (pending > 0) {
+            bulk.execute();
+        }
+        log.info("Backfilled unread notification counters for {} users", users);
+    }
+}
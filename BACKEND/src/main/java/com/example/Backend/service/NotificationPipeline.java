@@ -0,0 +1,295 @@
+package com.example.Backend.service;
+
+import com.example.Backend.dto.UserSummary;
+import com.example.Backend.event.StreamEvent;
+import com.example.Backend.model.Notification;
+import com.example.Backend.model.NotificationOutbox;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.bulk.BulkWriteUpsert;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+// Writes notifications off the request path. A request only stores an outbox entry and offers it to a bounded queue;
+// one worker drains the queue in batches, looks the actors' names up through the user cache and writes the whole batch
+// at once, folding events about the same post into one notification. When the queue is full the entry simply waits
+// in the outbox for the periodic sweep. Both the worker and the sweep claim entries before delivering them, so an entry
+// that is still queued or being written is never picked up a second time.
+//
+// Delivery is at least once: a crash between the write and the outbox cleanup leaves the batch claimed, and it is
+// delivered again once the claim times out.
+@Service
+public class NotificationPipeline {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationPipeline.class);
+
+    private static final String UNKNOWN_USER = "Someone";
+
+    private final MongoTemplate mongoTemplate;
+    private final StreamEventBus streamEventBus;
+    private final NotificationCounterService notificationCounterService;
+    private final UserSummaryService userSummaryService;
+    private final BlockingQueue<NotificationOutbox> queue;
+    private final int batchSize;
+    private final long sweepIntervalMillis;
+    private final long claimTimeoutMillis;
+    private final Duration coalesceWindow;
+    private final int maxActorIds;
+    private final Counter enqueued;
+    private final Counter rejected;
+    private final Counter delivered;
+    private final Counter failed;
+    private final Thread worker;
+
+    public NotificationPipeline(MongoTemplate mongoTemplate, StreamEventBus streamEventBus,
+                                NotificationCounterService notificationCounterService,
+                                UserSummaryService userSummaryService, MeterRegistry meterRegistry,
+                                @Value("${notifications.queue-capacity:10000}") int queueCapacity,
+                                @Value("${notifications.batch-size:200}") int batchSize,
+                                @Value("${notifications.outbox.sweep-interval-ms:60000}") long sweepIntervalMillis,
+                                @Value("${notifications.outbox.claim-timeout:5m}") Duration claimTimeout,
+                                @Value("${notifications.coalesce.window:1h}") Duration coalesceWindow,
+                                @Value("${notifications.coalesce.max-actor-ids:5}") int maxActorIds) {
+        this.mongoTemplate = mongoTemplate;
+        this.streamEventBus = streamEventBus;
+        this.notificationCounterService = notificationCounterService;
+        this.userSummaryService = userSummaryService;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.sweepIntervalMillis = sweepIntervalMillis;
+        this.claimTimeoutMillis = claimTimeout.toMillis();
+        this.coalesceWindow = coalesceWindow;
+        this.maxActorIds = maxActorIds;
+
+        Gauge.builder("notifications.queue.size", queue, BlockingQueue::size).register(meterRegistry);
+        Gauge.builder("notifications.queue.remaining", queue, BlockingQueue::remainingCapacity).register(meterRegistry);
+        this.enqueued = meterRegistry.counter("notifications.enqueued");
+        this.rejected = meterRegistry.counter("notifications.rejected");
+        this.delivered = meterRegistry.counter("notifications.delivered");
+        this.failed = meterRegistry.counter("notifications.failed");
+
+        this.worker = new Thread(this::drain, "notification-worker");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    //record a notification request; never throws, so a notification problem cannot fail the like or comment itself
+    public void submit(NotificationOutbox entry) {
+        try {
+            mongoTemplate.insert(entry);
+        } catch (RuntimeException e) {
+            log.warn("Could not store {} notification for {}: {}", entry.getType(), entry.getUserId(), e.getMessage());
+            failed.increment();
+            return;
+        }
+        if (queue.offer(entry)) {
+            enqueued.increment();
+        } else {
+            rejected.increment();
+        }
+    }
+
+    //deliver outbox entries the worker never got to: rejected by a full queue, failed, or left by a restart
+    @Scheduled(fixedDelayString = "${notifications.outbox.sweep-interval-ms:60000}",
+            initialDelayString = "${notifications.outbox.sweep-interval-ms:60000}")
+    public void sweepOutbox() {
+        //entries younger than one interval are most likely still queued
+        Date cutoff = new Date(System.currentTimeMillis() - sweepIntervalMillis);
+        try {
+            List<NotificationOutbox> candidates;
+            do {
+                Query query = new Query(Criteria.where("createdAt").lt(cutoff).andOperator(claimable(new Date())))
+                        .with(Sort.by(Sort.Direction.ASC, "createdAt")).limit(batchSize);
+                query.fields().include("_id");
+                candidates = mongoTemplate.find(query, NotificationOutbox.class);
+                if (!candidates.isEmpty()) {
+                    deliverClaimed(candidates);
+                }
+            } while (candidates.size() == batchSize);
+        } catch (Exception e) {
+            log.warn("Failed to sweep the notification outbox: {}", e.getMessage());
+        }
+    }
+
+    private void drain() {
+        List<NotificationOutbox> batch = new ArrayList<>(batchSize);
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                batch.add(queue.take());
+                queue.drainTo(batch, batchSize - 1);
+                deliverClaimed(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                //the entries stay in the outbox and the sweep retries them
+                log.warn("Failed to deliver {} notifications: {}", batch.size(), e.getMessage());
+                failed.increment(batch.size());
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    //claim the entries nobody else is delivering, deliver those and release the claim again if that fails
+    private void deliverClaimed(List<NotificationOutbox> entries) {
+        String claim = UUID.randomUUID().toString();
+        Date now = new Date();
+        List<String> ids = entries.stream().map(NotificationOutbox::getId).toList();
+        mongoTemplate.updateMulti(new Query(Criteria.where("_id").in(ids).andOperator(claimable(now))),
+                new Update().set("claimedBy", claim).set("claimedAt", now), NotificationOutbox.class);
+        List<NotificationOutbox> claimed = mongoTemplate.find(
+                new Query(Criteria.where("_id").in(ids).and("claimedBy").is(claim)), NotificationOutbox.class);
+        if (claimed.isEmpty()) {
+            return;
+        }
+        try {
+            deliver(claimed, claim);
+        } catch (RuntimeException e) {
+            mongoTemplate.updateMulti(new Query(Criteria.where("_id").in(ids).and("claimedBy").is(claim)),
+                    new Update().unset("claimedBy").unset("claimedAt"), NotificationOutbox.class);
+            throw e;
+        }
+    }
+
+    //unclaimed, or claimed by a delivery that has not finished within the timeout and is presumed dead
+    private Criteria claimable(Date now) {
+        return new Criteria().orOperator(
+                Criteria.where("claimedAt").exists(false),
+                Criteria.where("claimedAt").lt(new Date(now.getTime() - claimTimeoutMillis)));
+    }
+
+    //fold the batch into one upsert per (recipient, type, post): into the open unread notification if there is one,
+    //otherwise into a new one whose window starts now
+    private void deliver(List<NotificationOutbox> batch, String claim) {
+        Map<String, String> actorNames = resolveNames(batch);
+        Map<List<String>, List<NotificationOutbox>> groups = new LinkedHashMap<>();
+        for (NotificationOutbox entry : batch) {
+            groups.computeIfAbsent(List.of(entry.getUserId(), entry.getType(), String.valueOf(entry.getPostId())),
+                    key -> new ArrayList<>()).add(entry);
+        }
+
+        Date now = new Date();
+        Date windowOpen = new Date(now.getTime() - coalesceWindow.toMillis());
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Notification.class);
+        List<String> ids = new ArrayList<>(batch.size());
+        List<String> recipients = new ArrayList<>(groups.size());
+        for (List<NotificationOutbox> group : groups.values()) {
+            NotificationOutbox first = group.get(0);
+            NotificationOutbox latest = group.get(group.size() - 1);
+            //each actor once, in the order of their latest event
+            Set<String> actors = new LinkedHashSet<>();
+            for (NotificationOutbox entry : group) {
+                actors.remove(entry.getTriggerUserId());
+                actors.add(entry.getTriggerUserId());
+                ids.add(entry.getId());
+            }
+            String actorName = actorNames.getOrDefault(latest.getTriggerUserId(), UNKNOWN_USER);
+
+            Query query = new Query(Criteria.where("userId").is(first.getUserId()).and("type").is(first.getType())
+                    .and("postId").is(first.getPostId()).and("read").is(false).and("windowStart").gte(windowOpen));
+            bulk.upsert(query, foldUpdate(new ArrayList<>(actors), latest, actorName, now));
+            recipients.add(first.getUserId());
+        }
+        BulkWriteResult result = bulk.execute();
+
+        //only a newly inserted notification adds to the unread count; folding into an unread one does not
+        Map<String, Integer> created = new HashMap<>();
+        for (BulkWriteUpsert upsert : result.getUpserts()) {
+            created.merge(recipients.get(upsert.getIndex()), 1, Integer::sum);
+        }
+        if (!created.isEmpty()) {
+            notificationCounterService.added(created);
+        }
+        mongoTemplate.remove(new Query(Criteria.where("_id").in(ids).and("claimedBy").is(claim)), NotificationOutbox.class);
+        delivered.increment(batch.size());
+
+        //tell the recipients' open streams; the payload is only a hint, clients fetch the notification itself
+        for (List<NotificationOutbox> group : groups.values()) {
+            NotificationOutbox first = group.get(0);
+            streamEventBus.publish(new StreamEvent(first.getUserId(), "notification",
+                    Map.of("type", first.getType(), "postId", String.valueOf(first.getPostId()))));
+        }
+    }
+
+    //one pipeline stage, so every expression reads the notification as it was before this batch. actors keeps everyone
+    //folded in while the window is open, and actorCount only grows by the actors it did not already contain
+    private AggregationUpdate foldUpdate(List<String> batchActors, NotificationOutbox latest, String actorName, Date now) {
+        Document added = new Document("$literal", batchActors);
+        Document actorIds = new Document("$ifNull", List.of("$actorIds", List.of()));
+        //notifications folded before actors was kept only know their newest actorIds
+        Document known = new Document("$ifNull", List.of("$actors", actorIds));
+        Document earlierActorIds = new Document("$filter", new Document("input", actorIds)
+                .append("cond", new Document("$not", List.of(new Document("$in", List.of("$$this", added))))));
+        Document set = new Document()
+                .append("windowStart", new Document("$ifNull", List.of("$windowStart", now)))
+                .append("actorCount", new Document("$add", List.of(
+                        new Document("$ifNull", List.of("$actorCount", 0)),
+                        new Document("$size", new Document("$setDifference", List.of(added, known))))))
+                .append("actors", new Document("$setUnion", List.of(known, added)))
+                .append("actorIds", new Document("$slice",
+                        List.of(new Document("$concatArrays", List.of(earlierActorIds, added)), -maxActorIds)))
+                .append("triggerUserId", new Document("$literal", latest.getTriggerUserId()))
+                .append("lastActorName", new Document("$literal", actorName))
+                .append("message", new Document("$literal", message(latest, actorName)))
+                .append("createdAt", new Document("$max", List.of("$createdAt", latest.getCreatedAt())));
+        return AggregationUpdate.from(List.of(context -> new Document("$set", set)));
+    }
+
+    //the single-actor message; Notification adds "and N others" when more actors are folded in
+    private static String message(NotificationOutbox entry, String actorName) {
+        return "COMMENT".equals(entry.getType())
+                ? actorName + " commented on your post: " + entry.getCommentContent()
+                : actorName + " liked your post.";
+    }
+
+    //names of the batch's actors, through the user cache so renames and its invalidation apply here too
+    private Map<String, String> resolveNames(List<NotificationOutbox> batch) {
+        Set<String> actorIds = new HashSet<>();
+        for (NotificationOutbox entry : batch) {
+            if (entry.getTriggerUserId() != null) {
+                actorIds.add(entry.getTriggerUserId());
+            }
+        }
+        Map<String, String> resolved = new HashMap<>();
+        for (UserSummary summary : userSummaryService.lookup(actorIds).values()) {
+            if (summary.getName() != null) {
+                resolved.put(summary.getId(), summary.getName());
+            }
+        }
+        return resolved;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        //anything still queued is in the outbox and is delivered after the restart
+        worker.interrupt();
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.Backend.service;
+
+import com.example.Backend.dto.CursorPage;
+import com.example.Backend.model.ArchivedNotification;
+import com.example.Backend.model.Notification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+// Keeps the notifications collection down to unread and recently read documents. Older read ones are copied to the
+// archive in batches and only then removed, so a failed run leaves at worst a copy in both places, which the next run
+// overwrites. History pages read the archive only when a user scrolls that far back.
+@Service
+public class NotificationRetentionService {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationRetentionService.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final CursorPagination cursorPagination;
+    private final Duration readRetention;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+
+    public NotificationRetentionService(MongoTemplate mongoTemplate, CursorPagination cursorPagination,
+                                        @Value("${notifications.retention.read-for:30d}") Duration readRetention,
+                                        @Value("${notifications.retention.batch-size:1000}") int batchSize,
+                                        @Value("${notifications.retention.max-batches-per-run:100}") int maxBatchesPerRun) {
+        this.mongoTemplate = mongoTemplate;
+        this.cursorPagination = cursorPagination;
+        this.readRetention = readRetention;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+    }
+
+    @Scheduled(fixedDelayString = "${notifications.retention.interval-ms:3600000}",
+            initialDelayString = "${notifications.retention.interval-ms:3600000}")
+    public void archiveReadNotifications() {
+        try {
+            long moved = archiveReadBefore(new Date(System.currentTimeMillis() - readRetention.toMillis()));
+            if (moved > 0) {
+                log.info("Archived {} read notifications", moved);
+            }
+        } catch (Exception e) {
+            log.warn("Failed to archive read notifications: {}", e.getMessage());
+        }
+    }
+
+    //move read notifications created before cutoff, oldest first; a run stops after maxBatchesPerRun so it stays short
+    long archiveReadBefore(Date cutoff) {
+        long moved = 0;
+        for (int batches = 0; batches < maxBatchesPerRun; batches++) {
+            Query query = new Query(Criteria.where("read").is(true).and("createdAt").lt(cutoff))
+                    .with(Sort.by(Sort.Direction.ASC, "createdAt")).limit(batchSize);
+            query.fields().include("userId", "type", "postId", "triggerUserId", "message", "createdAt",
+                    "actorCount", "lastActorName");
+            List<Notification> batch = mongoTemplate.find(query, Notification.class);
+            if (batch.isEmpty()) {
+                break;
+            }
+
+            Date now = new Date();
+            BulkOperations archive = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ArchivedNotification.class);
+            List<String> ids = new ArrayList<>(batch.size());
+            for (Notification notification : batch) {
+                archive.upsert(new Query(Criteria.where("_id").is(notification.getId())), new Update()
+                        .set("userId", notification.getUserId())
+                        .set("type", notification.getType())
+                        .set("postId", notification.getPostId())
+                        .set("triggerUserId", notification.getTriggerUserId())
+                        .set("message", notification.getMessage())
+                        .set("createdAt", notification.getCreatedAt())
+                        .set("archivedAt", now));
+                ids.add(notification.getId());
+            }
+            archive.execute();
+            mongoTemplate.remove(new Query(Criteria.where("_id").in(ids)), Notification.class);
+            moved += batch.size();
+            if (batch.size() < batchSize) {
+                break;
+            }
+        }
+        return moved;
+    }
+
+    //one newest-first page of a user's archived notifications
+    public CursorPage<ArchivedNotification> getHistory(String userId, String cursor, Integer limit) {
+        return cursorPagination.page(ArchivedNotification.class, Criteria.where("userId").is(userId), cursor, limit,
+                ArchivedNotification::getCreatedAt, ArchivedNotification::getId);
+    }
+
+    public boolean isArchived(String notificationId) {
+        return mongoTemplate.exists(new Query(Criteria.where("_id").is(notificationId)), ArchivedNotification.class);
+    }
+}
@@ -1,10 +1,13 @@
 package com.example.Backend.service;
 
 import com.example.Backend.model.Notification;
-import com.example.Backend.model.User;
+import com.example.Backend.model.NotificationOutbox;
 import com.example.Backend.repository.NotificationRepository;
-import com.example.Backend.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -16,23 +19,25 @@ public class NotificationService {
     private NotificationRepository notificationRepository;
 
     @Autowired
-    private UserRepository userRepository;
+    private NotificationPipeline notificationPipeline;
 
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private NotificationRetentionService notificationRetentionService;
+
+    @Autowired
+    private NotificationCounterService notificationCounterService;
+
+    //queued for the notification pipeline; the actor's name is filled in when it is written
     public void createLikeNotification(String postId, String postOwnerId, String triggerUserId) {
-        User triggerUser = userRepository.findById(triggerUserId)
-                .orElseThrow(() -> new RuntimeException("Trigger user not found"));
-        String message = triggerUser.getName() + " liked your post.";
-        Notification notification = new Notification(postOwnerId, "LIKE", postId, triggerUserId, message);
-        notificationRepository.save(notification);
+        notificationPipeline.submit(new NotificationOutbox(postOwnerId, "LIKE", postId, triggerUserId, null));
     }
 
     public void createCommentNotification(String postId, String postOwnerId, String triggerUserId,
             String commentContent) {
-        User triggerUser = userRepository.findById(triggerUserId)
-                .orElseThrow(() -> new RuntimeException("Trigger user not found"));
-        String message = triggerUser.getName() + " commented on your post: " + commentContent;
-        Notification notification = new Notification(postOwnerId, "COMMENT", postId, triggerUserId, message);
-        notificationRepository.save(notification);
+        notificationPipeline.submit(new NotificationOutbox(postOwnerId, "COMMENT", postId, triggerUserId, commentContent));
     }
 
     public List<Notification> getUserNotifications(String userId) {
@@ -43,10 +48,36 @@ public class NotificationService {
         return notificationRepository.findByUserIdAndReadFalse(userId);
     }
 
+    //unread count from the per-user counter; a user without one yet is counted once and the result kept
+    public long getUnreadCount(String userId) {
+        return notificationCounterService.unread(userId);
+    }
+
+    //flip read only if it is still unread, so the counter drops exactly once per notification
     public void markNotificationAsRead(String notificationId) {
-        Notification notification = notificationRepository.findById(notificationId)
-                .orElseThrow(() -> new RuntimeException("Notification not found"));
-        notification.setRead(true);
-        notificationRepository.save(notification);
+        Notification notification = mongoTemplate.findAndModify(
+                new Query(Criteria.where("_id").is(notificationId).and("read").is(false)),
+                new Update().set("read", true).unset("actors"), Notification.class);
+        if (notification == null) {
+            //an archived notification was read before it was moved
+            if (!notificationRepository.existsById(notificationId) && !notificationRetentionService.isArchived(notificationId)) {
+                throw new RuntimeException("Notification not found");
+            }
+            return;
+        }
+        notificationCounterService.read(notification.getUserId(), 1);
+    }
+
+    //mark every unread notification of a user as read with one update and lower the counter by exactly the ones it
+    //changed, so notifications delivered in the meantime stay counted; returns how many changed
+    public long markAllAsRead(String userId) {
+        long updated = mongoTemplate.updateMulti(unreadOf(userId), new Update().set("read", true).unset("actors"), Notification.class)
+                .getModifiedCount();
+        notificationCounterService.read(userId, updated);
+        return updated;
+    }
+
+    private static Query unreadOf(String userId) {
+        return new Query(Criteria.where("userId").is(userId).and("read").is(false));
     }
-}
\ No newline at end of file
+}
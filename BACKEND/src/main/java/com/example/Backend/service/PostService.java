@@ -1,11 +1,26 @@
 package com.example.Backend.service;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.util.*;
-import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
-
+import org.springframework.web.multipart.MultipartFile;
+
+import com.example.Backend.dto.CommentsResponse;
+import com.example.Backend.dto.CursorPage;
+import com.example.Backend.dto.LikeResponse;
+import com.example.Backend.enums.FeedItemType;
+import com.example.Backend.event.ContentCreatedEvent;
+import com.example.Backend.event.ContentDeletedEvent;
 import com.example.Backend.model.Comment;
 import com.example.Backend.model.Like;
 import com.example.Backend.model.Post;
@@ -16,9 +31,27 @@ public class PostService {
     @Autowired
     private PostRepository postRepository;
 
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
     @Autowired
     private NotificationService notificationService;
 
+    @Autowired
+    private MediaService mediaService;
+
+    @Autowired
+    private CursorPagination cursorPagination;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private LikeService likeService;
+
+    @Autowired
+    private CommentService commentService;
+
     public Post createPost(Post post) {
         if (post.getUserId() == null || post.getUserId().isEmpty()) {
             throw new IllegalArgumentException("User ID is required");
@@ -26,17 +59,43 @@ public class PostService {
         if (post.getUserName() == null || post.getUserName().isEmpty()) {
             post.setUserName("Unknown User");
         }
+        post.setMediaUrls(mediaService.externalizeMediaUrls(post.getMediaUrls()));
         post.setCreatedAt(new Date());
         post.setUpdatedAt(new Date());
         post.setLikes(new ArrayList<>());
+        post.setLikeCount(0);
         post.setComments(new ArrayList<>());
-        return postRepository.save(post);
+        post.setCommentCount(0);
+        Post saved = postRepository.save(post);
+        eventPublisher.publishEvent(new ContentCreatedEvent(FeedItemType.POST, saved.getId(), saved.getUserId(), saved.getCreatedAt()));
+        return saved;
+    }
+
+    //create a post from multipart uploads; each file is streamed into the blob store before the post is saved
+    public Post createPostWithMedia(Post post, List<MultipartFile> files) {
+        List<String> mediaUrls = new ArrayList<>();
+        if (files != null) {
+            for (MultipartFile file : files) {
+                try (InputStream in = file.getInputStream()) {
+                    mediaUrls.add(mediaService.toMediaEntry(mediaService.storeUpload(in, file.getContentType())));
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Failed to store media", e);
+                }
+            }
+        }
+        post.setMediaUrls(mediaUrls);
+        return createPost(post);
     }
 
     public List<Post> getAllPosts() {
         return postRepository.findAllByOrderByCreatedAtDesc();
     }
 
+    //one page of the feed, newest first; pass the previous page's nextCursor to continue
+    public CursorPage<Post> getPostsPage(String cursor, Integer limit) {
+        return cursorPagination.page(Post.class, null, cursor, limit, Post::getCreatedAt, Post::getId);
+    }
+
     public Post getPostById(String id) {
         return postRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Post not found"));
@@ -50,86 +109,85 @@ public class PostService {
         return postRepository.findByUserIdOrderByCreatedAtDesc(userId);
     }
 
+    public CursorPage<Post> getPostsPageByUserId(String userId, String cursor, Integer limit) {
+        return cursorPagination.page(Post.class, Criteria.where("userId").is(userId), cursor, limit,
+                Post::getCreatedAt, Post::getId);
+    }
+
+    //only the editable fields are written, so likes and comments changed since the post was read are kept
     public Post updatePost(String id, Post postDetails) {
-        Post post = getPostById(id);
-        post.setDescription(postDetails.getDescription());
-        post.setMediaUrls(postDetails.getMediaUrls());
-        post.setUpdatedAt(new Date());
-        return postRepository.save(post);
+        Update update = new Update()
+                .set("description", postDetails.getDescription())
+                .set("mediaUrls", mediaService.externalizeMediaUrls(postDetails.getMediaUrls()))
+                .set("updatedAt", new Date());
+        Post post = mongoTemplate.findAndModify(new Query(Criteria.where("_id").is(id)), update,
+                FindAndModifyOptions.options().returnNew(true), Post.class);
+        if (post == null) {
+            throw new RuntimeException("Post not found");
+        }
+        return post;
     }
 
     public void deletePost(String id) {
         Post post = getPostById(id);
         postRepository.delete(post);
+        eventPublisher.publishEvent(new ContentDeletedEvent(FeedItemType.POST, id, post.getUserId()));
     }
 
-    public Post addComment(String postId, Comment comment) {
-        Post post = getPostById(postId);
-        if (post.getComments() == null) {
-            post.setComments(new ArrayList<>());
+    public CommentsResponse addComment(String postId, Comment comment) {
+        CommentService.CommentChange change = commentService.addComment(FeedItemType.POST, postId, comment);
+        if (change == null) {
+            throw new RuntimeException("Post not found");
         }
-        if (comment.getUserName() == null || comment.getUserName().isEmpty()) {
-            comment.setUserName("Unknown User");
-        }
-        comment.setId(UUID.randomUUID().toString());
-        comment.setCreatedAt(new Date());
-        comment.setUpdatedAt(new Date());
-        post.getComments().add(comment);
-        post = postRepository.save(post);
         //trigger notification if commenter is not the post owner
-        if (!post.getUserId().equals(comment.getUserId())) {
-            notificationService.createCommentNotification(postId, post.getUserId(), comment.getUserId(),
+        if (!change.ownerId().equals(comment.getUserId())) {
+            notificationService.createCommentNotification(postId, change.ownerId(), comment.getUserId(),
                     comment.getContent());
         }
-        return post;
+        return change.response();
     }
 
-    public Post updateComment(String postId, String commentId, Comment commentDetails) {
-        Post post = getPostById(postId);
-        post.getComments().stream()
-                .filter(c -> c.getId().equals(commentId))
-                .findFirst()
-                .ifPresent(c -> {
-                    c.setContent(commentDetails.getContent());
-                    c.setUpdatedAt(new Date());
-                });
-        return postRepository.save(post);
+    public CursorPage<Comment> getComments(String postId, String cursor, Integer limit) {
+        return commentService.getComments(FeedItemType.POST, postId, cursor, limit);
     }
 
-    public Post deleteComment(String postId, String commentId, String userId) {
-        Post post = getPostById(postId);
-        boolean isPostOwner = post.getUserId().equals(userId);
-        post.setComments(post.getComments().stream()
-                .filter(c -> !(c.getId().equals(commentId) && (c.getUserId().equals(userId) || isPostOwner)))
-                .collect(Collectors.toList()));
-        return postRepository.save(post);
+    public CommentsResponse updateComment(String postId, String commentId, Comment commentDetails) {
+        CommentService.CommentChange change = commentService.updateComment(FeedItemType.POST, postId, commentId,
+                commentDetails.getContent());
+        if (change == null) {
+            throw new RuntimeException("Post not found");
+        }
+        return change.response();
     }
 
-    public Post addLike(String postId, Like like) {
-        Post post = getPostById(postId);
-        if (post.getLikes() == null) {
-            post.setLikes(new ArrayList<>());
+    public CommentsResponse deleteComment(String postId, String commentId, String userId) {
+        CommentService.CommentChange change = commentService.deleteComment(FeedItemType.POST, postId, commentId, userId);
+        if (change == null) {
+            throw new RuntimeException("Post not found");
         }
-        boolean alreadyLiked = post.getLikes().stream()
-                .anyMatch(l -> l.getUserId().equals(like.getUserId()));
-
-        if (!alreadyLiked) {
-            like.setCreatedAt(new Date());
-            post.getLikes().add(like);
-            post = postRepository.save(post);
-            // Trigger notification if liker is not the post owner
-            if (!post.getUserId().equals(like.getUserId())) {
-                notificationService.createLikeNotification(postId, post.getUserId(), like.getUserId());
-            }
+        return change.response();
+    }
+
+    public LikeResponse addLike(String postId, Like like) {
+        if (like.getUserId() == null || like.getUserId().isEmpty()) {
+            throw new IllegalArgumentException("User ID is required");
         }
-        return post;
+        LikeService.LikeChange change = likeService.like(FeedItemType.POST, postId, like.getUserId());
+        if (change == null) {
+            throw new RuntimeException("Post not found");
+        }
+        // Trigger notification if liker is not the post owner
+        if (change.changed() && !change.ownerId().equals(like.getUserId())) {
+            notificationService.createLikeNotification(postId, change.ownerId(), like.getUserId());
+        }
+        return new LikeResponse(postId, change.likeCount(), true);
     }
 
-    public Post removeLike(String postId, String userId) {
-        Post post = getPostById(postId);
-        post.setLikes(post.getLikes().stream()
-                .filter(like -> !like.getUserId().equals(userId))
-                .collect(Collectors.toList()));
-        return postRepository.save(post);
+    public LikeResponse removeLike(String postId, String userId) {
+        LikeService.LikeChange change = likeService.unlike(FeedItemType.POST, postId, userId);
+        if (change == null) {
+            throw new RuntimeException("Post not found");
+        }
+        return new LikeResponse(postId, change.likeCount(), false);
     }
-}
\ No newline at end of file
+}
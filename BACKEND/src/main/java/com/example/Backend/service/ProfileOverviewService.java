@@ -0,0 +1,144 @@
+package com.example.Backend.service;
+
+import com.example.Backend.dto.ProfileOverview;
+import com.example.Backend.dto.UserProfileDTO;
+import com.example.Backend.model.User;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+// Builds the profile page's opening payload by running its independent reads side by side on a bounded pool, so the
+// page waits for the slowest read instead of the sum of them. Every section has its own deadline; a section that
+// misses it or fails is left out and reported, and the rest is still returned.
+@Service
+public class ProfileOverviewService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProfileOverviewService.class);
+
+    private final UserService userService;
+    private final UserStatsService userStatsService;
+    private final PostService postService;
+    private final LearningProgressService learningProgressService;
+    private final LearningPlanService learningPlanService;
+    private final UserSummaryService userSummaryService;
+    private final FollowService followService;
+    private final long sectionTimeoutMillis;
+    private final ThreadPoolExecutor executor;
+
+    public ProfileOverviewService(UserService userService, UserStatsService userStatsService,
+                                  PostService postService, LearningProgressService learningProgressService,
+                                  LearningPlanService learningPlanService, UserSummaryService userSummaryService,
+                                  FollowService followService,
+                                  @Value("${profile.overview.section-timeout:2s}") Duration sectionTimeout,
+                                  @Value("${profile.overview.workers:16}") int workers,
+                                  @Value("${profile.overview.queue-capacity:500}") int queueCapacity) {
+        this.userService = userService;
+        this.userStatsService = userStatsService;
+        this.postService = postService;
+        this.learningProgressService = learningProgressService;
+        this.learningPlanService = learningPlanService;
+        this.userSummaryService = userSummaryService;
+        this.followService = followService;
+        this.sectionTimeoutMillis = sectionTimeout.toMillis();
+        AtomicInteger threadCount = new AtomicInteger();
+        //a full queue rejects the section, which is then reported as incomplete rather than run on the request thread
+        this.executor = new ThreadPoolExecutor(workers, workers, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "profile-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    //the profile of userId as viewerId (may be null) sees it, with the first page of each list
+    public ProfileOverview getOverview(String userId, String viewerId, Integer limit) {
+        //the one read everything else depends on; usually answered by the user cache
+        User user = userService.findProfile(userId);
+        if (user == null) {
+            throw new NoSuchElementException("User not found");
+        }
+
+        ProfileOverview overview = new ProfileOverview();
+        UserProfileDTO profile = userService.convertToProfileDTO(user);
+        overview.setProfile(profile);
+
+        Map<String, Section<?>> sections = new LinkedHashMap<>();
+        if (viewerId != null && !viewerId.equals(userId)) {
+            sections.put("viewerFollows", section(() -> followService.isFollowing(viewerId, userId),
+                    (target, follows) -> target.getProfile().setViewerFollows(follows)));
+        }
+        sections.put("stats", section(() -> userStatsService.getStats(user), ProfileOverview::setStats));
+        sections.put("posts", section(() -> postService.getPostsPageByUserId(userId, null, limit),
+                ProfileOverview::setPosts));
+        sections.put("progress", section(() -> learningProgressService.getLearningProgressPageByUserId(userId, null, limit),
+                ProfileOverview::setProgress));
+        sections.put("plans", section(() -> learningPlanService.getLearningPlansPageByUserId(userId, null, limit),
+                ProfileOverview::setPlans));
+        sections.put("followers", section(() -> userSummaryService.getFollowers(userId, viewerId, null, limit),
+                ProfileOverview::setFollowers));
+
+        //all sections started together share one deadline, so the wait is bounded by the timeout, not their number
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sectionTimeoutMillis);
+        for (Map.Entry<String, Section<?>> section : sections.entrySet()) {
+            if (!section.getValue().applyTo(overview, deadline)) {
+                overview.getIncomplete().add(section.getKey());
+            }
+        }
+        if (!overview.getIncomplete().isEmpty()) {
+            log.debug("Profile overview of {} is missing {}", userId, overview.getIncomplete());
+        }
+        return overview;
+    }
+
+    private <T> Section<T> section(Supplier<T> read, BiConsumer<ProfileOverview, T> setter) {
+        CompletableFuture<T> future;
+        try {
+            future = CompletableFuture.supplyAsync(read, executor);
+        } catch (RuntimeException e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+        return new Section<>(future, setter);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private record Section<T>(CompletableFuture<T> future, BiConsumer<ProfileOverview, T> setter) {
+
+        //wait for the value until the deadline and set it; false if the section failed or ran out of time
+        boolean applyTo(ProfileOverview overview, long deadline) {
+            try {
+                T value = future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                setter.accept(overview, value);
+                return true;
+            } catch (TimeoutException e) {
+                future.cancel(false);
+                return false;
+            } catch (ExecutionException e) {
+                log.warn("Profile overview section failed: {}", e.getCause().getMessage());
+                return false;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+    }
+}
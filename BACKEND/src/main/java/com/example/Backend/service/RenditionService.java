@@ -0,0 +1,179 @@
+package com.example.Backend.service;
+
+import com.example.Backend.event.MediaStoredEvent;
+import com.example.Backend.model.MediaAsset;
+import com.example.Backend.model.MediaRendition;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Generates downscaled copies of uploaded photos on a small bounded worker pool so feed cards can load thumbnails.
+@Service
+public class RenditionService {
+
+    private static final Logger log = LoggerFactory.getLogger(RenditionService.class);
+
+    private final MediaService mediaService;
+    private final List<Integer> widths;
+    private final long lazyTimeoutMillis;
+    private final long retryAfterMillis;
+    private final ThreadPoolExecutor executor;
+    private final Map<String, CompletableFuture<MediaAsset>> inFlight = new ConcurrentHashMap<>();
+
+    public RenditionService(MediaService mediaService,
+                            @Value("${media.renditions.widths:320,1080}") List<Integer> widths,
+                            @Value("${media.renditions.workers:2}") int workers,
+                            @Value("${media.renditions.queue-capacity:200}") int queueCapacity,
+                            @Value("${media.renditions.lazy-timeout-ms:1000}") long lazyTimeoutMillis,
+                            @Value("${media.renditions.retry-after:1h}") Duration retryAfter) {
+        this.mediaService = mediaService;
+        this.widths = widths.stream().sorted().toList();
+        this.lazyTimeoutMillis = lazyTimeoutMillis;
+        this.retryAfterMillis = retryAfter.toMillis();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workers, workers, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "rendition-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @EventListener
+    public void onMediaStored(MediaStoredEvent event) {
+        if (supports(event.asset())) {
+            schedule(event.asset());
+        }
+    }
+
+    //which media to serve for a request; provisional when the original stands in for a rendition that is not ready yet
+    public record Resolution(String mediaId, boolean provisional) {
+    }
+
+    //pick the media id to serve for a requested display width: the smallest rendition at least that wide
+    public Resolution resolve(String id, Integer requestedWidth) {
+        MediaAsset asset = mediaService.getMedia(id);
+        if (requestedWidth == null || requestedWidth <= 0 || !supports(asset)) {
+            return new Resolution(id, false);
+        }
+        if (asset.getRenditions() == null && recentlyFailed(asset)) {
+            //a recent attempt failed, so serve the original at once instead of decoding it again for every request
+            return new Resolution(id, true);
+        }
+        if (asset.getRenditions() == null) {
+            //the background job has not run yet, so generate now but never block the request for long
+            try {
+                asset = schedule(asset).get(lazyTimeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (Exception e) {
+                return new Resolution(id, true);
+            }
+        }
+        return asset.getRenditions().stream()
+                .filter(r -> r.getWidth() >= requestedWidth)
+                .map(r -> new Resolution(r.getMediaId(), false))
+                .findFirst()
+                .orElse(new Resolution(id, false));
+    }
+
+    //queue generation for an asset; concurrent callers for the same asset share one job
+    public CompletableFuture<MediaAsset> schedule(MediaAsset asset) {
+        CompletableFuture<MediaAsset> job = new CompletableFuture<>();
+        CompletableFuture<MediaAsset> existing = inFlight.putIfAbsent(asset.getId(), job);
+        if (existing != null) {
+            return existing;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    job.complete(generate(asset.getId()));
+                } catch (Throwable t) {
+                    log.warn("Rendition generation failed for {}: {}", asset.getId(), t.getMessage());
+                    recordFailure(asset.getId());
+                    job.completeExceptionally(t);
+                } finally {
+                    inFlight.remove(asset.getId(), job);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            //queue is full; the rendition will be produced lazily on first request instead
+            inFlight.remove(asset.getId(), job);
+            job.completeExceptionally(e);
+        }
+        return job;
+    }
+
+    private boolean recentlyFailed(MediaAsset asset) {
+        Date failedAt = asset.getRenditionsFailedAt();
+        return failedAt != null && failedAt.getTime() > System.currentTimeMillis() - retryAfterMillis;
+    }
+
+    private void recordFailure(String id) {
+        try {
+            MediaAsset asset = mediaService.getMedia(id);
+            asset.setRenditionsFailedAt(new Date());
+            mediaService.saveAsset(asset);
+        } catch (RuntimeException e) {
+            log.warn("Could not record the failed rendition of {}: {}", id, e.getMessage());
+        }
+    }
+
+    private boolean supports(MediaAsset asset) {
+        String type = asset.getContentType();
+        return asset.getSourceId() == null && ("image/jpeg".equals(type) || "image/png".equals(type));
+    }
+
+    private MediaAsset generate(String id) throws IOException {
+        MediaAsset asset = mediaService.getMedia(id);
+        if (asset.getRenditions() != null) {
+            return asset;
+        }
+
+        BufferedImage source = ImageProcessing.decode(mediaService.locate(asset.getId()), widths.get(widths.size() - 1));
+        List<MediaRendition> renditions = new ArrayList<>();
+        if (source != null) {
+            boolean opaque = source.getTransparency() == Transparency.OPAQUE;
+            String contentType = ImageProcessing.contentType(opaque);
+            for (int width : widths) {
+                if (source.getWidth() <= width) {
+                    break;
+                }
+                int height = Math.max(1, (int) Math.round((double) source.getHeight() * width / source.getWidth()));
+                BufferedImage scaled = ImageProcessing.scale(source, width, height, opaque);
+                byte[] encoded = ImageProcessing.encode(scaled, opaque);
+                try (InputStream in = new ByteArrayInputStream(encoded)) {
+                    MediaAsset stored = mediaService.storeRendition(in, contentType, asset.getId());
+                    renditions.add(new MediaRendition(scaled.getWidth(), scaled.getHeight(), stored.getId(), stored.getSize()));
+                }
+            }
+        }
+        asset.setRenditions(renditions);
+        asset.setRenditionsFailedAt(null);
+        return mediaService.saveAsset(asset);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.Backend.service;
+
+import com.example.Backend.event.StreamEvent;
+
+import java.util.function.Consumer;
+
+// Carries stream events from where they happen to the node holding the recipient's connection. The in-process
+// implementation only reaches this node; a broker-backed one can replace it to span several nodes.
+public interface StreamEventBus {
+
+    void publish(StreamEvent event);
+
+    void subscribe(Consumer<StreamEvent> listener);
+}
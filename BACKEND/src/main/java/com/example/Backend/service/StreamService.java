@@ -0,0 +1,244 @@
+package com.example.Backend.service;
+
+import com.example.Backend.event.ContentCreatedEvent;
+import com.example.Backend.event.StreamEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Date;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Server-Sent Events connections of this node. A connection is an async servlet response, so an idle client holds no
+// thread; writes go through a small bounded pool. Each connection has its own small buffer and at most one sender
+// working on it, so a slow client only ever ties up one sender and only its own events, broadcasts (heartbeat, feed
+// hint) included. Events are hints ("something new, refetch"), so an event that does not fit a connection's buffer is
+// dropped for that connection, and a connection whose write stalls past the write timeout is closed.
+@Service
+public class StreamService {
+
+    private static final Logger log = LoggerFactory.getLogger(StreamService.class);
+
+    private static final Set<ResponseBodyEmitter.DataWithMediaType> HEARTBEAT = SseEmitter.event().comment("hb").build();
+
+    private final long emitterTimeoutMillis;
+    private final int maxConnectionsPerUser;
+    private final int connectionBuffer;
+    private final long writeTimeoutMillis;
+    private final ThreadPoolExecutor sender;
+    private final Counter dropped;
+    private final Map<String, Set<Connection>> connections = new ConcurrentHashMap<>();
+    private final AtomicInteger connectionCount = new AtomicInteger();
+    //new content anywhere only marks the global feed changed; the hint goes out at most once per interval
+    private final AtomicBoolean feedChanged = new AtomicBoolean();
+    private volatile Date latestContent;
+
+    public StreamService(StreamEventBus streamEventBus, MeterRegistry meterRegistry,
+                         @Value("${stream.emitter-timeout:30m}") Duration emitterTimeout,
+                         @Value("${stream.max-connections-per-user:5}") int maxConnectionsPerUser,
+                         @Value("${stream.senders:2}") int senders,
+                         @Value("${stream.send-queue-capacity:10000}") int sendQueueCapacity,
+                         @Value("${stream.connection-buffer:32}") int connectionBuffer,
+                         @Value("${stream.write-timeout-ms:10000}") long writeTimeoutMillis) {
+        this.emitterTimeoutMillis = emitterTimeout.toMillis();
+        this.maxConnectionsPerUser = maxConnectionsPerUser;
+        this.connectionBuffer = connectionBuffer;
+        this.writeTimeoutMillis = writeTimeoutMillis;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.sender = new ThreadPoolExecutor(senders, senders, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(sendQueueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "stream-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        Gauge.builder("stream.connections", connectionCount, AtomicInteger::get).register(meterRegistry);
+        this.dropped = meterRegistry.counter("stream.dropped");
+        streamEventBus.subscribe(this::route);
+    }
+
+    //open a stream for a user; the client reconnects on its own when the timeout closes it
+    public SseEmitter connect(String userId) {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMillis);
+        Connection connection = new Connection(userId, emitter, connectionBuffer);
+        connections.compute(userId, (id, userConnections) -> {
+            Set<Connection> updated = userConnections == null ? ConcurrentHashMap.newKeySet() : userConnections;
+            if (updated.size() >= maxConnectionsPerUser) {
+                throw new IllegalStateException("Too many open streams");
+            }
+            updated.add(connection);
+            return updated;
+        });
+        connectionCount.incrementAndGet();
+        Runnable remove = () -> disconnect(connection);
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(error -> remove.run());
+        send(connection, SseEmitter.event().name("ready").data("ok").build());
+        return emitter;
+    }
+
+    @EventListener
+    public void onContentCreated(ContentCreatedEvent event) {
+        latestContent = event.createdAt();
+        feedChanged.set(true);
+    }
+
+    @Scheduled(fixedDelayString = "${stream.feed-hint-interval-ms:5000}", initialDelayString = "${stream.feed-hint-interval-ms:5000}")
+    public void sendFeedHint() {
+        if (feedChanged.getAndSet(false)) {
+            route(new StreamEvent(null, "feed", Map.of("latest", latestContent)));
+        }
+    }
+
+    //a comment line keeps proxies from closing quiet connections and reveals dead ones
+    @Scheduled(fixedDelayString = "${stream.heartbeat-interval-ms:25000}", initialDelayString = "${stream.heartbeat-interval-ms:25000}")
+    public void heartbeat() {
+        broadcast(HEARTBEAT);
+    }
+
+    //close connections whose write has been blocked for longer than the write timeout; completing the response
+    //fails the blocked write and frees its sender
+    @Scheduled(fixedDelayString = "${stream.write-timeout-ms:10000}", initialDelayString = "${stream.write-timeout-ms:10000}")
+    public void closeStalled() {
+        long stalledSince = System.currentTimeMillis() - writeTimeoutMillis;
+        for (Set<Connection> userConnections : connections.values()) {
+            for (Connection connection : userConnections) {
+                long started = connection.writeStartedAt;
+                if (started != 0 && started < stalledSince) {
+                    log.debug("Closing a stream of {} whose write stalled", connection.userId);
+                    disconnect(connection);
+                    connection.emitter.completeWithError(new IOException("Stream write timed out"));
+                }
+            }
+        }
+    }
+
+    private void route(StreamEvent event) {
+        //built once and shared: every connection gets the same bytes
+        Set<ResponseBodyEmitter.DataWithMediaType> message = SseEmitter.event().name(event.name())
+                .data(event.data(), MediaType.APPLICATION_JSON).build();
+        if (event.userId() == null) {
+            broadcast(message);
+            return;
+        }
+        Set<Connection> userConnections = connections.get(event.userId());
+        if (userConnections != null) {
+            userConnections.forEach(connection -> send(connection, message));
+        }
+    }
+
+    //buffering and scheduling never block, so the broadcast only costs the walk over the connections; each connection is
+    //then written by its own drain and a blocked client holds up no one else
+    private void broadcast(Set<ResponseBodyEmitter.DataWithMediaType> message) {
+        for (Set<Connection> userConnections : connections.values()) {
+            userConnections.forEach(connection -> send(connection, message));
+        }
+    }
+
+    private void send(Connection connection, Set<ResponseBodyEmitter.DataWithMediaType> message) {
+        if (buffer(connection, message)) {
+            schedule(connection);
+        }
+    }
+
+    private boolean buffer(Connection connection, Set<ResponseBodyEmitter.DataWithMediaType> message) {
+        if (connection.pending.offer(message)) {
+            return true;
+        }
+        dropped.increment();
+        log.debug("Stream buffer of {} full, dropping an event", connection.userId);
+        return false;
+    }
+
+    //at most one queued or running drain per connection, so the send queue holds connections, not events
+    private void schedule(Connection connection) {
+        if (!connection.draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            sender.execute(() -> drain(connection));
+        } catch (RejectedExecutionException e) {
+            //the buffered events go out with the connection's next event
+            connection.draining.set(false);
+            log.debug("Stream send queue full, delaying events for {}", connection.userId);
+        }
+    }
+
+    //called only by the sender that set draining
+    private void drain(Connection connection) {
+        try {
+            Set<ResponseBodyEmitter.DataWithMediaType> message;
+            while ((message = connection.pending.poll()) != null) {
+                connection.writeStartedAt = System.currentTimeMillis();
+                try {
+                    connection.emitter.send(message);
+                } catch (Exception e) {
+                    //the client went away; completing triggers the removal callback
+                    connection.pending.clear();
+                    connection.emitter.completeWithError(e);
+                } finally {
+                    connection.writeStartedAt = 0;
+                }
+            }
+        } finally {
+            connection.draining.set(false);
+        }
+        //an event buffered after the last poll but before draining was cleared
+        if (!connection.pending.isEmpty()) {
+            schedule(connection);
+        }
+    }
+
+    private void disconnect(Connection connection) {
+        connections.computeIfPresent(connection.userId, (id, userConnections) -> {
+            if (userConnections.remove(connection)) {
+                connectionCount.decrementAndGet();
+            }
+            return userConnections.isEmpty() ? null : userConnections;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sender.shutdownNow();
+        for (Set<Connection> userConnections : connections.values()) {
+            userConnections.forEach(connection -> connection.emitter.complete());
+        }
+    }
+
+    private static final class Connection {
+        private final String userId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<Set<ResponseBodyEmitter.DataWithMediaType>> pending;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        //when the write in progress started, 0 while no write is in progress
+        private volatile long writeStartedAt;
+
+        private Connection(String userId, SseEmitter emitter, int buffer) {
+            this.userId = userId;
+            this.emitter = emitter;
+            this.pending = new ArrayBlockingQueue<>(buffer);
+        }
+    }
+}
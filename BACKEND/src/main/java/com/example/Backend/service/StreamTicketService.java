@@ -0,0 +1,45 @@
+package com.example.Backend.service;
+
+import com.example.Backend.model.StreamTicket;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Date;
+
+// Issues and redeems stream tickets. A ticket only opens one stream and only within a short time, so it is harmless
+// once it has shown up in a URL or a request log. Tickets live in Mongo so any node can redeem them.
+@Service
+public class StreamTicketService {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final MongoTemplate mongoTemplate;
+    private final long ttlMillis;
+
+    public StreamTicketService(MongoTemplate mongoTemplate, @Value("${stream.ticket-ttl:30s}") Duration ttl) {
+        this.mongoTemplate = mongoTemplate;
+        this.ttlMillis = ttl.toMillis();
+    }
+
+    //a new ticket for a signed-in user
+    public String issue(String userId) {
+        byte[] bytes = new byte[32];
+        RANDOM.nextBytes(bytes);
+        String ticket = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        mongoTemplate.insert(new StreamTicket(ticket, userId, new Date(System.currentTimeMillis() + ttlMillis)));
+        return ticket;
+    }
+
+    //the user a ticket was issued to, or null when it is unknown, expired or already used; redeeming removes it
+    public String redeem(String ticket) {
+        StreamTicket redeemed = mongoTemplate.findAndRemove(
+                new Query(Criteria.where("_id").is(ticket).and("expiresAt").gt(new Date())), StreamTicket.class);
+        return redeemed == null ? null : redeemed.getUserId();
+    }
+}
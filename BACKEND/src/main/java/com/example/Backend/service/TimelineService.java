@@ -0,0 +1,240 @@
+package com.example.Backend.service;
+
+import com.example.Backend.dto.CursorPage;
+import com.example.Backend.dto.FeedItem;
+import com.example.Backend.enums.FeedItemType;
+import com.example.Backend.event.ContentCreatedEvent;
+import com.example.Backend.event.ContentDeletedEvent;
+import com.example.Backend.event.StreamEvent;
+import com.example.Backend.event.UnfollowedEvent;
+import com.example.Backend.model.FeedContent;
+import com.example.Backend.model.LearningPlan;
+import com.example.Backend.model.LearningProgress;
+import com.example.Backend.model.Post;
+import com.example.Backend.model.TimelineEntry;
+import com.example.Backend.model.User;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Home timelines built by fan-out on write: new content is copied as a small reference into every follower's timeline,
+// so reading a timeline is one indexed range scan. Authors with very many followers are skipped on write and merged in
+// on read instead, which keeps a single post from turning into millions of inserts.
+@Service
+public class TimelineService {
+
+    private static final Logger log = LoggerFactory.getLogger(TimelineService.class);
+
+    static final Map<FeedItemType, Class<? extends FeedContent>> ITEM_CLASSES = new EnumMap<>(FeedItemType.class);
+
+    static {
+        ITEM_CLASSES.put(FeedItemType.POST, Post.class);
+        ITEM_CLASSES.put(FeedItemType.LEARNING_PROGRESS, LearningProgress.class);
+        ITEM_CLASSES.put(FeedItemType.LEARNING_PLAN, LearningPlan.class);
+    }
+
+    //newest first, ties broken by item id so the order matches the cursor
+    private static final Comparator<TimelineEntry> NEWEST_FIRST = Comparator
+            .comparing(TimelineEntry::getCreatedAt)
+            .thenComparing(TimelineEntry::getItemId)
+            .reversed();
+
+    private final MongoTemplate mongoTemplate;
+    private final CursorPagination cursorPagination;
+    private final LikeService likeService;
+    private final StreamEventBus streamEventBus;
+    private final FollowService followService;
+    private final int maxFanoutFollowers;
+    private final int batchSize;
+    private final ThreadPoolExecutor executor;
+
+    public TimelineService(MongoTemplate mongoTemplate, CursorPagination cursorPagination, LikeService likeService,
+                           StreamEventBus streamEventBus, FollowService followService,
+                           @Value("${feed.fanout.max-followers:5000}") int maxFanoutFollowers,
+                           @Value("${feed.fanout.batch-size:1000}") int batchSize,
+                           @Value("${feed.fanout.workers:2}") int workers,
+                           @Value("${feed.fanout.queue-capacity:1000}") int queueCapacity) {
+        this.mongoTemplate = mongoTemplate;
+        this.cursorPagination = cursorPagination;
+        this.likeService = likeService;
+        this.streamEventBus = streamEventBus;
+        this.followService = followService;
+        this.maxFanoutFollowers = maxFanoutFollowers;
+        this.batchSize = batchSize;
+        AtomicInteger threadCount = new AtomicInteger();
+        //when the queue is full the publishing thread does the work itself, so no timeline write is dropped
+        this.executor = new ThreadPoolExecutor(workers, workers, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "timeline-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @EventListener
+    public void onContentCreated(ContentCreatedEvent event) {
+        executor.execute(() -> {
+            try {
+                fanOut(event);
+            } catch (RuntimeException e) {
+                log.warn("Timeline fan-out failed for {} {}: {}", event.type(), event.itemId(), e.getMessage());
+            }
+        });
+    }
+
+    @EventListener
+    public void onContentDeleted(ContentDeletedEvent event) {
+        executor.execute(() -> {
+            try {
+                mongoTemplate.remove(new Query(Criteria.where("itemId").is(event.itemId())), TimelineEntry.class);
+            } catch (RuntimeException e) {
+                log.warn("Timeline cleanup failed for {} {}: {}", event.type(), event.itemId(), e.getMessage());
+            }
+        });
+    }
+
+    //the followee's fanned-out items leave the former follower's timeline; their own timeline keeps them
+    @EventListener
+    public void onUnfollowed(UnfollowedEvent event) {
+        executor.execute(() -> {
+            try {
+                mongoTemplate.remove(new Query(Criteria.where("ownerId").is(event.followerId())
+                        .and("authorId").is(event.followeeId())), TimelineEntry.class);
+            } catch (RuntimeException e) {
+                log.warn("Timeline cleanup failed after {} unfollowed {}: {}", event.followerId(), event.followeeId(),
+                        e.getMessage());
+            }
+        });
+    }
+
+    //write a reference to the item into the author's own timeline and, unless the author has too many, every follower's
+    void fanOut(ContentCreatedEvent event) {
+        List<String> owners = new ArrayList<>();
+        owners.add(event.authorId());
+        if (!isHighFanout(event.authorId())) {
+            owners.addAll(followService.followerIds(event.authorId()));
+        }
+
+        for (int start = 0; start < owners.size(); start += batchSize) {
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, TimelineEntry.class);
+            for (String ownerId : owners.subList(start, Math.min(owners.size(), start + batchSize))) {
+                bulk.insert(new TimelineEntry(ownerId, event.type(), event.itemId(), event.authorId(), event.createdAt()));
+            }
+            bulk.execute();
+        }
+        //open clients refetch their timeline head on this hint instead of polling for it
+        Map<String, Object> hint = Map.of("type", event.type(), "itemId", event.itemId());
+        for (String ownerId : owners) {
+            streamEventBus.publish(new StreamEvent(ownerId, "timeline", hint));
+        }
+    }
+
+    //one page of a user's home timeline, newest first
+    public CursorPage<FeedItem> getHomeTimeline(String userId, String cursor, Integer limit) {
+        int pageSize = CursorPagination.pageSize(limit);
+        CursorPagination.Position after = CursorPagination.decodeOrNull(cursor);
+
+        List<TimelineEntry> entries = new ArrayList<>(cursorPagination.after(TimelineEntry.class,
+                Criteria.where("ownerId").is(userId), after, "itemId", pageSize + 1));
+
+        //fan-out on read for followed authors that were skipped on write
+        Map<String, FeedContent> loaded = new HashMap<>();
+        for (String authorId : highFanoutFollowing(userId)) {
+            for (Map.Entry<FeedItemType, Class<? extends FeedContent>> source : ITEM_CLASSES.entrySet()) {
+                for (FeedContent item : cursorPagination.after(source.getValue(),
+                        Criteria.where("userId").is(authorId), after, "_id", pageSize + 1)) {
+                    entries.add(new TimelineEntry(userId, source.getKey(), item.getId(), authorId, item.getCreatedAt()));
+                    loaded.put(item.getId(), item);
+                }
+            }
+        }
+
+        //an author can cross the fan-out threshold, so the same item may come from both paths
+        Map<String, TimelineEntry> merged = new LinkedHashMap<>();
+        entries.sort(NEWEST_FIRST);
+        for (TimelineEntry entry : entries) {
+            if (merged.size() > pageSize) {
+                break;
+            }
+            merged.putIfAbsent(entry.getItemId(), entry);
+        }
+        List<TimelineEntry> page = new ArrayList<>(merged.values());
+        String nextCursor = null;
+        if (page.size() > pageSize) {
+            page = page.subList(0, pageSize);
+            TimelineEntry last = page.get(pageSize - 1);
+            nextCursor = CursorPagination.encode(last.getCreatedAt(), last.getItemId());
+        }
+        List<FeedItem> items = hydrate(page, loaded);
+        likeService.applyViewerState(items, userId);
+        return new CursorPage<>(items, nextCursor);
+    }
+
+    //load the referenced items with one query per type; items deleted since the entry was written are left out
+    private List<FeedItem> hydrate(List<TimelineEntry> entries, Map<String, FeedContent> loaded) {
+        Map<FeedItemType, List<String>> missing = new EnumMap<>(FeedItemType.class);
+        for (TimelineEntry entry : entries) {
+            if (!loaded.containsKey(entry.getItemId())) {
+                missing.computeIfAbsent(entry.getType(), type -> new ArrayList<>()).add(entry.getItemId());
+            }
+        }
+        for (Map.Entry<FeedItemType, List<String>> ids : missing.entrySet()) {
+            Query query = new Query(Criteria.where("_id").in(ids.getValue()));
+            query.fields().exclude("likes");
+            for (FeedContent item : mongoTemplate.find(query, ITEM_CLASSES.get(ids.getKey()))) {
+                loaded.put(item.getId(), item);
+            }
+        }
+
+        List<FeedItem> items = new ArrayList<>();
+        for (TimelineEntry entry : entries) {
+            FeedContent item = loaded.get(entry.getItemId());
+            if (item != null) {
+                items.add(new FeedItem(entry.getType(), item.getId(), item.getCreatedAt(), item));
+            }
+        }
+        return items;
+    }
+
+    //true when the author has more followers than fan-out on write allows
+    private boolean isHighFanout(String authorId) {
+        return mongoTemplate.exists(new Query(Criteria.where("_id").is(authorId)
+                .and("followerCount").gt(maxFanoutFollowers)), User.class);
+    }
+
+    //the high-fanout authors userId follows: the few users over the limit, narrowed by one edge lookup
+    private List<String> highFanoutFollowing(String userId) {
+        Query authors = new Query(Criteria.where("followerCount").gt(maxFanoutFollowers));
+        authors.fields().include("_id");
+        List<String> authorIds = mongoTemplate.find(authors, User.class).stream().map(User::getId).toList();
+        if (authorIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return List.copyOf(followService.followedAmong(userId, authorIds));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,282 @@
+package com.example.Backend.service;
+
+import com.example.Backend.dto.UploadSessionRequest;
+import com.example.Backend.enums.UploadStatus;
+import com.example.Backend.model.MediaAsset;
+import com.example.Backend.model.UploadSession;
+import com.example.Backend.repository.UploadSessionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+// Resumable uploads: each numbered chunk is written to a temp file and moved into place whole, so a chunk that was
+// acknowledged never holds a mix of two attempts. Completing concatenates the chunks into a file of its own, checks it
+// against the checksum the client declared and moves that exact file into the blob store.
+@Service
+public class UploadSessionService {
+
+    private static final Logger log = LoggerFactory.getLogger(UploadSessionService.class);
+
+    private static final int MIN_CHUNK_SIZE = 256 * 1024;
+    private static final int MAX_CHUNK_SIZE = 16 * 1024 * 1024;
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    private final UploadSessionRepository uploadSessionRepository;
+    private final MongoTemplate mongoTemplate;
+    private final MediaService mediaService;
+    private final Path sessionDir;
+    private final Duration sessionTtl;
+
+    public UploadSessionService(UploadSessionRepository uploadSessionRepository, MongoTemplate mongoTemplate,
+                                MediaService mediaService,
+                                @Value("${media.upload.session-dir:media-store/sessions}") String sessionDir,
+                                @Value("${media.upload.session-ttl:24h}") Duration sessionTtl) throws IOException {
+        this.uploadSessionRepository = uploadSessionRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.mediaService = mediaService;
+        this.sessionDir = Paths.get(sessionDir).toAbsolutePath().normalize();
+        this.sessionTtl = sessionTtl;
+        Files.createDirectories(this.sessionDir);
+    }
+
+    //open a new upload session
+    public UploadSession createSession(UploadSessionRequest request) {
+        if (request.getUserId() == null || request.getUserId().isEmpty()) {
+            throw new IllegalArgumentException("User ID is required");
+        }
+        if (request.getTotalSize() <= 0 || request.getTotalSize() > mediaService.maxUploadBytes()) {
+            throw new IllegalArgumentException("File size must be between 1 and " + mediaService.maxUploadBytes() + " bytes");
+        }
+        if (request.getChunkSize() < MIN_CHUNK_SIZE || request.getChunkSize() > MAX_CHUNK_SIZE) {
+            throw new IllegalArgumentException("Chunk size must be between " + MIN_CHUNK_SIZE + " and " + MAX_CHUNK_SIZE + " bytes");
+        }
+        if (request.getSha256() == null || !LocalBlobStore.isValidKey(request.getSha256().toLowerCase())) {
+            throw new IllegalArgumentException("sha256 must be a hex encoded SHA-256 digest");
+        }
+
+        UploadSession session = new UploadSession();
+        session.setId(UUID.randomUUID().toString());
+        session.setUserId(request.getUserId());
+        session.setFileName(request.getFileName());
+        session.setContentType(request.getContentType());
+        session.setTotalSize(request.getTotalSize());
+        session.setChunkSize(request.getChunkSize());
+        session.setTotalChunks((int) ((request.getTotalSize() + request.getChunkSize() - 1) / request.getChunkSize()));
+        session.setSha256(request.getSha256().toLowerCase());
+        session.setReceivedChunks(new ArrayList<>());
+        session.setStatus(UploadStatus.OPEN);
+        session.setCreatedAt(new Date());
+        session.setUpdatedAt(new Date());
+        return uploadSessionRepository.save(session);
+    }
+
+    public UploadSession getSession(String sessionId) {
+        return uploadSessionRepository.findById(sessionId)
+                .orElseThrow(() -> new NoSuchElementException("Upload session not found"));
+    }
+
+    //write one chunk to a temp file and move it into place whole; re-sending a chunk replaces it, so retries are safe
+    //and a retry that is cut off leaves the chunk received earlier untouched
+    public UploadSession writeChunk(String sessionId, int index, InputStream content) throws IOException {
+        UploadSession session = getSession(sessionId);
+        if (session.getStatus() != UploadStatus.OPEN) {
+            throw new IllegalStateException("Upload session is not accepting chunks");
+        }
+        if (index < 0 || index >= session.getTotalChunks()) {
+            throw new IllegalArgumentException("Chunk index out of range");
+        }
+
+        long offset = (long) index * session.getChunkSize();
+        long expected = Math.min(session.getChunkSize(), session.getTotalSize() - offset);
+        Path chunks = Files.createDirectories(chunkDir(sessionId));
+        Path temp = chunks.resolve(index + "." + UUID.randomUUID() + ".tmp");
+        try {
+            long written = 0;
+            //a fixed buffer per request keeps memory constant whatever the file size
+            byte[] buffer = new byte[COPY_BUFFER_SIZE];
+            try (OutputStream out = Files.newOutputStream(temp, StandardOpenOption.CREATE_NEW)) {
+                int read;
+                while ((read = content.read(buffer)) != -1) {
+                    if (written + read > expected) {
+                        throw new IllegalArgumentException("Chunk " + index + " must be exactly " + expected + " bytes");
+                    }
+                    out.write(buffer, 0, read);
+                    written += read;
+                }
+            }
+            if (written != expected) {
+                throw new IllegalArgumentException("Chunk " + index + " must be exactly " + expected + " bytes");
+            }
+            //completion may have started while the chunk was arriving
+            if (getSession(sessionId).getStatus() != UploadStatus.OPEN) {
+                throw new IllegalStateException("Upload session is not accepting chunks");
+            }
+            Files.move(temp, chunkFile(sessionId, index), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+
+        //addToSet keeps concurrent chunk uploads for the same session from overwriting each other
+        UploadSession updated = mongoTemplate.findAndModify(
+                new Query(Criteria.where("_id").is(sessionId).and("status").is(UploadStatus.OPEN)),
+                new Update().addToSet("receivedChunks", index).set("updatedAt", new Date()),
+                FindAndModifyOptions.options().returnNew(true),
+                UploadSession.class);
+        if (updated == null) {
+            throw new IllegalStateException("Upload session is not accepting chunks");
+        }
+        return updated;
+    }
+
+    //assemble the upload into the blob store once every chunk has arrived and the checksum matches
+    public MediaAsset complete(String sessionId) throws IOException {
+        UploadSession session = mongoTemplate.findAndModify(
+                new Query(Criteria.where("_id").is(sessionId).and("status").is(UploadStatus.OPEN)),
+                new Update().set("status", UploadStatus.COMPLETING).set("updatedAt", new Date()),
+                FindAndModifyOptions.options().returnNew(true),
+                UploadSession.class);
+        if (session == null) {
+            UploadSession existing = getSession(sessionId);
+            if (existing.getStatus() == UploadStatus.COMPLETED) {
+                return mediaService.getMedia(existing.getMediaId());
+            }
+            throw new IllegalStateException("Upload session is already being completed");
+        }
+
+        if (session.getReceivedChunks().size() != session.getTotalChunks()) {
+            reopen(sessionId, false);
+            throw new IllegalStateException("Upload is missing " + (session.getTotalChunks() - session.getReceivedChunks().size()) + " chunks");
+        }
+
+        //the file that is checked is the file that is stored; no chunk write can reach it
+        Path part = partFile(sessionId);
+        String checksum;
+        try {
+            checksum = assemble(session, part);
+        } catch (IOException | RuntimeException e) {
+            reopen(sessionId, false);
+            Files.deleteIfExists(part);
+            throw e;
+        }
+        if (!session.getSha256().equals(checksum)) {
+            //the assembled bytes are corrupt, so the client has to send every chunk again
+            reopen(sessionId, true);
+            Files.deleteIfExists(part);
+            deleteChunks(sessionId);
+            throw new IllegalArgumentException("Checksum mismatch, upload the file again");
+        }
+
+        MediaAsset asset;
+        try (InputStream in = Files.newInputStream(part)) {
+            asset = mediaService.storeUpload(in, session.getContentType());
+        } catch (IOException | RuntimeException e) {
+            reopen(sessionId, false);
+            throw e;
+        } finally {
+            Files.deleteIfExists(part);
+        }
+
+        mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(sessionId)),
+                new Update().set("status", UploadStatus.COMPLETED).set("mediaId", asset.getId()).set("updatedAt", new Date()),
+                UploadSession.class);
+        deleteChunks(sessionId);
+        return asset;
+    }
+
+    public void cancel(String sessionId) throws IOException {
+        uploadSessionRepository.deleteById(sessionId);
+        Files.deleteIfExists(partFile(sessionId));
+        deleteChunks(sessionId);
+    }
+
+    //remove sessions that have not seen a chunk within the TTL, along with their temp files
+    @Scheduled(fixedDelayString = "${media.upload.session-sweep-interval-ms:3600000}",
+            initialDelayString = "${media.upload.session-sweep-interval-ms:3600000}")
+    public void removeAbandonedSessions() {
+        Date cutoff = new Date(System.currentTimeMillis() - sessionTtl.toMillis());
+        try {
+            //completed sessions are dropped too; they only need to outlive a client re-reading its media id
+            for (UploadSession session : uploadSessionRepository.findByUpdatedAtBefore(cutoff)) {
+                cancel(session.getId());
+            }
+        } catch (Exception e) {
+            log.warn("Failed to sweep abandoned upload sessions: {}", e.getMessage());
+        }
+    }
+
+    private void reopen(String sessionId, boolean clearChunks) {
+        Update update = new Update().set("status", UploadStatus.OPEN).set("updatedAt", new Date());
+        if (clearChunks) {
+            update.set("receivedChunks", new ArrayList<Integer>());
+        }
+        mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(sessionId)), update, UploadSession.class);
+    }
+
+    //concatenate the chunks in order into part, hashing on the way; returns the hex SHA-256 of what was written
+    private String assemble(UploadSession session, Path part) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+        try (OutputStream out = new DigestOutputStream(Files.newOutputStream(part), digest)) {
+            for (int index = 0; index < session.getTotalChunks(); index++) {
+                Files.copy(chunkFile(session.getId(), index), out);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private void deleteChunks(String sessionId) throws IOException {
+        Path chunks = chunkDir(sessionId);
+        if (!Files.isDirectory(chunks)) {
+            return;
+        }
+        try (Stream<Path> files = Files.list(chunks)) {
+            for (Path file : files.toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+        Files.deleteIfExists(chunks);
+    }
+
+    private Path partFile(String sessionId) {
+        //session ids are server-generated UUIDs; reject anything else before touching the filesystem
+        return sessionDir.resolve(UUID.fromString(sessionId) + ".part");
+    }
+
+    private Path chunkDir(String sessionId) {
+        return sessionDir.resolve(UUID.fromString(sessionId).toString());
+    }
+
+    private Path chunkFile(String sessionId, int index) {
+        return chunkDir(sessionId).resolve(index + ".chunk");
+    }
+}
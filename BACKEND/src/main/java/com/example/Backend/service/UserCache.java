@@ -0,0 +1,22 @@
+package com.example.Backend.service;
+
+import com.example.Backend.dto.UserSummary;
+import com.example.Backend.model.User;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.Function;
+
+// Read-through cache of user profiles and list summaries. Lookups take the loader for whatever is missing, so callers
+// never see a miss; users that do not exist are simply absent from the result. Anything that changes a user must call
+// invalidate. The in-process implementation covers one node; a shared one can replace it to span several.
+public interface UserCache {
+
+    //cached profiles must be treated as read-only; write paths load the user themselves
+    Map<String, User> getProfiles(Collection<String> userIds, Function<Collection<String>, Map<String, User>> loader);
+
+    Map<String, UserSummary> getSummaries(Collection<String> userIds,
+                                          Function<Collection<String>, Map<String, UserSummary>> loader);
+
+    void invalidate(String userId);
+}
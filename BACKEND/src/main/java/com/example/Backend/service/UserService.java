@@ -3,6 +3,8 @@ package com.example.Backend.service;
 import com.example.Backend.dto.ProfileUpdateDTO;
 import com.example.Backend.dto.UserDTO;
 import com.example.Backend.dto.UserProfileDTO;
+import com.example.Backend.dto.UserStatsDTO;
+import com.example.Backend.enums.FeedItemType;
 import com.example.Backend.enums.RegistrationSource;
 import com.example.Backend.model.LearningPlan;
 import com.example.Backend.model.LearningProgress;
@@ -16,11 +18,17 @@ import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
 import java.security.Key;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -37,9 +45,15 @@ public class UserService {
     private final Key jwtSecretKey;
     private final LearningProgressRepository learningProgressRepository;
     private final LearningPlanRepository learningPlanRepository;
+    private final AvatarService avatarService;
+    private final ContentSummaryService contentSummaryService;
+    private final FollowService followService;
+    private final UserCache userCache;
+    private final UserStatsService userStatsService;
+    private final MongoTemplate mongoTemplate;
 
     @Autowired
-    public UserService(UserRepository userRepository, PostRepository postRepository, LearningProgressRepository progressRepository, LearningPlanRepository planRepository, BCryptPasswordEncoder bCryptPasswordEncoder, Key jwtSecretKey, LearningProgressRepository learningProgressRepository, LearningPlanService learningPlanService, LearningPlanRepository learningPlanRepository) {
+    public UserService(UserRepository userRepository, PostRepository postRepository, LearningProgressRepository progressRepository, LearningPlanRepository planRepository, BCryptPasswordEncoder bCryptPasswordEncoder, Key jwtSecretKey, LearningProgressRepository learningProgressRepository, LearningPlanService learningPlanService, LearningPlanRepository learningPlanRepository, AvatarService avatarService, ContentSummaryService contentSummaryService, FollowService followService, UserCache userCache, UserStatsService userStatsService, MongoTemplate mongoTemplate) {
         this.userRepository = userRepository;
         this.postRepository = postRepository;
         this.progressRepository = progressRepository;
@@ -48,6 +62,12 @@ public class UserService {
         this.jwtSecretKey = jwtSecretKey;
         this.learningProgressRepository = learningProgressRepository;
         this.learningPlanRepository = learningPlanRepository;
+        this.avatarService = avatarService;
+        this.contentSummaryService = contentSummaryService;
+        this.followService = followService;
+        this.userCache = userCache;
+        this.userStatsService = userStatsService;
+        this.mongoTemplate = mongoTemplate;
     }
 
     public ResponseEntity<Object> createUser(User user) {
@@ -69,14 +89,6 @@ public class UserService {
         }
 
         // Initialize lists if they're null
-        if (user.getFollowingUsers() == null) {
-            user.setFollowingUsers(new ArrayList<>());
-        }
-
-        if (user.getFollowedUsers() == null) {
-            user.setFollowedUsers(new ArrayList<>());
-        }
-
         if (user.getSkills() == null) {
             user.setSkills(new ArrayList<>());
         }
@@ -119,8 +131,8 @@ public class UserService {
         responseMap.put("email", user.getEmail());
         responseMap.put("profileImage", user.getProfileImage());
         responseMap.put("token", token);
-        responseMap.put("followingUsers", user.getFollowingUsers());
-        responseMap.put("followedUsers", user.getFollowedUsers());
+        responseMap.put("followerCount", user.getFollowerCount());
+        responseMap.put("followingCount", user.getFollowingCount());
 
         return ResponseEntity.ok(responseMap);
     }
@@ -140,19 +152,17 @@ public class UserService {
         if (existingUser.isPresent()) {
             // Update existing user
             User userToUpdate = existingUser.get();
-            userToUpdate.setName(user.getName());
-            userToUpdate.setProfileImage(user.getProfileImage());
-            savedUser = userRepository.save(userToUpdate);
-        } else {
-            // Create new user
-            if (user.getFollowingUsers() == null) {
-                user.setFollowingUsers(new ArrayList<>());
+            Update update = new Update().set("name", user.getName());
+            //keep a picture the user uploaded themselves instead of resetting it to the Google one on every login
+            if (userToUpdate.getAvatarId() == null) {
+                update.set("profileImage", user.getProfileImage());
             }
-
-            if (user.getFollowedUsers() == null) {
-                user.setFollowedUsers(new ArrayList<>());
+            savedUser = updateFields(userToUpdate.getId(), update);
+            if (savedUser == null) {
+                throw new RuntimeException("User not found");
             }
-
+        } else {
+            // Create new user
             if (user.getSkills() == null) {
                 user.setSkills(new ArrayList<>());
             }
@@ -175,32 +185,61 @@ public class UserService {
         profileDTO.setBio(user.getBio());
         profileDTO.setSkills(user.getSkills());
         profileDTO.setLocation(user.getLocation());
-        profileDTO.setFollowingUsers(user.getFollowingUsers());
-        profileDTO.setFollowedUsers(user.getFollowedUsers());
+        profileDTO.setFollowerCount(user.getFollowerCount());
+        profileDTO.setFollowingCount(user.getFollowingCount());
         profileDTO.setRegistrationSource(user.getRegistrationSource());
 
         return profileDTO;
     }
 
-    //gt full user profile by ID
-    public ResponseEntity<?> getUserProfile(String userId) {
-        Optional<User> userOpt = userRepository.findById(userId);
+    //gt full user profile by ID; viewerFollows tells whether viewerId (may be null) follows them
+    public ResponseEntity<?> getUserProfile(String userId, String viewerId) {
+        User user = findProfile(userId);
 
-        if (userOpt.isEmpty()) {
+        if (user == null) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body("User not found");
         }
 
-        User user = userOpt.get();
         UserProfileDTO profileDTO = convertToProfileDTO(user);
+        if (viewerId != null && !viewerId.equals(userId)) {
+            profileDTO.setViewerFollows(followService.isFollowing(viewerId, userId));
+        }
 
         return ResponseEntity.ok(profileDTO);
     }
 
-    //get multiple users by IDs (for followers/following lists)
-    public List<UserProfileDTO> getUsersByIds(List<String> userIds) {
-        List<User> users = userRepository.findAllById(userIds);
+    //get multiple users by IDs (for followers/following lists), marking the ones viewerId (may be null) follows
+    public List<UserProfileDTO> getUsersByIds(List<String> userIds, String viewerId) {
+        Map<String, User> users = findProfiles(userIds);
+        Set<String> followed = followService.followedAmong(viewerId, users.keySet());
+
+        return users.values().stream().map(user -> {
+            UserProfileDTO profileDTO = convertToProfileDTO(user);
+            if (viewerId != null && !viewerId.equals(user.getId())) {
+                profileDTO.setViewerFollows(followed.contains(user.getId()));
+            }
+            return profileDTO;
+        }).collect(Collectors.toList());
+    }
+
+    //a user's profile through the user cache, or null; read-only, write paths load the user themselves
+    public User findProfile(String userId) {
+        return findProfiles(List.of(userId)).get(userId);
+    }
+
+    public Map<String, User> findProfiles(Collection<String> userIds) {
+        return userCache.getProfiles(userIds, this::loadProfiles);
+    }
 
-        return users.stream().map(this::convertToProfileDTO).collect(Collectors.toList());
+    //everything a profile shows: not the password hash or the pre-follows-collection arrays
+    private Map<String, User> loadProfiles(Collection<String> userIds) {
+        Query query = new Query(Criteria.where("_id").in(userIds));
+        query.fields().exclude("password", "followingUsers", "followedUsers");
+        Map<String, User> users = new HashMap<>();
+        for (User user : mongoTemplate.find(query, User.class)) {
+            users.put(user.getId(), user);
+        }
+        return users;
     }
 
     //update user profile
@@ -212,107 +251,99 @@ public class UserService {
         }
 
         User user = userOpt.get();
-
+        Update update = new Update();
 
         if (profileDTO.getName() != null && !profileDTO.getName().trim().isEmpty()) {
-            user.setName(profileDTO.getName());
+            update.set("name", profileDTO.getName());
         }
 
         if (profileDTO.getBio() != null) {
-            user.setBio(profileDTO.getBio());
+            update.set("bio", profileDTO.getBio());
         }
 
         if (profileDTO.getSkills() != null) {
-            user.setSkills(profileDTO.getSkills());
+            update.set("skills", profileDTO.getSkills());
         }
 
         if (profileDTO.getLocation() != null) {
-            user.setLocation(profileDTO.getLocation());
+            update.set("location", profileDTO.getLocation());
         }
 
         if (profileDTO.getProfileImage() != null) {
-            user.setProfileImage(profileDTO.getProfileImage());
+            //base64 images are stored as avatar variants so the user document only keeps a URL
+            try {
+                avatarService.applyProfileImage(user, profileDTO.getProfileImage());
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().body(e.getMessage());
+            } catch (IOException e) {
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Failed to store profile image: " + e.getMessage());
+            }
+            update.set("profileImage", user.getProfileImage()).set("avatarId", user.getAvatarId());
         }
 
         try {
-            User updatedUser = userRepository.save(user);
+            User updatedUser = updateFields(userId, update);
+            if (updatedUser == null) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body("User not found");
+            }
             return ResponseEntity.ok(convertToProfileDTO(updatedUser));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Failed to update profile: " + e.getMessage());
         }
     }
 
-    //follow user
-    public ResponseEntity<?> followUser(String userId, String followerId) {
-        Optional<User> targetUserOpt = userRepository.findById(userId);
-        Optional<User> followerUserOpt = userRepository.findById(followerId);
-
-        if (targetUserOpt.isEmpty() || followerUserOpt.isEmpty()) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("User not found");
+    //write only the edited fields: followerCount and followingCount are kept by $inc, and saving a whole User read
+    //earlier would put back the counts it was read with. Returns the updated user, or null if there is none
+    public User updateFields(String userId, Update update) {
+        Query query = new Query(Criteria.where("_id").is(userId));
+        //an empty update would replace the whole document
+        if (update.getUpdateObject().isEmpty()) {
+            return mongoTemplate.findOne(query, User.class);
         }
+        User updated = mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true), User.class);
+        userCache.invalidate(userId);
+        return updated;
+    }
 
-        User targetUser = targetUserOpt.get();
-        User followerUser = followerUserOpt.get();
-
-        //check if already following
-        if (targetUser.getFollowedUsers().contains(followerId) || followerUser.getFollowingUsers().contains(userId)) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Already following this user");
-        }
-
-        //update follower lists
-        targetUser.getFollowedUsers().add(followerId);
-        followerUser.getFollowingUsers().add(userId);
-
+    //follow user; following someone already followed is a no-op, and only the new counts come back
+    public ResponseEntity<?> followUser(String userId, String followerId) {
         try {
-            userRepository.save(targetUser);
-            userRepository.save(followerUser);
-
-            Map<String, Object> response = new HashMap<>();
-            response.put("message", "Successfully followed user");
-            response.put("user", convertToProfileDTO(targetUser));
-
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok(followService.follow(followerId, userId));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Failed to follow user: " + e.getMessage());
         }
     }
 
-    //unfollow user
+    //unfollow user; likewise idempotent
     public ResponseEntity<?> unfollowUser(String userId, String followerId) {
-        Optional<User> targetUserOpt = userRepository.findById(userId);
-        Optional<User> followerUserOpt = userRepository.findById(followerId);
-
-        if (targetUserOpt.isEmpty() || followerUserOpt.isEmpty()) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("User not found");
-        }
-
-        User targetUser = targetUserOpt.get();
-        User followerUser = followerUserOpt.get();
-
-        //remove from follower lists
-        targetUser.getFollowedUsers().remove(followerId);
-        followerUser.getFollowingUsers().remove(userId);
-
         try {
-            userRepository.save(targetUser);
-            userRepository.save(followerUser);
-
-            Map<String, Object> response = new HashMap<>();
-            response.put("message", "Successfully unfollowed user");
-            response.put("user", convertToProfileDTO(targetUser));
-
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok(followService.unfollow(followerId, userId));
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Failed to unfollow user: " + e.getMessage());
         }
     }
 
     //ටet all content by user ID
-    public ResponseEntity<?> getUserContent(String userId) {
-        if (!userRepository.existsById(userId)) {
+    //with view=summary each list is the first page of lean summaries; continue through the per-type endpoints
+    public ResponseEntity<?> getUserContent(String userId, String view, Integer limit) {
+        if (findProfile(userId) == null) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body("User not found");
         }
 
+        if (ContentSummaryService.VIEW.equals(view)) {
+            Map<String, Object> content = new HashMap<>();
+            content.put("posts", contentSummaryService.getSummaries(FeedItemType.POST, userId, null, limit));
+            content.put("progress", contentSummaryService.getSummaries(FeedItemType.LEARNING_PROGRESS, userId, null, limit));
+            content.put("plans", contentSummaryService.getSummaries(FeedItemType.LEARNING_PLAN, userId, null, limit));
+            return ResponseEntity.ok(content);
+        }
+
         try {
             List<Post> posts = postRepository.findByUserId(userId);
             List<LearningProgress> progress = progressRepository.findByUserId(userId);
@@ -329,15 +360,17 @@ public class UserService {
         }
     }
 
-    public Map<String, Integer> getUserTotalPostCount(String userId) {
-        if (!userRepository.existsById(userId)) {
-            return Collections.singletonMap("totalPosts", 0);
+    //posts, progress entries and plans together, from the maintained counters in one point read
+    public Map<String, Long> getUserTotalPostCount(String userId) {
+        if (findProfile(userId) == null) {
+            return Collections.singletonMap("totalPosts", 0L);
         }
+        return Collections.singletonMap("totalPosts", userStatsService.getContentStats(userId).getTotalContent());
+    }
 
-        int skillSharingPosts = postRepository.findByUserId(userId).size();
-        int learningProgressPosts = (int) learningProgressRepository.findByUserId(userId).size();
-        int learningPlansPosts = (int) learningPlanRepository.findByUserId(userId).size();
-
-        return Collections.singletonMap("totalPosts", skillSharingPosts + learningProgressPosts + learningPlansPosts);
+    //every counter of a user's profile header, or null if there is no such user
+    public UserStatsDTO getUserStats(String userId) {
+        User user = findProfile(userId);
+        return user == null ? null : userStatsService.getStats(user);
     }
 }
\ No newline at end of file
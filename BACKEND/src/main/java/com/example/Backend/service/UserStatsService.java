@@ -0,0 +1,203 @@
+package com.example.Backend.service;
+
+import com.example.Backend.dto.UserStatsDTO;
+import com.example.Backend.enums.FeedItemType;
+import com.example.Backend.event.ContentCreatedEvent;
+import com.example.Backend.event.ContentDeletedEvent;
+import com.example.Backend.model.FeedContent;
+import com.example.Backend.model.Follow;
+import com.example.Backend.model.User;
+import com.example.Backend.model.UserStats;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Per-user counters: content counts in user_stats, follower and following counts on the user document. Both are
+// moved with $inc as things happen, so reading them is one point lookup. A periodic job recounts them in batches of
+// users and corrects any drift left by a failed increment.
+@Service
+public class UserStatsService {
+
+    private static final Logger log = LoggerFactory.getLogger(UserStatsService.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final UserCache userCache;
+    private final int reconcileBatchSize;
+
+    public UserStatsService(MongoTemplate mongoTemplate, UserCache userCache,
+                            @Value("${users.stats.reconcile-batch-size:500}") int reconcileBatchSize) {
+        this.mongoTemplate = mongoTemplate;
+        this.userCache = userCache;
+        this.reconcileBatchSize = reconcileBatchSize;
+    }
+
+    //a failed increment must not fail the create itself; the reconciliation job makes up for it. A user without a stats
+    //document is counted instead, which already includes the new content, so the first counter is never just 1
+    @EventListener
+    public void onContentCreated(ContentCreatedEvent event) {
+        try {
+            UpdateResult result = mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(event.authorId())),
+                    new Update().inc(UserStats.counterOf(event.type()), 1).set("updatedAt", new Date()), UserStats.class);
+            if (result.getMatchedCount() == 0) {
+                initialise(event.authorId());
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not count new {} of {}: {}", event.type(), event.authorId(), e.getMessage());
+        }
+    }
+
+    @EventListener
+    public void onContentDeleted(ContentDeletedEvent event) {
+        if (event.authorId() == null) {
+            return;
+        }
+        String counter = UserStats.counterOf(event.type());
+        try {
+            mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(event.authorId()).and(counter).gt(0)),
+                    new Update().inc(counter, -1).set("updatedAt", new Date()), UserStats.class);
+        } catch (RuntimeException e) {
+            log.warn("Could not uncount deleted {} of {}: {}", event.type(), event.authorId(), e.getMessage());
+        }
+    }
+
+    //content counts of a user; someone without a stats document yet is counted once and the result kept
+    public UserStats getContentStats(String userId) {
+        UserStats stats = mongoTemplate.findById(userId, UserStats.class);
+        if (stats != null) {
+            return stats;
+        }
+        initialise(userId);
+        return mongoTemplate.findById(userId, UserStats.class);
+    }
+
+    //only inserts, so a stats document created in the meantime is left as it is
+    private void initialise(String userId) {
+        Update initial = new Update().setOnInsert("updatedAt", new Date());
+        for (Map.Entry<FeedItemType, Class<? extends FeedContent>> source : TimelineService.ITEM_CLASSES.entrySet()) {
+            initial.setOnInsert(UserStats.counterOf(source.getKey()),
+                    mongoTemplate.count(new Query(Criteria.where("userId").is(userId)), source.getValue()));
+        }
+        mongoTemplate.upsert(new Query(Criteria.where("_id").is(userId)), initial, UserStats.class);
+    }
+
+    //all counters of a user: content counts from user_stats, follow counts from the user document
+    public UserStatsDTO getStats(User user) {
+        UserStats content = getContentStats(user.getId());
+        UserStatsDTO stats = new UserStatsDTO();
+        stats.setUserId(user.getId());
+        stats.setPosts(content.getPosts());
+        stats.setLearningProgress(content.getLearningProgress());
+        stats.setLearningPlans(content.getLearningPlans());
+        stats.setTotalPosts(content.getTotalContent());
+        stats.setFollowers(user.getFollowerCount());
+        stats.setFollowing(user.getFollowingCount());
+        return stats;
+    }
+
+    @Scheduled(fixedDelayString = "${users.stats.reconcile-interval-ms:21600000}",
+            initialDelayString = "${users.stats.reconcile-interval-ms:21600000}")
+    public void reconcile() {
+        try {
+            long contentFixes = reconcileContentCounts();
+            long followFixes = reconcileFollowCounts();
+            if (contentFixes + followFixes > 0) {
+                log.info("Corrected {} content and {} follow counters", contentFixes, followFixes);
+            }
+        } catch (Exception e) {
+            log.warn("Failed to reconcile user counters: {}", e.getMessage());
+        }
+    }
+
+    long reconcileContentCounts() {
+        long fixed = 0;
+        for (List<Document> batch = nextBatch(UserStats.class, null); !batch.isEmpty();
+             batch = nextBatch(UserStats.class, lastId(batch))) {
+            List<String> ids = batch.stream().map(stats -> String.valueOf(stats.get("_id"))).toList();
+            for (Map.Entry<FeedItemType, Class<? extends FeedContent>> source : TimelineService.ITEM_CLASSES.entrySet()) {
+                fixed += correct(batch, UserStats.class, UserStats.counterOf(source.getKey()),
+                        countBy(source.getValue(), "userId", ids));
+            }
+        }
+        return fixed;
+    }
+
+    long reconcileFollowCounts() {
+        long fixed = 0;
+        for (List<Document> batch = nextBatch(User.class, null); !batch.isEmpty(); batch = nextBatch(User.class, lastId(batch))) {
+            List<String> ids = batch.stream().map(user -> String.valueOf(user.get("_id"))).toList();
+            long batchFixed = correct(batch, User.class, "followerCount", countBy(Follow.class, "followeeId", ids))
+                    + correct(batch, User.class, "followingCount", countBy(Follow.class, "followerId", ids));
+            if (batchFixed > 0) {
+                ids.forEach(userCache::invalidate);
+            }
+            fixed += batchFixed;
+        }
+        return fixed;
+    }
+
+    //the next batch of documents of a collection in _id order, only the fields the recount compares
+    private List<Document> nextBatch(Class<?> type, Object afterId) {
+        Query query = new Query(afterId == null ? new Criteria() : Criteria.where("_id").gt(afterId))
+                .with(Sort.by(Sort.Direction.ASC, "_id")).limit(reconcileBatchSize);
+        query.fields().include("posts", "learningProgress", "learningPlans", "followerCount", "followingCount");
+        return mongoTemplate.find(query, Document.class, mongoTemplate.getCollectionName(type));
+    }
+
+    private static Object lastId(List<Document> batch) {
+        return batch.get(batch.size() - 1).get("_id");
+    }
+
+    //documents of source per value of groupField, for the given ids only, counted server-side
+    private Map<String, Long> countBy(Class<?> source, String groupField, List<String> ids) {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where(groupField).in(ids)),
+                Aggregation.group(groupField).count().as("count"));
+        Map<String, Long> counts = new HashMap<>();
+        for (Document count : mongoTemplate.aggregate(aggregation, source, Document.class)) {
+            counts.put(String.valueOf(count.get("_id")), ((Number) count.get("count")).longValue());
+        }
+        return counts;
+    }
+
+    //set each counter that differs from the recount, but only if it still holds the value read, so an increment
+    //that landed in between is not overwritten
+    private long correct(List<Document> batch, Class<?> target, String field, Map<String, Long> counts) {
+        BulkOperations bulk = null;
+        long fixes = 0;
+        for (Document document : batch) {
+            Object id = document.get("_id");
+            Number stored = (Number) document.get(field);
+            long expected = counts.getOrDefault(String.valueOf(id), 0L);
+            if (stored != null && stored.longValue() == expected) {
+                continue;
+            }
+            Criteria unchanged = stored == null ? Criteria.where(field).exists(false) : Criteria.where(field).is(stored);
+            if (bulk == null) {
+                bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, target);
+            }
+            bulk.updateOne(new Query(Criteria.where("_id").is(id)).addCriteria(unchanged), new Update().set(field, expected));
+            fixes++;
+        }
+        if (bulk != null) {
+            bulk.execute();
+        }
+        return fixes;
+    }
+}
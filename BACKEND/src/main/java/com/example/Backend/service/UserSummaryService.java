@@ -0,0 +1,102 @@
+package com.example.Backend.service;
+
+import com.example.Backend.dto.CursorPage;
+import com.example.Backend.dto.UserSummary;
+import com.example.Backend.model.Follow;
+import com.example.Backend.model.User;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Slim user rows for lists such as followers and following. A page costs three bounded queries whatever the size of
+// the account: the page of edges, the projected users behind them and the viewer's edges to those users. The users
+// come through the user cache, so rows of often listed users are usually served from memory.
+@Service
+public class UserSummaryService {
+
+    private static final String LIST_AVATAR_VARIANT = "small";
+
+    private final MongoTemplate mongoTemplate;
+    private final FollowService followService;
+    private final AvatarService avatarService;
+    private final UserCache userCache;
+
+    public UserSummaryService(MongoTemplate mongoTemplate, FollowService followService, AvatarService avatarService,
+                              UserCache userCache) {
+        this.mongoTemplate = mongoTemplate;
+        this.followService = followService;
+        this.avatarService = avatarService;
+        this.userCache = userCache;
+    }
+
+    //one newest-first page of the users following userId, as seen by viewerId (may be null)
+    public CursorPage<UserSummary> getFollowers(String userId, String viewerId, String cursor, Integer limit) {
+        CursorPage<Follow> edges = followService.getFollowers(userId, cursor, limit);
+        List<String> ids = edges.getItems().stream().map(Follow::getFollowerId).toList();
+        return new CursorPage<>(getSummaries(ids, viewerId), edges.getNextCursor());
+    }
+
+    //one newest-first page of the users userId follows, as seen by viewerId (may be null)
+    public CursorPage<UserSummary> getFollowing(String userId, String viewerId, String cursor, Integer limit) {
+        CursorPage<Follow> edges = followService.getFollowing(userId, cursor, limit);
+        List<String> ids = edges.getItems().stream().map(Follow::getFolloweeId).toList();
+        return new CursorPage<>(getSummaries(ids, viewerId), edges.getNextCursor());
+    }
+
+    //summaries in the order of ids; ids of users that no longer exist are left out
+    public List<UserSummary> getSummaries(List<String> ids, String viewerId) {
+        Map<String, UserSummary> summaries = lookup(ids);
+        Set<String> followed = followService.followedAmong(viewerId, summaries.keySet());
+        List<UserSummary> ordered = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            UserSummary summary = summaries.get(id);
+            if (summary == null) {
+                continue;
+            }
+            //copied so the viewer flag never leaks into a shared instance
+            UserSummary row = new UserSummary(summary.getId(), summary.getName(), summary.getAvatarUrl());
+            if (viewerId != null && !viewerId.equals(id)) {
+                row.setViewerFollows(followed.contains(id));
+            }
+            ordered.add(row);
+        }
+        return ordered;
+    }
+
+    //summaries by id without a viewer, for callers that only show a name or an avatar; missing users are left out
+    public Map<String, UserSummary> lookup(Collection<String> ids) {
+        return userCache.getSummaries(ids, this::load);
+    }
+
+    private Map<String, UserSummary> load(Collection<String> ids) {
+        Map<String, UserSummary> summaries = new HashMap<>();
+        if (ids.isEmpty()) {
+            return summaries;
+        }
+        Query query = new Query(Criteria.where("_id").in(ids));
+        query.fields().include("name", "avatarId", "profileImage");
+        for (User user : mongoTemplate.find(query, User.class)) {
+            summaries.put(user.getId(), summarize(user));
+        }
+        return summaries;
+    }
+
+    UserSummary summarize(User user) {
+        String avatarUrl;
+        if (user.getAvatarId() != null) {
+            avatarUrl = avatarService.avatarUrl(user.getAvatarId(), LIST_AVATAR_VARIANT);
+        } else {
+            //an inline picture that was never moved to an avatar is too big for a list row
+            avatarUrl = MediaService.isDataUrl(user.getProfileImage()) ? null : user.getProfileImage();
+        }
+        return new UserSummary(user.getId(), user.getName(), avatarUrl);
+    }
+}
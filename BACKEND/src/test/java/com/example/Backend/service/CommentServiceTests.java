@@ -0,0 +1,101 @@
+package com.example.Backend.service;
+
+import com.example.Backend.enums.FeedItemType;
+import com.example.Backend.model.Comment;
+import com.example.Backend.model.Post;
+import com.example.Backend.repository.CommentRepository;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CommentServiceTests {
+
+	private CommentRepository commentRepository;
+	private MongoTemplate mongoTemplate;
+	private CommentService commentService;
+
+	@BeforeEach
+	void setUp() {
+		commentRepository = mock(CommentRepository.class);
+		mongoTemplate = mock(MongoTemplate.class);
+		commentService = new CommentService(commentRepository, mongoTemplate, new CursorPagination(mongoTemplate));
+	}
+
+	@Test
+	void previewIsOldestFirstWithoutParentReference() {
+		when(commentRepository.findTop2ByParentTypeAndParentIdOrderByCreatedAtDesc(FeedItemType.POST, "p1"))
+				.thenReturn(List.of(comment("c3", 3), comment("c2", 2)));
+
+		List<Comment> preview = commentService.previewOf(FeedItemType.POST, "p1");
+
+		assertEquals(List.of("c2", "c3"), preview.stream().map(Comment::getId).toList());
+		assertNull(preview.get(0).getParentId());
+		assertNull(preview.get(0).getParentType());
+	}
+
+	@Test
+	void migratingAParentKeepsEveryEmbeddedCommentAndOnlyAppliesOnce() {
+		Post parent = new Post();
+		parent.setId("p1");
+		parent.setComments(new ArrayList<>(List.of(comment("c1", 1), comment(null, 2), comment("c3", 3))));
+		when(mongoTemplate.aggregate(any(Aggregation.class), eq(Comment.class), eq(CommentService.ParentCount.class)))
+				.thenReturn(new AggregationResults<>(List.of(new CommentService.ParentCount("p1", 3)), new Document()));
+		when(commentRepository.findTop2ByParentTypeAndParentIdOrderByCreatedAtDesc(FeedItemType.POST, "p1"))
+				.thenReturn(List.of(comment("c3", 3), comment("p1-1", 2)));
+
+		commentService.migrateParent(FeedItemType.POST, parent);
+
+		@SuppressWarnings("unchecked")
+		ArgumentCaptor<List<Comment>> saved = ArgumentCaptor.forClass(List.class);
+		verify(commentRepository).saveAll(saved.capture());
+		assertEquals(List.of("c1", "p1-1", "c3"), saved.getValue().stream().map(Comment::getId).toList());
+		assertEquals("p1", saved.getValue().get(1).getParentId());
+
+		ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+		ArgumentCaptor<UpdateDefinition> update = ArgumentCaptor.forClass(UpdateDefinition.class);
+		verify(mongoTemplate).updateFirst(query.capture(), update.capture(), eq(Post.class));
+		assertEquals(Document.parse("{_id: 'p1', commentCount: {$exists: false}}"), query.getValue().getQueryObject());
+		Document set = (Document) update.getValue().getUpdateObject().get("$set");
+		assertEquals(3, set.get("commentCount"));
+		assertEquals(2, ((List<?>) set.get("comments")).size());
+	}
+
+	@Test
+	void writesToAMissingParentStoreNothing() {
+		assertNull(commentService.addComment(FeedItemType.POST, "missing", comment(null, 1)));
+		verify(commentRepository, never()).insert(any(Comment.class));
+		verify(commentRepository, never()).saveAll(anyList());
+	}
+
+	private static Comment comment(String id, long createdAt) {
+		Comment comment = new Comment();
+		comment.setId(id);
+		comment.setUserId("u1");
+		comment.setContent("comment " + id);
+		comment.setCreatedAt(new Date(createdAt));
+		comment.setParentType(FeedItemType.POST);
+		comment.setParentId("p1");
+		return comment;
+	}
+
+}
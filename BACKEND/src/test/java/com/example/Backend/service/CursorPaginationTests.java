@@ -0,0 +1,103 @@
+package com.example.Backend.service;
+
+import com.example.Backend.dto.CursorPage;
+import com.example.Backend.model.Post;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CursorPaginationTests {
+
+	@Test
+	void cursorRoundTripsPosition() {
+		Date createdAt = new Date(1_700_000_000_123L);
+
+		CursorPagination.Position position = CursorPagination.decode(CursorPagination.encode(createdAt, "abc:def"));
+
+		assertEquals(createdAt, position.createdAt());
+		assertEquals("abc:def", position.id());
+	}
+
+	@Test
+	void rejectsMalformedCursors() {
+		assertThrows(IllegalArgumentException.class, () -> CursorPagination.decode("not base64!"));
+		assertThrows(IllegalArgumentException.class, () -> CursorPagination.decode(encodeRaw("abc:id")));
+		assertThrows(IllegalArgumentException.class, () -> CursorPagination.decode(encodeRaw("123:")));
+		assertThrows(IllegalArgumentException.class, () -> CursorPagination.decode(encodeRaw("123")));
+		assertNull(CursorPagination.decodeOrNull(""));
+	}
+
+	@Test
+	void clampsPageSize() {
+		assertEquals(CursorPagination.DEFAULT_LIMIT, CursorPagination.pageSize(null));
+		assertEquals(1, CursorPagination.pageSize(0));
+		assertEquals(CursorPagination.MAX_LIMIT, CursorPagination.pageSize(10_000));
+	}
+
+	@Test
+	void seeksPastTiesOnTheSameTimestamp() {
+		Date createdAt = new Date(1_000L);
+		Query query = CursorPagination.seekQuery(Criteria.where("userId").is("u1"),
+				new CursorPagination.Position(createdAt, "p5"), "_id", 11);
+
+		Document expected = Document.parse("{$and: [{userId: 'u1'}, {$or: ["
+				+ "{createdAt: {$lt: {$date: 1000}}}, {createdAt: {$date: 1000}, _id: {$lt: 'p5'}}]}]}");
+		assertEquals(expected, query.getQueryObject());
+		assertEquals(Document.parse("{createdAt: -1, _id: -1}"), query.getSortObject());
+		assertEquals(11, query.getLimit());
+	}
+
+	@Test
+	void nextCursorPointsAtTheLastReturnedItem() {
+		MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+		List<Post> fetched = List.of(post("p3", 3), post("p2", 2), post("p1", 1));
+		when(mongoTemplate.find(any(Query.class), eq(Post.class))).thenReturn(fetched);
+		CursorPagination pagination = new CursorPagination(mongoTemplate);
+
+		CursorPage<Post> page = pagination.page(Post.class, null, null, 2, Post::getCreatedAt, Post::getId);
+
+		assertEquals(List.of("p3", "p2"), page.getItems().stream().map(Post::getId).toList());
+		CursorPagination.Position next = CursorPagination.decode(page.getNextCursor());
+		assertEquals("p2", next.id());
+		assertEquals(new Date(2), next.createdAt());
+	}
+
+	@Test
+	void lastPageHasNoCursor() {
+		MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+		when(mongoTemplate.find(any(Query.class), eq(Post.class))).thenReturn(List.of(post("p1", 1)));
+		CursorPagination pagination = new CursorPagination(mongoTemplate);
+
+		CursorPage<Post> page = pagination.page(Post.class, null, null, 2, Post::getCreatedAt, Post::getId);
+
+		assertEquals(1, page.getItems().size());
+		assertNull(page.getNextCursor());
+	}
+
+	private static Post post(String id, long createdAt) {
+		Post post = new Post();
+		post.setId(id);
+		post.setCreatedAt(new Date(createdAt));
+		return post;
+	}
+
+	private static String encodeRaw(String raw) {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+
+}
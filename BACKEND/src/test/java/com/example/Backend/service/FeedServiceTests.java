@@ -0,0 +1,109 @@
+package com.example.Backend.service;
+
+import com.example.Backend.dto.CursorPage;
+import com.example.Backend.dto.FeedItem;
+import com.example.Backend.enums.FeedItemType;
+import com.example.Backend.model.LearningPlan;
+import com.example.Backend.model.LearningProgress;
+import com.example.Backend.model.Post;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class FeedServiceTests {
+
+	private MongoTemplate mongoTemplate;
+	private FeedService feedService;
+	private final AtomicInteger closedStreams = new AtomicInteger();
+
+	@BeforeEach
+	void setUp() {
+		mongoTemplate = mock(MongoTemplate.class);
+		feedService = new FeedService(mongoTemplate, mock(LikeService.class));
+	}
+
+	@Test
+	void mergesSourcesNewestFirst() {
+		givenSource(Post.class, post("p9", 9), post("p4", 4), post("p1", 1));
+		givenSource(LearningProgress.class, progress("g7", 7), progress("g3", 3));
+		givenSource(LearningPlan.class, plan("l8", 8), plan("l2", 2));
+
+		CursorPage<FeedItem> page = feedService.getGlobalFeed(null, null, 10);
+
+		assertEquals(List.of("p9", "l8", "g7", "p4", "g3", "l2", "p1"), ids(page));
+		assertEquals(FeedItemType.LEARNING_PLAN, page.getItems().get(1).getType());
+		assertNull(page.getNextCursor());
+		assertEquals(3, closedStreams.get());
+	}
+
+	@Test
+	void breaksTimestampTiesById() {
+		givenSource(Post.class, post("b", 5));
+		givenSource(LearningProgress.class, progress("c", 5));
+		givenSource(LearningPlan.class, plan("a", 5));
+
+		CursorPage<FeedItem> page = feedService.getGlobalFeed(null, null, 10);
+
+		assertEquals(List.of("c", "b", "a"), ids(page));
+	}
+
+	@Test
+	void cursorPointsAtLastItemOfAFullPage() {
+		givenSource(Post.class, post("p9", 9), post("p4", 4));
+		givenSource(LearningProgress.class, progress("g7", 7));
+		givenSource(LearningPlan.class);
+
+		CursorPage<FeedItem> page = feedService.getGlobalFeed(null, null, 2);
+
+		assertEquals(List.of("p9", "g7"), ids(page));
+		CursorPagination.Position next = CursorPagination.decode(page.getNextCursor());
+		assertEquals("g7", next.id());
+		assertEquals(new Date(7), next.createdAt());
+		assertEquals(3, closedStreams.get());
+	}
+
+	@SafeVarargs
+	private <T> void givenSource(Class<T> type, T... items) {
+		when(mongoTemplate.stream(any(Query.class), eq(type)))
+				.thenReturn(Stream.of(items).onClose(closedStreams::incrementAndGet));
+	}
+
+	private static List<String> ids(CursorPage<FeedItem> page) {
+		return page.getItems().stream().map(FeedItem::getId).toList();
+	}
+
+	private static Post post(String id, long createdAt) {
+		Post post = new Post();
+		post.setId(id);
+		post.setCreatedAt(new Date(createdAt));
+		return post;
+	}
+
+	private static LearningProgress progress(String id, long createdAt) {
+		LearningProgress progress = new LearningProgress();
+		progress.setId(id);
+		progress.setCreatedAt(new Date(createdAt));
+		return progress;
+	}
+
+	private static LearningPlan plan(String id, long createdAt) {
+		LearningPlan plan = new LearningPlan();
+		plan.setId(id);
+		plan.setCreatedAt(new Date(createdAt));
+		return plan;
+	}
+
+}
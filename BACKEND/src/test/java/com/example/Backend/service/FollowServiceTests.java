@@ -0,0 +1,136 @@
+package com.example.Backend.service;
+
+import com.example.Backend.dto.FollowResponse;
+import com.example.Backend.event.UnfollowedEvent;
+import com.example.Backend.model.Follow;
+import com.example.Backend.model.User;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.result.DeleteResult;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.BsonString;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class FollowServiceTests {
+
+	private MongoTemplate mongoTemplate;
+	private BulkOperations bulk;
+	private ApplicationEventPublisher eventPublisher;
+	private FollowService followService;
+
+	@BeforeEach
+	void setUp() {
+		mongoTemplate = mock(MongoTemplate.class);
+		bulk = mock(BulkOperations.class);
+		when(mongoTemplate.bulkOps(any(BulkOperations.BulkMode.class), eq(User.class))).thenReturn(bulk);
+		when(mongoTemplate.find(any(Query.class), eq(User.class)))
+				.thenReturn(List.of(user("follower", 0, 1), user("followee", 1, 0)));
+		eventPublisher = mock(ApplicationEventPublisher.class);
+		followService = new FollowService(mongoTemplate, new CursorPagination(mongoTemplate), mock(UserCache.class),
+				eventPublisher);
+	}
+
+	@Test
+	void newFollowMovesBothCounters() {
+		when(mongoTemplate.upsert(any(Query.class), any(Update.class), eq(Follow.class)))
+				.thenReturn(UpdateResult.acknowledged(0, 0L, new BsonString("follower:followee")));
+		when(bulk.execute()).thenReturn(matched(2));
+
+		FollowResponse response = followService.follow("follower", "followee");
+
+		ArgumentCaptor<Update> increments = ArgumentCaptor.forClass(Update.class);
+		verify(bulk, times(2)).updateOne(any(Query.class), increments.capture());
+		assertEquals(new Document("followerCount", 1), increments.getAllValues().get(0).getUpdateObject().get("$inc"));
+		assertEquals(new Document("followingCount", 1), increments.getAllValues().get(1).getUpdateObject().get("$inc"));
+		assertTrue(response.isFollowing());
+		assertEquals(1, response.getFollowerCount());
+		assertEquals(1, response.getFollowingCount());
+	}
+
+	@Test
+	void repeatedFollowLeavesTheCountersAlone() {
+		when(mongoTemplate.upsert(any(Query.class), any(Update.class), eq(Follow.class)))
+				.thenReturn(UpdateResult.acknowledged(1, 0L, null));
+
+		assertTrue(followService.follow("follower", "followee").isFollowing());
+
+		verify(mongoTemplate, never()).bulkOps(any(BulkOperations.BulkMode.class), eq(User.class));
+	}
+
+	@Test
+	void followingAMissingUserUndoesTheEdgeAndTheCounterThatMoved() {
+		when(mongoTemplate.upsert(any(Query.class), any(Update.class), eq(Follow.class)))
+				.thenReturn(UpdateResult.acknowledged(0, 0L, new BsonString("follower:ghost")));
+		when(bulk.execute()).thenReturn(matched(1));
+
+		assertThrows(NoSuchElementException.class, () -> followService.follow("follower", "ghost"));
+
+		ArgumentCaptor<Query> removed = ArgumentCaptor.forClass(Query.class);
+		verify(mongoTemplate).remove(removed.capture(), eq(Follow.class));
+		assertEquals("follower:ghost", removed.getValue().getQueryObject().get("_id"));
+		ArgumentCaptor<Update> updates = ArgumentCaptor.forClass(Update.class);
+		verify(bulk, times(4)).updateOne(any(Query.class), updates.capture());
+		assertEquals(new Document("followingCount", -1), updates.getAllValues().get(3).getUpdateObject().get("$inc"));
+	}
+
+	@Test
+	void unfollowingWithoutAnEdgeChangesNothing() {
+		when(mongoTemplate.remove(any(Query.class), eq(Follow.class))).thenReturn(DeleteResult.acknowledged(0));
+
+		FollowResponse response = followService.unfollow("follower", "followee");
+
+		verify(mongoTemplate, never()).bulkOps(any(BulkOperations.BulkMode.class), eq(User.class));
+		verify(eventPublisher, never()).publishEvent(any(Object.class));
+		assertFalse(response.isFollowing());
+	}
+
+	@Test
+	void unfollowingClearsTheTimeline() {
+		when(mongoTemplate.remove(any(Query.class), eq(Follow.class))).thenReturn(DeleteResult.acknowledged(1));
+		when(bulk.execute()).thenReturn(matched(2));
+
+		followService.unfollow("follower", "followee");
+
+		verify(eventPublisher).publishEvent(new UnfollowedEvent("follower", "followee"));
+	}
+
+	@Test
+	void usersCannotFollowThemselves() {
+		assertThrows(IllegalArgumentException.class, () -> followService.follow("u1", "u1"));
+	}
+
+	private static BulkWriteResult matched(int count) {
+		return BulkWriteResult.acknowledged(0, count, 0, count, List.of(), List.of());
+	}
+
+	private static User user(String id, long followerCount, long followingCount) {
+		User user = new User();
+		user.setId(id);
+		user.setFollowerCount(followerCount);
+		user.setFollowingCount(followingCount);
+		return user;
+	}
+
+}
@@ -0,0 +1,118 @@
+package com.example.Backend.service;
+
+import com.example.Backend.model.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InProcessUserCacheTests {
+
+	private final List<Collection<String>> loads = new ArrayList<>();
+
+	@Test
+	void loadsOnlyWhatIsMissing() {
+		InProcessUserCache cache = cache(DataSize.ofMegabytes(1), Duration.ofMinutes(10));
+
+		cache.getProfiles(Set.of("u1"), this::load);
+		Map<String, User> profiles = cache.getProfiles(Set.of("u1", "u2"), this::load);
+
+		assertEquals(Set.of("u1", "u2"), profiles.keySet());
+		assertEquals(List.of(Set.of("u1"), Set.of("u2")), loads);
+	}
+
+	@Test
+	void invalidationDuringALoadKeepsTheLoadedValueOutOfTheCache() {
+		InProcessUserCache cache = cache(DataSize.ofMegabytes(1), Duration.ofMinutes(10));
+
+		//the user changes while the old copy is being read
+		Map<String, User> first = cache.getProfiles(Set.of("u1"), ids -> {
+			Map<String, User> stale = load(ids);
+			cache.invalidate("u1");
+			return stale;
+		});
+		cache.getProfiles(Set.of("u1"), this::load);
+
+		assertEquals(Set.of("u1"), first.keySet());
+		assertEquals(2, loads.size());
+	}
+
+	@Test
+	void invalidateDropsTheEntry() {
+		InProcessUserCache cache = cache(DataSize.ofMegabytes(1), Duration.ofMinutes(10));
+		cache.getProfiles(Set.of("u1"), this::load);
+
+		cache.invalidate("u1");
+		cache.getProfiles(Set.of("u1"), this::load);
+
+		assertEquals(2, loads.size());
+	}
+
+	@Test
+	void staysWithinItsSizeByEvictingTheLeastRecentlyUsed() {
+		//room for two small profiles but not three
+		InProcessUserCache cache = cache(DataSize.ofBytes(600), Duration.ofMinutes(10));
+		cache.getProfiles(Set.of("u1"), this::load);
+		cache.getProfiles(Set.of("u2"), this::load);
+		cache.getProfiles(Set.of("u1"), this::load);
+		cache.getProfiles(Set.of("u3"), this::load);
+		loads.clear();
+
+		cache.getProfiles(Set.of("u1"), this::load);
+		cache.getProfiles(Set.of("u2"), this::load);
+
+		assertEquals(List.of(Set.of("u2")), loads);
+	}
+
+	@Test
+	void expiredEntriesAreLoadedAgain() {
+		InProcessUserCache cache = cache(DataSize.ofMegabytes(1), Duration.ZERO);
+
+		cache.getProfiles(Set.of("u1"), this::load);
+		cache.getProfiles(Set.of("u1"), this::load);
+
+		assertEquals(2, loads.size());
+	}
+
+	@Test
+	void unknownUsersAreAbsentAndNotCached() {
+		InProcessUserCache cache = cache(DataSize.ofMegabytes(1), Duration.ofMinutes(10));
+		Function<Collection<String>, Map<String, User>> nobody = ids -> {
+			loads.add(Set.copyOf(ids));
+			return Map.of();
+		};
+
+		assertTrue(cache.getProfiles(Set.of("ghost"), nobody).isEmpty());
+		cache.getProfiles(Set.of("ghost"), nobody);
+
+		assertEquals(2, loads.size());
+	}
+
+	private InProcessUserCache cache(DataSize maxSize, Duration ttl) {
+		return new InProcessUserCache(new SimpleMeterRegistry(), maxSize, maxSize, ttl);
+	}
+
+	private Map<String, User> load(Collection<String> ids) {
+		loads.add(Set.copyOf(ids));
+		Map<String, User> users = new HashMap<>();
+		for (String id : ids) {
+			User user = new User();
+			user.setId(id);
+			user.setName("user " + id);
+			users.put(id, user);
+		}
+		return users;
+	}
+
+}
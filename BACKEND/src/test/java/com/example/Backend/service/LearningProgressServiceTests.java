@@ -0,0 +1,75 @@
+package com.example.Backend.service;
+
+import com.example.Backend.model.LearningProgress;
+import com.example.Backend.repository.LearningProgressRepository;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LearningProgressServiceTests {
+
+	private LearningProgressRepository repository;
+	private MongoTemplate mongoTemplate;
+	private LearningProgressService learningProgressService;
+
+	@BeforeEach
+	void setUp() {
+		repository = mock(LearningProgressRepository.class);
+		mongoTemplate = mock(MongoTemplate.class);
+		learningProgressService = new LearningProgressService(repository, mongoTemplate, mock(NotificationService.class),
+				mock(CursorPagination.class), mock(ApplicationEventPublisher.class), mock(LikeService.class),
+				mock(CommentService.class));
+	}
+
+	@Test
+	void updateOnlyWritesTheEditableFields() {
+		LearningProgress updated = new LearningProgress();
+		when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+				eq(LearningProgress.class))).thenReturn(updated);
+
+		LearningProgress details = new LearningProgress();
+		details.setTitle("Week 3");
+		details.setSkillsLearned("streams");
+
+		assertSame(updated, learningProgressService.updateLearningProgress("lp1", details));
+
+		ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+		verify(mongoTemplate).findAndModify(any(Query.class), update.capture(), any(FindAndModifyOptions.class),
+				eq(LearningProgress.class));
+		Document set = (Document) update.getValue().getUpdateObject().get("$set");
+		assertEquals("Week 3", set.get("title"));
+		assertEquals("streams", set.get("skillsLearned"));
+		//likes and comments change concurrently through their own paths and must never be written back from a stale read
+		for (String field : List.of("likes", "likeCount", "comments", "commentCount")) {
+			assertFalse(set.containsKey(field), field);
+		}
+		assertEquals(1, update.getValue().getUpdateObject().size());
+		verify(repository, never()).save(any());
+	}
+
+	@Test
+	void updatingAMissingEntryIsNotFound() {
+		assertThrows(NoSuchElementException.class,
+				() -> learningProgressService.updateLearningProgress("missing", new LearningProgress()));
+	}
+}
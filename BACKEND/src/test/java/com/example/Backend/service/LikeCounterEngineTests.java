@@ -0,0 +1,178 @@
+package com.example.Backend.service;
+
+import com.example.Backend.enums.FeedItemType;
+import com.example.Backend.model.LikeEdge;
+import com.example.Backend.model.Post;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LikeCounterEngineTests {
+
+	@TempDir
+	Path journalDir;
+
+	private MongoTemplate mongoTemplate;
+	private BulkOperations bulk;
+
+	@BeforeEach
+	void setUp() {
+		mongoTemplate = mock(MongoTemplate.class);
+		bulk = mock(BulkOperations.class);
+		when(mongoTemplate.bulkOps(any(BulkOperations.BulkMode.class), any(Class.class))).thenReturn(bulk);
+		Post post = new Post();
+		post.setId("p1");
+		post.setUserId("owner");
+		post.setLikeCount(5);
+		when(mongoTemplate.findOne(any(Query.class), eq(Post.class))).thenReturn(post);
+		when(mongoTemplate.exists(any(Query.class), eq(LikeEdge.class))).thenReturn(false);
+	}
+
+	@Test
+	void replaysJournalsOldestFirst() throws Exception {
+		//written out of name order so directory order cannot be relied on to get this right
+		Files.writeString(journalDir.resolve("likes-20.journal"), "U POST p1 u1\n", StandardCharsets.UTF_8);
+		Files.writeString(journalDir.resolve("likes-3.journal"), "L POST p1 u1\nL POST p1 u2\n", StandardCharsets.UTF_8);
+
+		LikeCounterEngine engine = engine();
+
+		assertEquals(Boolean.FALSE, engine.pendingLike(FeedItemType.POST, "p1", "u1"));
+		assertEquals(Boolean.TRUE, engine.pendingLike(FeedItemType.POST, "p1", "u2"));
+	}
+
+	@Test
+	void tornAndUnknownJournalLinesAreSkipped() throws Exception {
+		Files.writeString(journalDir.resolve("likes-1.journal"),
+				"L POST p1 u1\nL NOPE p1 u2\nL POST p1 u3\nU POST p1", StandardCharsets.UTF_8);
+
+		LikeCounterEngine engine = engine();
+
+		assertEquals(Boolean.TRUE, engine.pendingLike(FeedItemType.POST, "p1", "u1"));
+		assertEquals(Boolean.TRUE, engine.pendingLike(FeedItemType.POST, "p1", "u3"));
+		assertNull(engine.pendingLike(FeedItemType.POST, "p1", "u2"));
+	}
+
+	@Test
+	void likeKeptOnlyInTheLikesArrayCountsAsStored() throws Exception {
+		//a like from before the edge backfill: no LikeEdge, but the user is in the post's likes array
+		when(mongoTemplate.exists(any(Query.class), eq(Post.class))).thenReturn(true);
+		LikeCounterEngine engine = engine();
+
+		LikeService.LikeChange like = engine.record(FeedItemType.POST, "p1", "u1", true);
+		LikeService.LikeChange unlike = engine.record(FeedItemType.POST, "p1", "u1", false);
+
+		assertFalse(like.changed());
+		assertTrue(unlike.changed());
+		assertEquals(4, unlike.likeCount());
+	}
+
+	@Test
+	void storedStateIsLookedUpOncePerEdge() throws Exception {
+		LikeCounterEngine engine = engine();
+
+		engine.record(FeedItemType.POST, "p1", "u1", true);
+		engine.flush();
+		LikeService.LikeChange again = engine.record(FeedItemType.POST, "p1", "u1", true);
+		LikeService.LikeChange unlike = engine.record(FeedItemType.POST, "p1", "u1", false);
+
+		assertFalse(again.changed());
+		assertTrue(unlike.changed());
+		verify(mongoTemplate, times(1)).exists(any(Query.class), eq(LikeEdge.class));
+	}
+
+	@Test
+	void repeatedLikeIsCountedOnce() throws Exception {
+		LikeCounterEngine engine = engine();
+
+		LikeService.LikeChange first = engine.record(FeedItemType.POST, "p1", "u1", true);
+		LikeService.LikeChange second = engine.record(FeedItemType.POST, "p1", "u1", true);
+
+		assertTrue(first.changed());
+		assertFalse(second.changed());
+		assertEquals(6, second.likeCount());
+		assertEquals("owner", second.ownerId());
+	}
+
+	@Test
+	void concurrentDuplicateLikesChangeTheCountOnce() throws Exception {
+		LikeCounterEngine engine = engine();
+		ExecutorService pool = Executors.newFixedThreadPool(8);
+		try {
+			List<Callable<LikeService.LikeChange>> likes = new ArrayList<>();
+			for (int i = 0; i < 32; i++) {
+				likes.add(() -> engine.record(FeedItemType.POST, "p1", "u1", true));
+			}
+			int changed = 0;
+			for (Future<LikeService.LikeChange> result : pool.invokeAll(likes)) {
+				if (result.get().changed()) {
+					changed++;
+				}
+			}
+			assertEquals(1, changed);
+			assertEquals(1, engine.pendingDelta(FeedItemType.POST, "p1"));
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	@Test
+	void flushClearsPendingStateAndJournals() throws Exception {
+		LikeCounterEngine engine = engine();
+		engine.record(FeedItemType.POST, "p1", "u1", true);
+
+		engine.flush();
+
+		assertNull(engine.pendingLike(FeedItemType.POST, "p1", "u1"));
+		assertEquals(0, engine.pendingDelta(FeedItemType.POST, "p1"));
+		try (Stream<Path> files = Files.list(journalDir)) {
+			//only the journal opened by the rotation is left, and nothing has been written to it
+			List<Path> journals = files.toList();
+			assertEquals(1, journals.size());
+			assertEquals(0, Files.size(journals.get(0)));
+		}
+	}
+
+	@Test
+	void failedFlushKeepsEverythingForTheNextOne() throws Exception {
+		LikeCounterEngine engine = engine();
+		engine.record(FeedItemType.POST, "p1", "u1", true);
+		when(bulk.execute()).thenThrow(new IllegalStateException("database unavailable"));
+
+		engine.flush();
+
+		assertEquals(Boolean.TRUE, engine.pendingLike(FeedItemType.POST, "p1", "u1"));
+		assertEquals(1, engine.pendingDelta(FeedItemType.POST, "p1"));
+		LikeCounterEngine restarted = engine();
+		assertEquals(Boolean.TRUE, restarted.pendingLike(FeedItemType.POST, "p1", "u1"));
+	}
+
+	private LikeCounterEngine engine() throws Exception {
+		return new LikeCounterEngine(mongoTemplate, true, false, journalDir.toString());
+	}
+
+}
@@ -0,0 +1,45 @@
+package com.example.Backend.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LocalBlobStoreTests {
+
+	@TempDir
+	Path root;
+
+	@Test
+	void identicalContentIsStoredOnce() throws Exception {
+		LocalBlobStore store = new LocalBlobStore(root.toString());
+		byte[] bytes = "pancake video".getBytes(StandardCharsets.UTF_8);
+
+		BlobStore.StoredBlob first = store.store(new ByteArrayInputStream(bytes));
+		BlobStore.StoredBlob second = store.store(new ByteArrayInputStream(bytes));
+
+		assertTrue(first.created());
+		assertFalse(second.created());
+		assertEquals(first.key(), second.key());
+		assertEquals(bytes.length, first.size());
+		assertArrayEquals(bytes, Files.readAllBytes(store.locate(first.key())));
+	}
+
+	@Test
+	void rejectsKeysThatAreNotDigests() throws Exception {
+		LocalBlobStore store = new LocalBlobStore(root.toString());
+
+		assertFalse(store.exists("../../etc/passwd"));
+		assertThrows(IllegalArgumentException.class, () -> store.locate("../secret"));
+	}
+
+}
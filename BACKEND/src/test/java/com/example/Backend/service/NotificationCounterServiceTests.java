@@ -0,0 +1,84 @@
+package com.example.Backend.service;
+
+import com.example.Backend.model.Notification;
+import com.example.Backend.model.NotificationCounter;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class NotificationCounterServiceTests {
+
+	private MongoTemplate mongoTemplate;
+	private BulkOperations bulk;
+	private NotificationCounterService counters;
+
+	@BeforeEach
+	void setUp() {
+		mongoTemplate = mock(MongoTemplate.class);
+		bulk = mock(BulkOperations.class);
+		when(mongoTemplate.bulkOps(any(BulkOperations.BulkMode.class), eq(NotificationCounter.class))).thenReturn(bulk);
+		counters = new NotificationCounterService(mongoTemplate);
+	}
+
+	@Test
+	void deliveryToAUserWithoutACounterStartsItFromTheirUnreadCount() {
+		NotificationCounter existing = new NotificationCounter();
+		existing.setId("u1");
+		when(mongoTemplate.find(any(Query.class), eq(NotificationCounter.class))).thenReturn(List.of(existing));
+		when(mongoTemplate.count(any(Query.class), eq(Notification.class))).thenReturn(7L);
+
+		counters.added(Map.of("u1", 2, "u2", 1));
+
+		ArgumentCaptor<Update> increment = ArgumentCaptor.forClass(Update.class);
+		verify(bulk).updateOne(any(Query.class), increment.capture());
+		assertEquals(2, ((Document) increment.getValue().getUpdateObject().get("$inc")).get("unread"));
+		verify(bulk, never()).upsert(any(Query.class), any(Update.class));
+
+		ArgumentCaptor<Query> initialised = ArgumentCaptor.forClass(Query.class);
+		ArgumentCaptor<Update> seed = ArgumentCaptor.forClass(Update.class);
+		verify(mongoTemplate).upsert(initialised.capture(), seed.capture(), eq(NotificationCounter.class));
+		assertEquals("u2", initialised.getValue().getQueryObject().get("_id"));
+		assertEquals(7L, ((Document) seed.getValue().getUpdateObject().get("$setOnInsert")).get("unread"));
+		assertNull(seed.getValue().getUpdateObject().get("$inc"));
+	}
+
+	@Test
+	void readLowersTheCounterByTheNumberMarkedWithoutGoingNegative() {
+		counters.read("u1", 3);
+
+		ArgumentCaptor<UpdateDefinition> update = ArgumentCaptor.forClass(UpdateDefinition.class);
+		verify(mongoTemplate).updateFirst(any(Query.class), update.capture(), eq(NotificationCounter.class));
+		Document set = (Document) ((AggregationUpdate) update.getValue()).toPipeline(Aggregation.DEFAULT_CONTEXT)
+				.get(0).get("$set");
+		assertEquals(new Document("$max", List.of(0, new Document("$subtract", List.of("$unread", 3L)))), set.get("unread"));
+	}
+
+	@Test
+	void readingNothingLeavesTheCounterAlone() {
+		counters.read("u1", 0);
+
+		verifyNoInteractions(mongoTemplate);
+	}
+
+}
@@ -0,0 +1,145 @@
+package com.example.Backend.service;
+
+import com.example.Backend.dto.UserSummary;
+import com.example.Backend.model.Notification;
+import com.example.Backend.model.NotificationOutbox;
+import com.mongodb.bulk.BulkWriteResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class NotificationPipelineTests {
+
+	private MongoTemplate mongoTemplate;
+	private BulkOperations bulk;
+	private UserSummaryService userSummaryService;
+	private NotificationPipeline pipeline;
+
+	@BeforeEach
+	void setUp() {
+		mongoTemplate = mock(MongoTemplate.class);
+		bulk = mock(BulkOperations.class);
+		when(mongoTemplate.bulkOps(any(BulkOperations.BulkMode.class), any(Class.class))).thenReturn(bulk);
+		when(bulk.execute()).thenReturn(BulkWriteResult.acknowledged(0, 0, 0, 0, List.of(), List.of()));
+		userSummaryService = mock(UserSummaryService.class);
+		pipeline = new NotificationPipeline(mongoTemplate, mock(StreamEventBus.class),
+				new NotificationCounterService(mongoTemplate), userSummaryService, new SimpleMeterRegistry(),
+				10, 200, 60000, Duration.ofMinutes(5), Duration.ofHours(1), 5);
+	}
+
+	@AfterEach
+	void tearDown() {
+		pipeline.shutdown();
+	}
+
+	@Test
+	void sweepDeliversOnlyTheEntriesItClaimed() {
+		//the candidate lookup sees both entries, but the worker claimed e2 in between
+		when(mongoTemplate.find(any(Query.class), eq(NotificationOutbox.class)))
+				.thenReturn(List.of(entry("e1", "u1"), entry("e2", "u2")))
+				.thenReturn(List.of(entry("e1", "u1")));
+
+		pipeline.sweepOutbox();
+
+		ArgumentCaptor<Query> claim = ArgumentCaptor.forClass(Query.class);
+		verify(mongoTemplate).updateMulti(claim.capture(), any(UpdateDefinition.class), eq(NotificationOutbox.class));
+		assertTrue(claim.getValue().getQueryObject().toJson().contains("claimedAt"));
+		verify(bulk, times(1)).upsert(any(Query.class), any(UpdateDefinition.class));
+		ArgumentCaptor<Query> removed = ArgumentCaptor.forClass(Query.class);
+		verify(mongoTemplate).remove(removed.capture(), eq(NotificationOutbox.class));
+		assertTrue(removed.getValue().getQueryObject().containsKey("claimedBy"));
+	}
+
+	@Test
+	void nothingClaimedMeansNothingDelivered() {
+		when(mongoTemplate.find(any(Query.class), eq(NotificationOutbox.class)))
+				.thenReturn(List.of(entry("e1", "u1")))
+				.thenReturn(List.of());
+
+		pipeline.sweepOutbox();
+
+		verify(mongoTemplate, never()).bulkOps(any(BulkOperations.BulkMode.class), eq(Notification.class));
+		verify(mongoTemplate, never()).remove(any(Query.class), eq(NotificationOutbox.class));
+	}
+
+	@Test
+	void failedDeliveryReleasesTheClaim() {
+		when(mongoTemplate.find(any(Query.class), eq(NotificationOutbox.class)))
+				.thenReturn(List.of(entry("e1", "u1")));
+		when(bulk.execute()).thenThrow(new IllegalStateException("database unavailable"));
+
+		pipeline.sweepOutbox();
+
+		ArgumentCaptor<UpdateDefinition> updates = ArgumentCaptor.forClass(UpdateDefinition.class);
+		verify(mongoTemplate, times(2)).updateMulti(any(Query.class), updates.capture(), eq(NotificationOutbox.class));
+		assertTrue(updates.getAllValues().get(1).getUpdateObject().containsKey("$unset"));
+		verify(mongoTemplate, never()).remove(any(Query.class), eq(NotificationOutbox.class));
+	}
+
+	@Test
+	void foldedActorsAreCountedOnlyIfNotAlreadyFoldedIn() {
+		when(mongoTemplate.find(any(Query.class), eq(NotificationOutbox.class)))
+				.thenReturn(List.of(entry("e1", "u1"), entry("e2", "u2"), entry("e3", "u1")));
+
+		pipeline.sweepOutbox();
+
+		ArgumentCaptor<UpdateDefinition> update = ArgumentCaptor.forClass(UpdateDefinition.class);
+		verify(bulk).upsert(any(Query.class), update.capture());
+		List<Document> stages = ((AggregationUpdate) update.getValue()).toPipeline(Aggregation.DEFAULT_CONTEXT);
+		Document set = (Document) stages.get(0).get("$set");
+		Document added = new Document("$literal", List.of("u2", "u1"));
+		Document known = new Document("$ifNull", List.of("$actors",
+				new Document("$ifNull", List.of("$actorIds", List.of()))));
+		assertEquals(new Document("$add", List.of(new Document("$ifNull", List.of("$actorCount", 0)),
+				new Document("$size", new Document("$setDifference", List.of(added, known))))), set.get("actorCount"));
+		assertEquals(new Document("$setUnion", List.of(known, added)), set.get("actors"));
+		assertEquals(new Document("$literal", "u1"), set.get("triggerUserId"));
+	}
+
+	@Test
+	void actorNamesComeFromTheUserSummaries() {
+		when(mongoTemplate.find(any(Query.class), eq(NotificationOutbox.class)))
+				.thenReturn(List.of(entry("e1", "u1")));
+		when(userSummaryService.lookup(Set.of("u1"))).thenReturn(Map.of("u1", new UserSummary("u1", "Ada", null)));
+
+		pipeline.sweepOutbox();
+
+		ArgumentCaptor<UpdateDefinition> update = ArgumentCaptor.forClass(UpdateDefinition.class);
+		verify(bulk).upsert(any(Query.class), update.capture());
+		List<Document> stages = ((AggregationUpdate) update.getValue()).toPipeline(Aggregation.DEFAULT_CONTEXT);
+		Document set = (Document) stages.get(0).get("$set");
+		assertEquals(new Document("$literal", "Ada"), set.get("lastActorName"));
+		assertEquals(new Document("$literal", "Ada liked your post."), set.get("message"));
+	}
+
+	private static NotificationOutbox entry(String id, String triggerUserId) {
+		NotificationOutbox entry = new NotificationOutbox("owner", "LIKE", "p1", triggerUserId, null);
+		entry.setId(id);
+		return entry;
+	}
+
+}
@@ -0,0 +1,102 @@
+package com.example.Backend.service;
+
+import com.example.Backend.dto.CursorPage;
+import com.example.Backend.dto.ProfileOverview;
+import com.example.Backend.dto.UserProfileDTO;
+import com.example.Backend.dto.UserSummary;
+import com.example.Backend.model.LearningPlan;
+import com.example.Backend.model.LearningProgress;
+import com.example.Backend.model.Post;
+import com.example.Backend.model.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ProfileOverviewServiceTests {
+
+	private final CountDownLatch release = new CountDownLatch(1);
+
+	private UserService userService;
+	private UserStatsService userStatsService;
+	private PostService postService;
+	private LearningProgressService learningProgressService;
+	private LearningPlanService learningPlanService;
+	private UserSummaryService userSummaryService;
+	private FollowService followService;
+	private ProfileOverviewService profileOverviewService;
+
+	@BeforeEach
+	void setUp() {
+		userService = mock(UserService.class);
+		userStatsService = mock(UserStatsService.class);
+		postService = mock(PostService.class);
+		learningProgressService = mock(LearningProgressService.class);
+		learningPlanService = mock(LearningPlanService.class);
+		userSummaryService = mock(UserSummaryService.class);
+		followService = mock(FollowService.class);
+		profileOverviewService = new ProfileOverviewService(userService, userStatsService, postService,
+				learningProgressService, learningPlanService, userSummaryService, followService, Duration.ofMillis(200), 8, 100);
+
+		User user = new User();
+		user.setId("u1");
+		when(userService.findProfile("u1")).thenReturn(user);
+		when(userService.convertToProfileDTO(user)).thenReturn(new UserProfileDTO());
+		when(postService.getPostsPageByUserId(eq("u1"), isNull(), any()))
+				.thenReturn(new CursorPage<Post>(List.of(), null));
+		when(learningProgressService.getLearningProgressPageByUserId(eq("u1"), isNull(), any()))
+				.thenReturn(new CursorPage<LearningProgress>(List.of(), null));
+		when(learningPlanService.getLearningPlansPageByUserId(eq("u1"), isNull(), any()))
+				.thenReturn(new CursorPage<LearningPlan>(List.of(), null));
+		when(userSummaryService.getFollowers(eq("u1"), any(), isNull(), any()))
+				.thenReturn(new CursorPage<UserSummary>(List.of(), null));
+		when(followService.isFollowing("viewer", "u1")).thenReturn(true);
+	}
+
+	@AfterEach
+	void tearDown() {
+		release.countDown();
+		profileOverviewService.shutdown();
+	}
+
+	@Test
+	void failedAndSlowSectionsAreReportedAndTheRestIsReturned() {
+		when(userStatsService.getStats(any(User.class))).thenThrow(new IllegalStateException("stats unavailable"));
+		when(learningPlanService.getLearningPlansPageByUserId(eq("u1"), isNull(), any()))
+				.thenAnswer(invocation -> {
+					release.await();
+					return new CursorPage<LearningPlan>(List.of(), null);
+				});
+
+		ProfileOverview overview = profileOverviewService.getOverview("u1", "viewer", 5);
+
+		assertEquals(List.of("stats", "plans"), overview.getIncomplete());
+		assertNull(overview.getStats());
+		assertNull(overview.getPlans());
+		assertNotNull(overview.getPosts());
+		assertNotNull(overview.getProgress());
+		assertNotNull(overview.getFollowers());
+		assertTrue(overview.getProfile().getViewerFollows());
+	}
+
+	@Test
+	void aMissingUserIsNotFound() {
+		assertThrows(NoSuchElementException.class, () -> profileOverviewService.getOverview("ghost", null, 5));
+	}
+
+}
@@ -0,0 +1,65 @@
+package com.example.Backend.service;
+
+import com.example.Backend.model.MediaAsset;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RenditionServiceTests {
+
+	private MediaService mediaService;
+	private MediaAsset asset;
+	private RenditionService renditionService;
+
+	@BeforeEach
+	void setUp() {
+		mediaService = mock(MediaService.class);
+		asset = new MediaAsset("a1", "image/jpeg", 10);
+		when(mediaService.getMedia("a1")).thenReturn(asset);
+		when(mediaService.saveAsset(any(MediaAsset.class))).thenAnswer(invocation -> invocation.getArgument(0));
+		when(mediaService.locate("a1")).thenThrow(new IllegalStateException("undecodable"));
+		renditionService = new RenditionService(mediaService, List.of(320, 1080), 1, 10, 1000, Duration.ofHours(1));
+	}
+
+	@AfterEach
+	void tearDown() {
+		renditionService.shutdown();
+	}
+
+	@Test
+	void aFailedGenerationIsRecordedAndNotRetriedPerRequest() {
+		RenditionService.Resolution first = renditionService.resolve("a1", 320);
+		verify(mediaService, timeout(1000)).saveAsset(asset);
+
+		RenditionService.Resolution second = renditionService.resolve("a1", 320);
+
+		assertEquals(new RenditionService.Resolution("a1", true), first);
+		assertEquals(new RenditionService.Resolution("a1", true), second);
+		assertNotNull(asset.getRenditionsFailedAt());
+		verify(mediaService, times(1)).locate("a1");
+	}
+
+	@Test
+	void aFailureOlderThanTheRetryWindowIsTriedAgain() {
+		asset.setRenditionsFailedAt(new Date(System.currentTimeMillis() - Duration.ofHours(2).toMillis()));
+
+		assertTrue(renditionService.resolve("a1", 320).provisional());
+
+		verify(mediaService, timeout(1000)).locate("a1");
+	}
+
+}
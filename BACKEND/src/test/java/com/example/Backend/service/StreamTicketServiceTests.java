@@ -0,0 +1,67 @@
+package com.example.Backend.service;
+
+import com.example.Backend.model.StreamTicket;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.Duration;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class StreamTicketServiceTests {
+
+	private MongoTemplate mongoTemplate;
+	private StreamTicketService streamTicketService;
+
+	@BeforeEach
+	void setUp() {
+		mongoTemplate = mock(MongoTemplate.class);
+		streamTicketService = new StreamTicketService(mongoTemplate, Duration.ofSeconds(30));
+	}
+
+	@Test
+	void ticketsAreRandomAndShortLived() {
+		String first = streamTicketService.issue("u1");
+		String second = streamTicketService.issue("u1");
+
+		assertNotEquals(first, second);
+		ArgumentCaptor<StreamTicket> stored = ArgumentCaptor.forClass(StreamTicket.class);
+		verify(mongoTemplate, times(2)).insert(stored.capture());
+		StreamTicket ticket = stored.getAllValues().get(0);
+		assertEquals(first, ticket.getId());
+		assertEquals("u1", ticket.getUserId());
+		assertTrue(ticket.getExpiresAt().getTime() <= System.currentTimeMillis() + 30_000);
+	}
+
+	@Test
+	void redeemingRemovesAnUnexpiredTicket() {
+		when(mongoTemplate.findAndRemove(any(Query.class), eq(StreamTicket.class)))
+				.thenReturn(new StreamTicket("t1", "u1", new Date()));
+
+		assertEquals("u1", streamTicketService.redeem("t1"));
+
+		ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+		verify(mongoTemplate).findAndRemove(query.capture(), eq(StreamTicket.class));
+		assertEquals("t1", query.getValue().getQueryObject().get("_id"));
+		assertTrue(((Document) query.getValue().getQueryObject().get("expiresAt")).containsKey("$gt"));
+	}
+
+	@Test
+	void unknownUsedOrExpiredTicketsRedeemToNobody() {
+		assertNull(streamTicketService.redeem("t1"));
+	}
+}
@@ -0,0 +1,174 @@
+package com.example.Backend.service;
+
+import com.example.Backend.dto.UploadSessionRequest;
+import com.example.Backend.enums.UploadStatus;
+import com.example.Backend.model.MediaAsset;
+import com.example.Backend.model.UploadSession;
+import com.example.Backend.repository.UploadSessionRepository;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class UploadSessionServiceTests {
+
+	private static final int CHUNK = 256 * 1024;
+
+	@TempDir
+	Path sessionDir;
+
+	private UploadSessionRepository repository;
+	private MongoTemplate mongoTemplate;
+	private MediaService mediaService;
+	private UploadSessionService uploadSessionService;
+	private UploadSession session;
+	private final AtomicReference<byte[]> stored = new AtomicReference<>();
+
+	@BeforeEach
+	void setUp() throws Exception {
+		repository = mock(UploadSessionRepository.class);
+		mongoTemplate = mock(MongoTemplate.class);
+		mediaService = mock(MediaService.class);
+		when(mediaService.maxUploadBytes()).thenReturn(10L * CHUNK);
+		when(mediaService.storeUpload(any(InputStream.class), anyString())).thenAnswer(invocation -> {
+			stored.set(((InputStream) invocation.getArgument(0)).readAllBytes());
+			return new MediaAsset("m1", "image/png", stored.get().length);
+		});
+		when(repository.save(any(UploadSession.class))).thenAnswer(invocation -> invocation.getArgument(0));
+		when(repository.findById(anyString())).thenAnswer(invocation -> Optional.ofNullable(session));
+		//chunk registration and the switch to COMPLETING both go through findAndModify on the session
+		when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+				eq(UploadSession.class))).thenAnswer(invocation -> {
+					Update update = invocation.getArgument(1);
+					if (update.getUpdateObject().containsKey("$addToSet")) {
+						session.getReceivedChunks().add(receivedIndex(update));
+					} else {
+						session.setStatus(UploadStatus.COMPLETING);
+					}
+					return session;
+				});
+		uploadSessionService = new UploadSessionService(repository, mongoTemplate, mediaService,
+				sessionDir.toString(), Duration.ofHours(1));
+	}
+
+	@Test
+	void aChecksumIsRequired() {
+		assertThrows(IllegalArgumentException.class, () -> uploadSessionService.createSession(request(2 * CHUNK, null)));
+	}
+
+	@Test
+	void aRetryThatIsCutOffLeavesTheReceivedChunkIntact() throws Exception {
+		byte[] file = bytes(2 * CHUNK);
+		session = uploadSessionService.createSession(request(file.length, sha256(file)));
+		uploadSessionService.writeChunk(session.getId(), 0, new ByteArrayInputStream(file, 0, CHUNK));
+		uploadSessionService.writeChunk(session.getId(), 1, new ByteArrayInputStream(file, CHUNK, CHUNK));
+
+		//the re-sent first chunk breaks off halfway with different bytes
+		byte[] garbage = new byte[CHUNK];
+		assertThrows(IOException.class, () -> uploadSessionService.writeChunk(session.getId(), 0,
+				new BrokenInputStream(Arrays.copyOf(garbage, CHUNK / 2))));
+
+		uploadSessionService.complete(session.getId());
+		assertArrayEquals(file, stored.get());
+	}
+
+	@Test
+	void assembledBytesThatDoNotMatchTheChecksumAreNotStored() throws Exception {
+		byte[] file = bytes(2 * CHUNK);
+		session = uploadSessionService.createSession(request(file.length, sha256(bytes(CHUNK))));
+		uploadSessionService.writeChunk(session.getId(), 0, new ByteArrayInputStream(file, 0, CHUNK));
+		uploadSessionService.writeChunk(session.getId(), 1, new ByteArrayInputStream(file, CHUNK, CHUNK));
+
+		assertThrows(IllegalArgumentException.class, () -> uploadSessionService.complete(session.getId()));
+		assertNull(stored.get());
+	}
+
+	@Test
+	void chunksAreRefusedOnceCompletionHasStarted() throws Exception {
+		byte[] file = bytes(2 * CHUNK);
+		session = uploadSessionService.createSession(request(file.length, sha256(file)));
+		session.setStatus(UploadStatus.COMPLETING);
+
+		assertThrows(IllegalStateException.class, () -> uploadSessionService.writeChunk(session.getId(), 0,
+				new ByteArrayInputStream(file, 0, CHUNK)));
+	}
+
+	private static int receivedIndex(Update update) {
+		return (Integer) ((Document) update.getUpdateObject().get("$addToSet")).get("receivedChunks");
+	}
+
+	private static UploadSessionRequest request(long size, String sha256) {
+		UploadSessionRequest request = new UploadSessionRequest();
+		request.setUserId("u1");
+		request.setFileName("photo.png");
+		request.setContentType("image/png");
+		request.setTotalSize(size);
+		request.setChunkSize(CHUNK);
+		request.setSha256(sha256);
+		return request;
+	}
+
+	private static byte[] bytes(int length) {
+		byte[] bytes = new byte[length];
+		for (int i = 0; i < length; i++) {
+			bytes[i] = (byte) (i * 31 + i / CHUNK);
+		}
+		return bytes;
+	}
+
+	private static String sha256(byte[] bytes) throws Exception {
+		return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+	}
+
+	//delivers its bytes, then fails like a dropped connection
+	private static final class BrokenInputStream extends InputStream {
+		private final ByteArrayInputStream delegate;
+
+		BrokenInputStream(byte[] bytes) {
+			this.delegate = new ByteArrayInputStream(bytes);
+		}
+
+		@Override
+		public int read() throws IOException {
+			int value = delegate.read();
+			if (value == -1) {
+				throw new IOException("Connection reset");
+			}
+			return value;
+		}
+
+		@Override
+		public int read(byte[] buffer, int offset, int length) throws IOException {
+			int read = delegate.read(buffer, offset, length);
+			if (read == -1) {
+				throw new IOException("Connection reset");
+			}
+			return read;
+		}
+	}
+
+}
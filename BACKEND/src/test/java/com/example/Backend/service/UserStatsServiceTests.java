@@ -0,0 +1,93 @@
+package com.example.Backend.service;
+
+import com.example.Backend.enums.FeedItemType;
+import com.example.Backend.event.ContentCreatedEvent;
+import com.example.Backend.model.Post;
+import com.example.Backend.model.UserStats;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserStatsServiceTests {
+
+	private MongoTemplate mongoTemplate;
+	private UserStatsService userStatsService;
+
+	@BeforeEach
+	void setUp() {
+		mongoTemplate = mock(MongoTemplate.class);
+		userStatsService = new UserStatsService(mongoTemplate, mock(UserCache.class), 500);
+	}
+
+	@Test
+	void firstContentOfAUserStartsTheCountersFromTheirContent() {
+		when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(UserStats.class)))
+				.thenReturn(UpdateResult.acknowledged(0, 0L, null));
+		when(mongoTemplate.count(any(Query.class), eq(Post.class))).thenReturn(4L);
+
+		userStatsService.onContentCreated(new ContentCreatedEvent(FeedItemType.POST, "p4", "u1", new Date()));
+
+		ArgumentCaptor<Update> initial = ArgumentCaptor.forClass(Update.class);
+		verify(mongoTemplate).upsert(any(Query.class), initial.capture(), eq(UserStats.class));
+		assertEquals(4L, ((Document) initial.getValue().getUpdateObject().get("$setOnInsert")).get("posts"));
+		assertNull(initial.getValue().getUpdateObject().get("$inc"));
+	}
+
+	@Test
+	void laterContentOnlyIncrements() {
+		when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(UserStats.class)))
+				.thenReturn(UpdateResult.acknowledged(1, 1L, null));
+
+		userStatsService.onContentCreated(new ContentCreatedEvent(FeedItemType.POST, "p5", "u1", new Date()));
+
+		verify(mongoTemplate, never()).count(any(Query.class), eq(Post.class));
+		verify(mongoTemplate, never()).upsert(any(Query.class), any(Update.class), eq(UserStats.class));
+	}
+
+	@Test
+	void reconcileOnlyCorrectsACounterThatStillHoldsTheValueRead() {
+		BulkOperations bulk = mock(BulkOperations.class);
+		when(mongoTemplate.bulkOps(any(BulkOperations.BulkMode.class), eq(UserStats.class))).thenReturn(bulk);
+		when(mongoTemplate.getCollectionName(UserStats.class)).thenReturn("user_stats");
+		when(mongoTemplate.find(any(Query.class), eq(Document.class), anyString()))
+				.thenReturn(List.of(new Document("_id", "u1").append("posts", 7L)))
+				.thenReturn(List.of());
+		when(mongoTemplate.aggregate(any(Aggregation.class), any(Class.class), eq(Document.class)))
+				.thenAnswer(invocation -> invocation.getArgument(1) == Post.class
+						? new AggregationResults<>(List.of(new Document("_id", "u1").append("count", 5)), new Document())
+						: new AggregationResults<>(List.of(), new Document()));
+
+		long fixed = userStatsService.reconcileContentCounts();
+
+		ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+		ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+		verify(bulk, atLeastOnce()).updateOne(query.capture(), update.capture());
+		assertEquals(new Document("_id", "u1").append("posts", 7L), query.getAllValues().get(0).getQueryObject());
+		assertEquals(5L, ((Document) update.getAllValues().get(0).getUpdateObject().get("$set")).get("posts"));
+		//posts is off by two; the other counters are missing and get set to zero
+		assertEquals(3, fixed);
+	}
+
+}
@@ -140,13 +140,19 @@ const LearningPlanPage = () => {
       } else {
         // Like
         const likeData = { userId: currentUser.id, userName: currentUser.name };
-        const response = await addLike(planId, likeData, currentUser.token);
+        await addLike(planId, likeData, currentUser.token);
 
-        // Update state
+        // Update state (the API only returns the new like count)
         setLearningPlans(
             learningPlans.map((plan) => {
               if (plan.id === planId) {
-                return response.data;
+                return {
+                  ...plan,
+                  likes: [
+                    ...(plan.likes || []),
+                    { userId: currentUser.id, createdAt: new Date() },
+                  ],
+                };
               }
               return plan;
             })
@@ -171,7 +177,7 @@ const LearningPlanPage = () => {
       setLearningPlans(
           learningPlans.map((plan) => {
             if (plan.id === planId) {
-              return response.data;
+              return { ...plan, commentCount: response.data.commentCount, comments: response.data.comments };
             }
             return plan;
           })
@@ -215,6 +221,7 @@ const LearningPlanPage = () => {
               comments: plan.comments.filter(
                   (comment) => comment.id !== commentId
               ),
+              commentCount: Math.max(0, (plan.commentCount ?? plan.comments.length) - 1),
             };
           }
           return plan;
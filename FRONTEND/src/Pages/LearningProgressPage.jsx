@@ -230,13 +230,19 @@ const LearningProgressPage = () => {
       } else {
         // Like
         const likeData = { userId: currentUser.id };
-        const response = await addLike(progressId, likeData, currentUser.token);
+        await addLike(progressId, likeData, currentUser.token);
 
-        // Update state
+        // Update state (the API only returns the new like count)
         setProgressEntries(
             progressEntries.map((entry) => {
               if (entry.id === progressId) {
-                return response.data;
+                return {
+                  ...entry,
+                  likes: [
+                    ...(entry.likes || []),
+                    { userId: currentUser.id, createdAt: new Date() },
+                  ],
+                };
               }
               return entry;
             })
@@ -265,7 +271,7 @@ const LearningProgressPage = () => {
       setProgressEntries(
           progressEntries.map((entry) => {
             if (entry.id === progressId) {
-              return response.data;
+              return { ...entry, commentCount: response.data.commentCount, comments: response.data.comments };
             }
             return entry;
           })
@@ -309,6 +315,7 @@ const LearningProgressPage = () => {
               comments: progressEntry.comments.filter(
                   (comment) => comment.id !== commentId
               ),
+              commentCount: Math.max(0, (progressEntry.commentCount ?? progressEntry.comments.length) - 1),
             };
           }
           return progressEntry;
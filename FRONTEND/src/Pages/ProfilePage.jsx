@@ -17,7 +17,7 @@ import toast from "react-hot-toast";
 
 // API imports
 import {
-    getUserProfile,
+    getProfileOverview,
     followUser,
     unfollowUser,
     getUserTotalPostCount,
@@ -26,7 +26,7 @@ import {
     deletePost,
     addLike,
     removeLike,
-    getPostsByUserId,
+    getPostsPageByUserId,
     addComment as addPostComment,
     updateComment as updatePostComment,
     deleteComment as deletePostComment,
@@ -35,7 +35,7 @@ import {
     deleteLearningProgress,
     addLike as addProgressLike,
     removeLike as removeProgressLike,
-    getLearningProgressByUserId,
+    getLearningProgressPageByUserId,
     addComment as addProgressComment,
     updateLearningProgressComment,
     deleteLearningProgressComment,
@@ -44,12 +44,15 @@ import {
     deleteLearningPlan,
     addLike as addPlanLike,
     removeLike as removePlanLike,
-    getLearningPlansByUserId,
+    getLearningPlansPageByUserId,
     addComment as addPlanComment,
     updateLearningPlanComment,
     deleteLearningPlanComment,
 } from "../api/learningPlanAPI";
 
+// Same size as the overview's first pages
+const PAGE_SIZE = 20;
+
 const ProfilePage = () => {
     const {userId} = useParams();
     const navigate = useNavigate();
@@ -71,30 +74,62 @@ const ProfilePage = () => {
     const [totalPostCount, setTotalPostCount] = useState(0);
     const [editingProgress, setEditingProgress] = useState(null);
     const [editingPlan, setEditingPlan] = useState(null);
+    // Cursor of each tab's next page: undefined until its first page is loaded, null when there are no more
+    const [nextCursors, setNextCursors] = useState({});
+    const [loadingMore, setLoadingMore] = useState(false);
+    const [followersPage, setFollowersPage] = useState(null);
+
+    const pageFetchers = {
+        posts: (cursor) => getPostsPageByUserId(userId, cursor, PAGE_SIZE, currentUser?.token),
+        progress: (cursor) => getLearningProgressPageByUserId(userId, cursor, PAGE_SIZE, currentUser?.token),
+        plans: (cursor) => getLearningPlansPageByUserId(userId, cursor, PAGE_SIZE, currentUser?.token),
+    };
+    const tabSetters = {posts: setPosts, progress: setProgressEntries, plans: setLearningPlans};
+
+    // Load a tab's first page, or append the page that starts at cursor
+    const loadPage = async (tab, cursor) => {
+        const response = await pageFetchers[tab](cursor);
+        const items = response.data.items || [];
+        tabSetters[tab]((prev) => (cursor ? [...prev, ...items] : items));
+        setNextCursors((prev) => ({...prev, [tab]: response.data.nextCursor || null}));
+    };
 
     useEffect(() => {
         const fetchProfileData = async () => {
             setIsLoading(true);
             try {
-                // Fetch user profile data
-                const profileData = await getUserProfile(userId);
+                // Fetch profile data, counts and the first page of each list in one request
+                const overview = await getProfileOverview(userId, currentUser?.token);
+                const profileData = overview.profile;
                 setProfileUser(profileData);
 
+                // A list the overview could not include is fetched when its tab is opened
+                const cursors = {};
+                ["posts", "progress", "plans"].forEach((tab) => {
+                    if (overview[tab]) {
+                        tabSetters[tab](overview[tab].items || []);
+                        cursors[tab] = overview[tab].nextCursor || null;
+                    }
+                });
+                setNextCursors(cursors);
+                setFollowersPage(overview.followers || null);
+
                 // Check if current user is the profile owner
                 setIsOwner(currentUser?.id === userId);
 
                 // Check if current user is following this profile
-                setIsFollowing(
-                    currentUser?.followingUsers?.includes(userId) ||
-                    profileData.followedUsers?.includes(currentUser?.id)
-                );
-
-                // Fetch total post count
-                const postCountData = await getUserTotalPostCount(
-                    userId,
-                    currentUser?.token
-                );
-                setTotalPostCount(postCountData.totalPosts);
+                setIsFollowing(profileData.viewerFollows || false);
+
+                // Total post count, fetched separately only if the overview could not include it
+                if (overview.stats) {
+                    setTotalPostCount(overview.stats.totalPosts);
+                } else {
+                    const postCountData = await getUserTotalPostCount(
+                        userId,
+                        currentUser?.token
+                    );
+                    setTotalPostCount(postCountData.totalPosts);
+                }
             } catch (error) {
                 console.error("Error fetching profile:", error);
                 toast.error("Failed to load profile");
@@ -107,38 +142,17 @@ const ProfilePage = () => {
     }, [userId, currentUser]);
 
     useEffect(() => {
-        // Fetch content based on active tab
+        // Fetch the active tab's first page, unless it came with the overview
         const fetchContent = async () => {
             if (!profileUser) return;
+            if (nextCursors[activeTab] !== undefined) {
+                setContentLoading(false);
+                return;
+            }
 
             setContentLoading(true);
             try {
-                let postsData;
-                let progressData;
-                let plansData;
-
-                switch (activeTab) {
-                    case "posts":
-                        postsData = await getPostsByUserId(userId, currentUser?.token);
-                        setPosts(postsData.data || []);
-                        break;
-                    case "progress":
-                        progressData = await getLearningProgressByUserId(
-                            userId,
-                            currentUser?.token
-                        );
-                        setProgressEntries(progressData.data || []);
-                        break;
-                    case "plans":
-                        plansData = await getLearningPlansByUserId(
-                            userId,
-                            currentUser?.token
-                        );
-                        setLearningPlans(plansData.data || []);
-                        break;
-                    default:
-                        break;
-                }
+                await loadPage(activeTab, null);
             } catch (error) {
                 console.error(`Error fetching ${activeTab}:`, error);
                 toast.error(`Failed to load ${activeTab}`);
@@ -148,7 +162,19 @@ const ProfilePage = () => {
         };
 
         fetchContent();
-    }, [activeTab, profileUser, userId, currentUser?.token]);
+    }, [activeTab, profileUser, nextCursors, userId, currentUser?.token]);
+
+    const handleLoadMore = async () => {
+        setLoadingMore(true);
+        try {
+            await loadPage(activeTab, nextCursors[activeTab]);
+        } catch (error) {
+            console.error(`Error fetching more ${activeTab}:`, error);
+            toast.error(`Failed to load ${activeTab}`);
+        } finally {
+            setLoadingMore(false);
+        }
+    };
 
     const handleFollowToggle = async () => {
         if (!currentUser) {
@@ -158,23 +184,21 @@ const ProfilePage = () => {
         }
 
         try {
+            let result;
             if (isFollowing) {
-                await unfollowUser(userId, currentUser?.token);
+                result = await unfollowUser(userId, currentUser?.token);
                 toast.success(`Unfollowed ${profileUser.name}`);
             } else {
-                await followUser(userId, currentUser?.token);
+                result = await followUser(userId, currentUser?.token);
                 toast.success(`Now following ${profileUser.name}`);
             }
 
-            // Toggle following state
-            setIsFollowing(!isFollowing);
-
-            // Update followers count in profile data
+            // Follow state and followers count as returned by the server; the followers list is refetched when opened
+            setIsFollowing(result.following);
+            setFollowersPage(null);
             setProfileUser((prev) => ({
                 ...prev,
-                followedUsers: isFollowing
-                    ? (prev.followedUsers || []).filter((id) => id !== currentUser?.id)
-                    : [...(prev.followedUsers || []), currentUser?.id],
+                followerCount: result.followerCount,
             }));
         } catch (error) {
             console.error("Error following/unfollowing user:", error);
@@ -202,9 +226,13 @@ const ProfilePage = () => {
                 currentUser.token
             );
 
-            // Update posts state directly with the response data
+            // The response carries the post's new comment count and preview
             setPosts(
-                posts.map((post) => (post.id === postId ? response.data : post))
+                posts.map((post) =>
+                    post.id === postId
+                        ? { ...post, commentCount: response.data.commentCount, comments: response.data.comments }
+                        : post
+                )
             );
 
             return response;
@@ -249,6 +277,7 @@ const ProfilePage = () => {
                         comments: post.comments.filter(
                             (comment) => comment.id !== commentId
                         ),
+                        commentCount: Math.max(0, (post.commentCount ?? post.comments.length) - 1),
                     };
                 }
                 return post;
@@ -265,14 +294,16 @@ const ProfilePage = () => {
         }
 
         try {
-            await addProgressComment(progressId, commentData, currentUser.token);
-
-            // Refresh progress entries to get the updated comments
-            const progressData = await getLearningProgressByUserId(
-                userId,
-                currentUser?.token
+            const response = await addProgressComment(progressId, commentData, currentUser.token);
+
+            // The response carries the entry's new comment count and preview
+            setProgressEntries((entries) =>
+                entries.map((entry) =>
+                    entry.id === progressId
+                        ? { ...entry, commentCount: response.data.commentCount, comments: response.data.comments }
+                        : entry
+                )
             );
-            setProgressEntries(progressData.data || []);
 
             return true;
         } catch (error) {
@@ -300,11 +331,7 @@ const ProfilePage = () => {
             );
 
             // Refresh progress entries to get the updated comments
-            const progressData = await getLearningProgressByUserId(
-                userId,
-                currentUser?.token
-            );
-            setProgressEntries(progressData.data || []);
+            await loadPage("progress", null);
 
             return true;
         } catch (error) {
@@ -324,11 +351,7 @@ const ProfilePage = () => {
             );
 
             // Refresh progress entries to get the updated comments
-            const progressData = await getLearningProgressByUserId(
-                userId,
-                currentUser?.token
-            );
-            setProgressEntries(progressData.data || []);
+            await loadPage("progress", null);
 
             return true;
         } catch (error) {
@@ -347,14 +370,16 @@ const ProfilePage = () => {
         }
 
         try {
-            await addPlanComment(planId, commentData, currentUser.token);
-
-            // Refresh plans to get the updated comments
-            const plansData = await getLearningPlansByUserId(
-                userId,
-                currentUser?.token
+            const response = await addPlanComment(planId, commentData, currentUser.token);
+
+            // The response carries the plan's new comment count and preview
+            setLearningPlans((plans) =>
+                plans.map((plan) =>
+                    plan.id === planId
+                        ? { ...plan, commentCount: response.data.commentCount, comments: response.data.comments }
+                        : plan
+                )
             );
-            setLearningPlans(plansData.data || []);
 
             return true;
         } catch (error) {
@@ -378,11 +403,7 @@ const ProfilePage = () => {
             );
 
             // Refresh plans to get the updated comments
-            const plansData = await getLearningPlansByUserId(
-                userId,
-                currentUser?.token
-            );
-            setLearningPlans(plansData.data || []);
+            await loadPage("plans", null);
 
             return true;
         } catch (error) {
@@ -402,11 +423,7 @@ const ProfilePage = () => {
             );
 
             // Refresh plans to get the updated comments
-            const plansData = await getLearningPlansByUserId(
-                userId,
-                currentUser?.token
-            );
-            setLearningPlans(plansData.data || []);
+            await loadPage("plans", null);
 
             return true;
         } catch (error) {
@@ -420,8 +437,7 @@ const ProfilePage = () => {
         if (isUpdate) {
             // If this is called after a post update, refresh the posts data
             try {
-                const postsData = await getPostsByUserId(userId, currentUser?.token);
-                setPosts(postsData.data || []);
+                await loadPage("posts", null);
                 return;
             } catch (error) {
                 console.error("Error refreshing posts:", error);
@@ -504,11 +520,7 @@ const ProfilePage = () => {
 
     const handleProgressUpdated = async () => {
         try {
-            const progressData = await getLearningProgressByUserId(
-                userId,
-                currentUser?.token
-            );
-            setProgressEntries(progressData.data || []);
+            await loadPage("progress", null);
             setEditingProgress(null);
         } catch (error) {
             console.error("Error refreshing progress data:", error);
@@ -569,11 +581,7 @@ const ProfilePage = () => {
             toast.error("Failed to process like");
 
             // Refresh progress data to ensure UI is in sync with server
-            const progressData = await getLearningProgressByUserId(
-                userId,
-                currentUser?.token
-            );
-            setProgressEntries(progressData.data || []);
+            await loadPage("progress", null);
         }
     };
 
@@ -598,11 +606,7 @@ const ProfilePage = () => {
     const handlePlanUpdated = async () => {
         // Refresh plan data after update
         try {
-            const plansData = await getLearningPlansByUserId(
-                userId,
-                currentUser?.token
-            );
-            setLearningPlans(plansData.data || []);
+            await loadPage("plans", null);
             setEditingPlan(null);
         } catch (error) {
             console.error("Error refreshing plan data:", error);
@@ -659,11 +663,7 @@ const ProfilePage = () => {
             toast.error("Failed to process like");
 
             // Refresh plans data to ensure UI is in sync with server
-            const plansData = await getLearningPlansByUserId(
-                userId,
-                currentUser?.token
-            );
-            setLearningPlans(plansData.data || []);
+            await loadPage("plans", null);
         }
     };
 
@@ -951,6 +951,15 @@ const ProfilePage = () => {
                                     />
                                 ))}
                         </AnimatePresence>
+                        {nextCursors[activeTab] && (
+                            <button
+                                onClick={handleLoadMore}
+                                disabled={loadingMore}
+                                className="w-full py-3 text-sm text-yellow-400 hover:bg-gray-800 transition-colors cursor-pointer disabled:opacity-50"
+                            >
+                                {loadingMore ? "Loading..." : "Load more"}
+                            </button>
+                        )}
                     </>
                 )}
             </div>
@@ -968,9 +977,14 @@ const ProfilePage = () => {
             {showFollowers && (
                 <FollowersModal
                     isOpen={showFollowers}
-                    onClose={() => setShowFollowers(false)}
+                    onClose={() => {
+                        setShowFollowers(false);
+                        setFollowersPage(null);
+                    }}
                     title="Followers"
-                    users={profileUser.followedUsers || []}
+                    userId={userId}
+                    kind="followers"
+                    initialPage={followersPage}
                     currentUser={currentUser}
                     token={currentUser?.token}
                 />
@@ -981,7 +995,8 @@ const ProfilePage = () => {
                     isOpen={showFollowing}
                     onClose={() => setShowFollowing(false)}
                     title="Following"
-                    users={profileUser.followingUsers || []}
+                    userId={userId}
+                    kind="following"
                     currentUser={currentUser}
                     token={currentUser?.token}
                 />
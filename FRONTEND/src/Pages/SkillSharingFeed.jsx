@@ -134,9 +134,13 @@ const SkillSharingFeed = () => {
         try {
             const response = await addComment(postId, commentData, currentUser.token);
 
-            // Update the posts state with the updated post from the response
+            // The response carries the post's new comment count and preview
             setPosts(
-                posts.map((post) => (post.id === postId ? response.data : post))
+                posts.map((post) =>
+                    post.id === postId
+                        ? { ...post, commentCount: response.data.commentCount, comments: response.data.comments }
+                        : post
+                )
             );
 
             return response;
@@ -179,6 +183,7 @@ const SkillSharingFeed = () => {
                         comments: post.comments.filter(
                             (comment) => comment.id !== commentId
                         ),
+                        commentCount: Math.max(0, (post.commentCount ?? post.comments.length) - 1),
                     };
                 }
                 return post;
@@ -202,7 +207,7 @@ const SkillSharingFeed = () => {
             case 'popular':
                 // Sort by most comments
                 filteredPosts.sort((a, b) =>
-                    (b.comments?.length || 0) - (a.comments?.length || 0)
+                    (b.commentCount ?? b.comments?.length ?? 0) - (a.commentCount ?? a.comments?.length ?? 0)
                 );
                 break;
             case 'latest':
@@ -40,6 +40,12 @@ export const getLearningPlansByUserId = async (userId, token) => {
   return apiClient.get(`/learning-plan/user/${userId}`);
 };
 
+// get one page of a user's learning plans ({ items, nextCursor }), newest first
+export const getLearningPlansPageByUserId = async (userId, cursor, limit, token) => {
+  const apiClient = createApiClient(token);
+  return apiClient.get(`/learning-plan/user/${userId}`, { params: { cursor, limit } });
+};
+
 // update learning plan
 export const updateLearningPlan = async (planId, planData, token) => {
   const apiClient = createApiClient(token);
@@ -70,6 +76,12 @@ export const addComment = async (planId, commentData, token) => {
   return apiClient.post(`/learning-plan/${planId}/comments`, commentData);
 };
 
+// get one page of comments, newest first
+export const getLearningPlanComments = async (planId, cursor, limit, token) => {
+  const apiClient = createApiClient(token);
+  return apiClient.get(`/learning-plan/${planId}/comments`, { params: { cursor, limit } });
+};
+
 // update comment
 export const updateLearningPlanComment = async (planId, commentId, commentData, token) => {
   const apiClient = createApiClient(token);
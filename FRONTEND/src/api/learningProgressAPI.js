@@ -40,6 +40,12 @@ export const getLearningProgressByUserId = async (userId, token) => {
   return apiClient.get(`/learning-progress/user/${userId}`);
 };
 
+//get one page of a user's learning progress ({ items, nextCursor }), newest first
+export const getLearningProgressPageByUserId = async (userId, cursor, limit, token) => {
+  const apiClient = createApiClient(token);
+  return apiClient.get(`/learning-progress/user/${userId}`, { params: { cursor, limit } });
+};
+
 //update learning progress
 export const updateLearningProgress = async (
   progressId,
@@ -77,6 +83,12 @@ export const addComment = async (progressId, commentData, token) => {
   );
 };
 
+//get one page of comments, newest first
+export const getLearningProgressComments = async (progressId, cursor, limit, token) => {
+  const apiClient = createApiClient(token);
+  return apiClient.get(`/learning-progress/${progressId}/comments`, { params: { cursor, limit } });
+};
+
 //update comment
 export const updateLearningProgressComment = async (
   progressId,
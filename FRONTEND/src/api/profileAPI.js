@@ -27,6 +27,18 @@ export const getUserProfile = async (userId, token) => {
   }
 };
 
+// Get the profile page's opening payload: profile, counts and first pages, in one request
+export const getProfileOverview = async (userId, token) => {
+  const apiClient = createApiClient(token);
+  try {
+    const response = await apiClient.get(`/user/${userId}/overview`);
+    return response.data;
+  } catch (error) {
+    console.error("Error fetching profile overview:", error);
+    throw error;
+  }
+};
+
 // Update user profile
 export const updateUserProfile = async (userId, profileData, token) => {
   const apiClient = createApiClient(token);
@@ -95,6 +107,34 @@ export const getUsersById = async (userIds, token) => {
   }
 };
 
+// Get one page of followers as user summaries ({ items, nextCursor })
+export const getFollowers = async (userId, cursor, token) => {
+  const apiClient = createApiClient(token);
+  try {
+    const response = await apiClient.get(`/user/${userId}/followers`, {
+      params: { cursor, limit: 50 },
+    });
+    return response.data;
+  } catch (error) {
+    console.error("Error fetching followers:", error);
+    throw error;
+  }
+};
+
+// Get one page of followed users as user summaries ({ items, nextCursor })
+export const getFollowing = async (userId, cursor, token) => {
+  const apiClient = createApiClient(token);
+  try {
+    const response = await apiClient.get(`/user/${userId}/following`, {
+      params: { cursor, limit: 50 },
+    });
+    return response.data;
+  } catch (error) {
+    console.error("Error fetching following:", error);
+    throw error;
+  }
+};
+
 // Get user's content (posts, progress, plans)
 export const getUserContent = async (userId, token) => {
   const apiClient = createApiClient(token);
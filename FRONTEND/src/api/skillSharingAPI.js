@@ -21,6 +21,18 @@ export const createPost = async (userId, postData, token) => {
   return apiClient.post(`/posts/user/${userId}`, postData);
 };
 
+//create post with media files sent as multipart parts instead of base64
+export const createPostWithMedia = async (userId, userName, description, files, token) => {
+  const apiClient = createApiClient(token);
+  const formData = new FormData();
+  formData.append("userName", userName || "");
+  formData.append("description", description || "");
+  files.forEach((file) => formData.append("files", file));
+  return apiClient.post(`/posts/user/${userId}`, formData, {
+    headers: { "Content-Type": "multipart/form-data" },
+  });
+};
+
 //get all posts
 export const getAllPosts = async (token) => {
   const apiClient = createApiClient(token);
@@ -39,6 +51,12 @@ export const getPostsByUserId = async (userId, token) => {
   return apiClient.get(`/posts/user/${userId}`);
 };
 
+//get one page of a user's posts ({ items, nextCursor }), newest first
+export const getPostsPageByUserId = async (userId, cursor, limit, token) => {
+  const apiClient = createApiClient(token);
+  return apiClient.get(`/posts/user/${userId}`, { params: { cursor, limit } });
+};
+
 //update post
 export const updatePost = async (postId, postData, token) => {
   const apiClient = createApiClient(token);
@@ -69,6 +87,12 @@ export const addComment = async (postId, commentData, token) => {
   return apiClient.post(`/posts/${postId}/comments`, commentData);
 };
 
+//get one page of a post's comments, newest first
+export const getComments = async (postId, cursor, limit, token) => {
+  const apiClient = createApiClient(token);
+  return apiClient.get(`/posts/${postId}/comments`, { params: { cursor, limit } });
+};
+
 //update comment
 export const updateComment = async (postId, commentId, commentData, token) => {
   const apiClient = createApiClient(token);
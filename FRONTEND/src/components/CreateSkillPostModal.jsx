@@ -1,7 +1,7 @@
 import React, { useState } from "react";
 import { useForm } from "react-hook-form";
 import { motion } from "framer-motion";
-import { createPost } from "../api/skillSharingAPI";
+import { createPostWithMedia } from "../api/skillSharingAPI";
 import { useAuth } from "../context/auth";
 import toast from "react-hot-toast";
 import { Image, Video, X, Upload, Paperclip } from "lucide-react";
@@ -13,7 +13,7 @@ const CreatePostForm = ({ onPostCreated }) => {
   const [isSubmitting, setIsSubmitting] = useState(false);
   const [isProcessingFiles, setIsProcessingFiles] = useState(false);
   const [mediaType, setMediaType] = useState(null); // 'image' or 'video' or null
-  const [base64Files, setBase64Files] = useState([]);
+  const [selectedFiles, setSelectedFiles] = useState([]);
   const [showForm, setShowForm] = useState(false);
 
   const {
@@ -97,27 +97,6 @@ const CreatePostForm = ({ onPostCreated }) => {
         }
       }
 
-      // Convert files to base64
-      const base64Promises = files.map(
-          (file) =>
-              new Promise((resolve, reject) => {
-                const reader = new FileReader();
-                reader.onload = () => {
-                  // Add metadata to identify file type
-                  resolve({
-                    dataUrl: reader.result,
-                    type: file.type.startsWith("video/") ? "video" : "image",
-                    fileType: file.type,
-                  });
-                };
-                reader.onerror = reject;
-                reader.readAsDataURL(file);
-              })
-      );
-
-      // Wait for all files to be converted
-      const mediaItems = await Promise.all(base64Promises);
-
       // Clear previous preview URLs
       previewUrls.forEach((url) => {
         if (url.startsWith("blob:")) {
@@ -129,16 +108,8 @@ const CreatePostForm = ({ onPostCreated }) => {
       const newPreviewUrls = files.map((file) => URL.createObjectURL(file));
       setPreviewUrls(newPreviewUrls);
 
-      // Store the actual base64 data with type information for the server
-      const base64Urls = mediaItems.map((item) => {
-        return JSON.stringify({
-          dataUrl: item.dataUrl,
-          type: item.type,
-          fileType: item.fileType,
-        });
-      });
-
-      setBase64Files(base64Urls);
+      // Keep the raw files; they are streamed to the server as multipart parts
+      setSelectedFiles(files);
       setValue("mediaFiles", files);
     } catch (error) {
       console.error("Error processing files:", error);
@@ -150,7 +121,7 @@ const CreatePostForm = ({ onPostCreated }) => {
   };
 
   const onSubmit = async (data) => {
-    if (!data.description.trim() && base64Files.length === 0) {
+    if (!data.description.trim() && selectedFiles.length === 0) {
       toast.error("Please add a description or at least one file");
       return;
     }
@@ -158,19 +129,18 @@ const CreatePostForm = ({ onPostCreated }) => {
     setIsSubmitting(true);
 
     try {
-      const postData = {
-        userId: currentUser.id,
-        userName: currentUser.name,
-        description: data.description,
-        mediaUrls: base64Files, // Send base64 encoded files instead of blob URLs
-      };
-
-      await createPost(currentUser.id, postData, currentUser.token);
+      await createPostWithMedia(
+          currentUser.id,
+          currentUser.name,
+          data.description,
+          selectedFiles,
+          currentUser.token
+      );
 
       toast.success("Post created successfully");
       reset();
       setPreviewUrls([]);
-      setBase64Files([]);
+      setSelectedFiles([]);
       setMediaType(null);
       setShowForm(false);
       onPostCreated();
@@ -185,7 +155,7 @@ const CreatePostForm = ({ onPostCreated }) => {
   const removeFile = (index) => {
     // Remove file at index
     const newPreviewUrls = [...previewUrls];
-    const newBase64Files = [...base64Files];
+    const newSelectedFiles = [...selectedFiles];
 
     // Revoke URL object
     if (previewUrls[index].startsWith("blob:")) {
@@ -193,10 +163,10 @@ const CreatePostForm = ({ onPostCreated }) => {
     }
 
     newPreviewUrls.splice(index, 1);
-    newBase64Files.splice(index, 1);
+    newSelectedFiles.splice(index, 1);
 
     setPreviewUrls(newPreviewUrls);
-    setBase64Files(newBase64Files);
+    setSelectedFiles(newSelectedFiles);
     setValue(
         "mediaFiles",
         [...document.querySelector('input[type="file"]').files].filter(
@@ -387,7 +357,7 @@ const CreatePostForm = ({ onPostCreated }) => {
                     setShowForm(false);
                     reset();
                     setPreviewUrls([]);
-                    setBase64Files([]);
+                    setSelectedFiles([]);
                     setMediaType(null);
                   }}
                   disabled={isSubmitting || isProcessingFiles}
@@ -3,43 +3,64 @@ import { motion, AnimatePresence } from "framer-motion";
 import { X, UserPlus, UserMinus, Search, Hexagon } from "lucide-react";
 import { Link, useNavigate } from "react-router-dom";
 import toast from "react-hot-toast";
-import { getUsersById, followUser, unfollowUser } from "../api/profileAPI";
+import {
+  getFollowers,
+  getFollowing,
+  followUser,
+  unfollowUser,
+} from "../api/profileAPI";
 import UserAvatar from "./UserAvatar";
 
 const FollowersModal = ({
                           isOpen,
                           onClose,
                           title,
-                          users = [],
+                          userId,
+                          kind = "followers",
                           currentUser,
                           token,
+                          initialPage = null,
                         }) => {
   const navigate = useNavigate();
   const [loading, setLoading] = useState(true);
   const [usersList, setUsersList] = useState([]);
+  const [nextCursor, setNextCursor] = useState(null);
   const [searchQuery, setSearchQuery] = useState("");
   const [followStates, setFollowStates] = useState({});
 
+  // Show one page of user summaries
+  const applyPage = (page, cursor) => {
+    const fetchedUsers = page?.items || [];
+    setNextCursor(page?.nextCursor || null);
+    setUsersList((prev) => (cursor ? [...prev, ...fetchedUsers] : fetchedUsers));
+    setFollowStates((prev) => {
+      const states = cursor ? { ...prev } : {};
+      fetchedUsers.forEach((user) => {
+        states[user.id] = user.viewerFollows || false;
+      });
+      return states;
+    });
+  };
+
+  // Fetch one page of user summaries
+  const fetchPage = async (cursor) => {
+    const page =
+        kind === "following"
+            ? await getFollowing(userId, cursor, token)
+            : await getFollowers(userId, cursor, token);
+    applyPage(page, cursor);
+  };
+
   useEffect(() => {
     const fetchUsers = async () => {
-      if (!users.length) {
-        setLoading(false);
-        setUsersList([]);
-        return;
-      }
-
       setLoading(true);
       try {
-        const fetchedUsers = await getUsersById(users, token);
-        setUsersList(fetchedUsers || []);
-
-        // Initialize follow states
-        const initialFollowStates = {};
-        fetchedUsers.forEach((user) => {
-          initialFollowStates[user.id] =
-              currentUser?.followingUsers?.includes(user.id) || false;
-        });
-        setFollowStates(initialFollowStates);
+        // The first page may already have come with the profile overview
+        if (initialPage) {
+          applyPage(initialPage, null);
+        } else {
+          await fetchPage(null);
+        }
       } catch (error) {
         console.error("Error fetching users:", error);
         toast.error("Failed to load users");
@@ -48,10 +69,19 @@ const FollowersModal = ({
       }
     };
 
-    if (isOpen) {
+    if (isOpen && userId) {
       fetchUsers();
     }
-  }, [users, isOpen, token, currentUser]);
+  }, [userId, kind, isOpen, token]);
+
+  const handleLoadMore = async () => {
+    try {
+      await fetchPage(nextCursor);
+    } catch (error) {
+      console.error("Error fetching users:", error);
+      toast.error("Failed to load users");
+    }
+  };
 
   const handleFollowToggle = async (userId) => {
     if (!currentUser) {
@@ -180,9 +210,7 @@ const FollowersModal = ({
                         <p className="text-gray-400">
                           {searchQuery
                               ? "No users match your search."
-                              : users.length > 0
-                                  ? "No user information available."
-                                  : `No ${title.toLowerCase()} yet.`}
+                              : `No ${title.toLowerCase()} yet.`}
                         </p>
                       </div>
                   ) : (
@@ -201,7 +229,7 @@ const FollowersModal = ({
                               <div className="flex items-center space-x-3 flex-grow">
                                 <div className="relative">
                                   <UserAvatar
-                                      src={user.profileImage}
+                                      src={user.avatarUrl}
                                       alt={user.name}
                                       name={user.name}
                                       size="h-12 w-12"
@@ -211,23 +239,6 @@ const FollowersModal = ({
                                   <h4 className="font-medium text-white">
                                     {user.name}
                                   </h4>
-                                  {user.skills && user.skills.length > 0 && (
-                                      <div className="flex flex-wrap gap-1 mt-1">
-                                        {user.skills.slice(0, 2).map((skill, idx) => (
-                                            <span
-                                                key={idx}
-                                                className="inline-flex items-center px-2 py-0.5 rounded text-xs font-medium bg-gray-700 text-yellow-400"
-                                            >
-                                  {skill}
-                                </span>
-                                        ))}
-                                        {user.skills.length > 2 && (
-                                            <span className="text-xs text-gray-500">
-                                  +{user.skills.length - 2} more
-                                </span>
-                                        )}
-                                      </div>
-                                  )}
                                 </div>
                               </div>
 
@@ -249,6 +260,14 @@ const FollowersModal = ({
                           </motion.div>
                       ))
                   )}
+                  {!loading && nextCursor && !searchQuery && (
+                      <button
+                          onClick={handleLoadMore}
+                          className="w-full py-3 text-sm text-yellow-400 hover:bg-gray-800 transition-colors cursor-pointer"
+                      >
+                        Load more
+                      </button>
+                  )}
                 </div>
               </motion.div>
             </motion.div>
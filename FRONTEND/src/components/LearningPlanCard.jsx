@@ -3,6 +3,8 @@ import { motion } from "framer-motion";
 import { Edit, Trash, Heart, MessageSquare, Book, Link as LinkIcon, Share2, Bookmark } from "lucide-react";
 import Comment, { CommentForm } from "./CommentComponent";
 import useConfirmModal from "../hooks/useConfirmModal";
+import useCommentPages from "../hooks/useCommentPages";
+import { getLearningPlanComments } from "../api/learningPlanAPI";
 import ConfirmModal from "./ConfirmModal";
 import UserAvatar from "./UserAvatar";
 import { Link as NavigateLink } from "react-router-dom";
@@ -22,6 +24,15 @@ const LearningPlanCard = ({
   const [showComments, setShowComments] = useState(false);
   const [saved, setSaved] = useState(false);
   const { modalState, openModal, closeModal } = useConfirmModal();
+  const {
+    comments,
+    commentCount,
+    hasMore,
+    loading: loadingComments,
+    loadMore,
+    updateComment,
+    removeComment,
+  } = useCommentPages(getLearningPlanComments, plan, token);
 
   const isLikedByUser = plan.likes?.some(
       (like) => like.userId === currentUser?.id
@@ -40,6 +51,16 @@ const LearningPlanCard = ({
     }
   };
 
+  const handleCommentUpdated = (planId, commentId, newContent) => {
+    updateComment(commentId, newContent);
+    onUpdateComment(planId, commentId, newContent);
+  };
+
+  const handleCommentDeleted = (planId, commentId) => {
+    removeComment(commentId);
+    onDeleteComment(planId, commentId);
+  };
+
   const handleSave = () => {
     setSaved(!saved);
     toast.success(saved ? "Learning plan removed from saved items" : "Learning plan saved successfully");
@@ -199,7 +220,7 @@ const LearningPlanCard = ({
                   aria-label={showComments ? "Hide comments" : "Show comments"}
               >
                 <MessageSquare size={18} />
-                <span>{plan.comments?.length || 0}</span>
+                <span>{commentCount}</span>
               </motion.button>
             </div>
 
@@ -243,16 +264,25 @@ const LearningPlanCard = ({
 
               {/* Comments List */}
               <div className="space-y-3 max-h-64 overflow-y-auto mt-4 scrollbar-thin scrollbar-thumb-gray-700 scrollbar-track-transparent pr-2">
-                {plan.comments && plan.comments.length > 0 ? (
-                    plan.comments.map((comment) => (
+                {hasMore && (
+                    <button
+                        className="w-full text-center text-sm text-gray-400 hover:text-white py-1 cursor-pointer"
+                        onClick={loadMore}
+                        disabled={loadingComments}
+                    >
+                      {loadingComments ? "Loading..." : "View earlier comments"}
+                    </button>
+                )}
+                {comments.length > 0 ? (
+                    comments.map((comment) => (
                         <Comment
                             key={comment.id}
                             comment={comment}
                             postId={plan.id}
                             currentUser={currentUser}
                             postUserId={plan.userId}
-                            onCommentUpdated={onUpdateComment}
-                            onCommentDeleted={onDeleteComment}
+                            onCommentUpdated={handleCommentUpdated}
+                            onCommentDeleted={handleCommentDeleted}
                             token={token}
                             commentType="LEARNING_PLANS"
                         />
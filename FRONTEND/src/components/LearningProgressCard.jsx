@@ -3,6 +3,8 @@ import { motion } from "framer-motion";
 import { Edit, Trash, Heart, MessageSquare, Award, BookOpen, Code } from "lucide-react";
 import Comment, { CommentForm } from "./CommentComponent";
 import useConfirmModal from "../hooks/useConfirmModal";
+import useCommentPages from "../hooks/useCommentPages";
+import { getLearningProgressComments } from "../api/learningProgressAPI";
 import ConfirmModal from "./ConfirmModal";
 import UserAvatar from "./UserAvatar";
 import { Link } from "react-router-dom";
@@ -43,6 +45,15 @@ const LearningProgressCard = ({
                               }) => {
   const [showComments, setShowComments] = useState(false);
   const { modalState, openModal, closeModal } = useConfirmModal();
+  const {
+    comments,
+    commentCount,
+    hasMore,
+    loading: loadingComments,
+    loadMore,
+    updateComment,
+    removeComment,
+  } = useCommentPages(getLearningProgressComments, progress, token);
 
   const isLikedByUser = progress.likes?.some(
       (like) => like.userId === currentUser?.id
@@ -62,6 +73,16 @@ const LearningProgressCard = ({
     }
   };
 
+  const handleCommentUpdated = (progressId, commentId, newContent) => {
+    updateComment(commentId, newContent);
+    onUpdateComment(progressId, commentId, newContent);
+  };
+
+  const handleCommentDeleted = (progressId, commentId) => {
+    removeComment(commentId);
+    onDeleteComment(progressId, commentId);
+  };
+
   //get the template and status info
   const templateInfo = TEMPLATE_TYPES[progress.templateType] || {
     icon: <Award size={16} className="mr-1.5" />,
@@ -212,7 +233,7 @@ const LearningProgressCard = ({
                 whileTap={{ scale: 0.95 }}
             >
               <MessageSquare size={18} />
-              <span>{progress.comments?.length || 0}</span>
+              <span>{commentCount}</span>
             </motion.button>
           </div>
         </div>
@@ -229,16 +250,25 @@ const LearningProgressCard = ({
 
               {/* Comments List */}
               <div className="space-y-3 max-h-64 overflow-y-auto mt-4 scrollbar-thin scrollbar-thumb-gray-700 scrollbar-track-transparent pr-2">
-                {progress.comments && progress.comments.length > 0 ? (
-                    progress.comments.map((comment) => (
+                {hasMore && (
+                    <button
+                        className="w-full text-center text-sm text-gray-400 hover:text-white py-1 cursor-pointer"
+                        onClick={loadMore}
+                        disabled={loadingComments}
+                    >
+                      {loadingComments ? "Loading..." : "View earlier comments"}
+                    </button>
+                )}
+                {comments.length > 0 ? (
+                    comments.map((comment) => (
                         <Comment
                             key={comment.id}
                             comment={comment}
                             postId={progress.id}
                             currentUser={currentUser}
                             postUserId={progress.userId}
-                            onCommentUpdated={onUpdateComment}
-                            onCommentDeleted={onDeleteComment}
+                            onCommentUpdated={handleCommentUpdated}
+                            onCommentDeleted={handleCommentDeleted}
                             token={token}
                             commentType="LEARNING_PROGRESS"
                         />
@@ -4,6 +4,8 @@ import { Heart, MessageSquare, Edit, Trash, Share2, Bookmark } from "lucide-reac
 import { useNavigate } from "react-router-dom";
 import Comment, { CommentForm } from "./CommentComponent";
 import useConfirmModal from "../hooks/useConfirmModal";
+import useCommentPages from "../hooks/useCommentPages";
+import { getComments } from "../api/skillSharingAPI";
 import EditPostModal from "./EditSkillPostModal";
 import toast from "react-hot-toast";
 import UserAvatar from "./UserAvatar";
@@ -25,6 +27,15 @@ const SkillSharingCard = ({
   const [saved, setSaved] = useState(false);
   const [shared, setShared] = useState(false);
   const { modalState, openModal, closeModal } = useConfirmModal();
+  const {
+    comments,
+    commentCount,
+    hasMore,
+    loading: loadingComments,
+    loadMore,
+    updateComment,
+    removeComment,
+  } = useCommentPages(getComments, post, token);
 
   const isLikedByUser = post?.likes?.some(
       (like) => like.userId === currentUser?.id
@@ -48,11 +59,13 @@ const SkillSharingCard = ({
 
   // Handle updating a comment through parent component
   const handleCommentUpdated = (postId, commentId, newContent) => {
+    updateComment(commentId, newContent);
     onCommentUpdated(postId, commentId, newContent);
   };
 
   // Handle deleting a comment through parent component
   const handleCommentDeleted = (postId, commentId) => {
+    removeComment(commentId);
     onCommentDeleted(postId, commentId);
   };
 
@@ -167,6 +180,10 @@ const SkillSharingCard = ({
                     mediaObject = JSON.parse(urlString);
                     url = mediaObject.dataUrl;
                     isVideo = mediaObject.type === "video";
+                    // Stored images can be served as a rendition sized for the card
+                    if (mediaObject.mediaId && !isVideo) {
+                      url = `${url}?w=${post.mediaUrls.length > 1 ? 320 : 1080}`;
+                    }
                   } catch (error) {
                     isVideo =
                         urlString.includes("video") ||
@@ -226,7 +243,7 @@ const SkillSharingCard = ({
                   aria-label={showComments ? "Hide comments" : "Show comments"}
               >
                 <MessageSquare size={18} />
-                <span>{post.comments?.length || 0}</span>
+                <span>{commentCount}</span>
               </motion.button>
             </div>
 
@@ -282,8 +299,17 @@ const SkillSharingCard = ({
 
                   {/* Comments List */}
                   <div className="space-y-2 max-h-64 overflow-y-auto scrollbar-thin scrollbar-thumb-gray-700 scrollbar-track-transparent pr-2">
-                    {post.comments && post.comments.length > 0 ? (
-                        post.comments.map((comment) => (
+                    {hasMore && (
+                        <button
+                            className="w-full text-center text-sm text-gray-400 hover:text-white py-1 cursor-pointer"
+                            onClick={loadMore}
+                            disabled={loadingComments}
+                        >
+                          {loadingComments ? "Loading..." : "View earlier comments"}
+                        </button>
+                    )}
+                    {comments.length > 0 ? (
+                        comments.map((comment) => (
                             <Comment
                                 key={comment.id}
                                 comment={comment}
@@ -0,0 +1,63 @@
+import { useState } from "react";
+
+// Feed items only carry a commentCount and a preview of their newest comments.
+// This pages in older comments on demand and keeps them in step with edits and deletes.
+const useCommentPages = (fetchPage, parent, token) => {
+  const [older, setOlder] = useState([]);
+  const [cursor, setCursor] = useState(undefined); // null once the oldest page has been loaded
+  const [loading, setLoading] = useState(false);
+
+  const preview = parent.comments || [];
+  const previewIds = new Set(preview.map((comment) => comment.id));
+  const comments = [
+    ...older.filter((comment) => !previewIds.has(comment.id)),
+    ...preview,
+  ];
+  const commentCount = parent.commentCount ?? preview.length;
+  const hasMore = cursor !== null && comments.length < commentCount;
+
+  const loadMore = async () => {
+    setLoading(true);
+    try {
+      const response = await fetchPage(parent.id, cursor, 20, token);
+      const { items, nextCursor } = response.data;
+      // pages come newest first; the list is shown oldest first
+      setOlder((current) => {
+        const known = new Set(current.map((comment) => comment.id));
+        return [
+          ...items.filter((comment) => !known.has(comment.id)).reverse(),
+          ...current,
+        ];
+      });
+      setCursor(nextCursor);
+    } catch (error) {
+      console.error("Error loading comments:", error);
+    } finally {
+      setLoading(false);
+    }
+  };
+
+  const updateComment = (commentId, content) => {
+    setOlder((current) =>
+      current.map((comment) =>
+        comment.id === commentId ? { ...comment, content } : comment
+      )
+    );
+  };
+
+  const removeComment = (commentId) => {
+    setOlder((current) => current.filter((comment) => comment.id !== commentId));
+  };
+
+  return {
+    comments,
+    commentCount,
+    hasMore,
+    loading,
+    loadMore,
+    updateComment,
+    removeComment,
+  };
+};
+
+export default useCommentPages;
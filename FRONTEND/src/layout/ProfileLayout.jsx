@@ -131,7 +131,7 @@ const ProfileLayout = ({
                                         className="flex items-center hover:text-yellow-400 transition-colors cursor-pointer"
                                     >
                     <span className="font-semibold text-white mr-1">
-                      {profileUser.followedUsers?.length || 0}
+                      {profileUser.followerCount || 0}
                     </span>
                                         Followers
                                     </button>
@@ -141,7 +141,7 @@ const ProfileLayout = ({
                                         className="flex items-center hover:text-yellow-400 transition-colors cursor-pointer"
                                     >
                     <span className="font-semibold text-white mr-1">
-                      {profileUser.followingUsers?.length || 0}
+                      {profileUser.followingCount || 0}
                     </span>
                                         Following
                                     </button>